@@ -0,0 +1,350 @@
+package com.wellness.backend.ai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Guards calls to the {@link AiProvider}, separately for each model and
+ * {@link AiOperation}, so slow image analyses neither stretch the timeout of
+ * quick triage calls nor trip their circuit.
+ *
+ * A bulkhead caps the calls in flight, and calls over the cap are refused
+ * instead of queued. A count-based circuit breaker opens when too many of the
+ * recent calls failed. While it is open, calls are refused without contacting
+ * the provider. After the open period one probe call decides whether the
+ * circuit closes again. The timeout follows observed latency: a percentile of
+ * recent successful calls times a multiplier, clamped to a range.
+ *
+ * A refused call fails with {@link AiUnavailableException}, so the caller can
+ * switch to another model or to its local fallback at once.
+ */
+@Component
+public class AiGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiGateway.class);
+
+    @Autowired
+    private AiProvider provider;
+
+    @Value("${app.ai.gateway.max-concurrent-per-lane:8}")
+    private int maxConcurrentPerLane;
+
+    @Value("${app.ai.gateway.breaker.window:20}")
+    private int breakerWindow;
+
+    @Value("${app.ai.gateway.breaker.min-calls:10}")
+    private int breakerMinCalls;
+
+    @Value("${app.ai.gateway.breaker.failure-rate-percent:50}")
+    private int failureRatePercent;
+
+    @Value("${app.ai.gateway.breaker.open-ms:30000}")
+    private long openMs;
+
+    @Value("${app.ai.gateway.timeout.percentile:99}")
+    private int timeoutPercentile;
+
+    @Value("${app.ai.gateway.timeout.multiplier:2.0}")
+    private double timeoutMultiplier;
+
+    @Value("${app.ai.gateway.timeout.min-ms:5000}")
+    private long minTimeoutMs;
+
+    @Value("${app.ai.gateway.timeout.max-ms:30000}")
+    private long maxTimeoutMs;
+
+    private final Map<LaneKey, Lane> lanes = new ConcurrentHashMap<>();
+
+    public Mono<String> call(String model, AiOperation operation, List<Map<String, Object>> parts) {
+        return Mono.defer(() -> {
+            Lane lane = lanes.computeIfAbsent(new LaneKey(model, operation), Lane::new);
+            if (!lane.bulkhead.tryAcquire()) {
+                lane.rejectedBusy.incrementAndGet();
+                return Mono.error(new AiUnavailableException(lane.key + " has too many calls in flight"));
+            }
+            State granted = lane.breaker.tryAcquire();
+            if (granted == null) {
+                lane.bulkhead.release();
+                lane.rejectedOpen.incrementAndGet();
+                return Mono.error(new AiUnavailableException(lane.key + " circuit is open"));
+            }
+            lane.calls.incrementAndGet();
+            // The half-open probe gets the full timeout: the adaptive one may be what kept failing
+            Duration timeout = granted == State.HALF_OPEN ? Duration.ofMillis(maxTimeoutMs) : lane.latency.timeout();
+            long started = System.nanoTime();
+            return provider.generate(model, parts)
+                    .timeout(timeout)
+                    .doOnSuccess(body -> {
+                        lane.latency.record((System.nanoTime() - started) / 1_000_000);
+                        lane.breaker.onSuccess();
+                    })
+                    .doOnError(e -> {
+                        if (e instanceof TimeoutException) {
+                            lane.timeouts.incrementAndGet();
+                            lane.latency.onTimeout(timeout.toMillis());
+                        }
+                        if (isProviderFault(e)) {
+                            lane.failures.incrementAndGet();
+                            lane.breaker.onFailure();
+                        } else {
+                            lane.breaker.onIgnored();
+                        }
+                    })
+                    .doOnCancel(lane.breaker::onIgnored)
+                    .doFinally(signal -> lane.bulkhead.release());
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("provider", provider.name());
+        stats.put("maxConcurrentPerLane", maxConcurrentPerLane);
+        Map<String, Map<String, Object>> models = new LinkedHashMap<>();
+        lanes.forEach((key, lane) -> models.computeIfAbsent(key.model(), m -> new LinkedHashMap<>())
+                .put(key.operation().name(), lane.getStats()));
+        stats.put("models", models);
+        return stats;
+    }
+
+    // ================= INTERNALS =================
+    /**
+     * Timeouts, transport errors, rate limiting and 5xx count against the
+     * model; other 4xx responses are about the request, not the provider.
+     */
+    private static boolean isProviderFault(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().value() == 429 || response.getStatusCode().is5xxServerError();
+        }
+        return true;
+    }
+
+    private record LaneKey(String model, AiOperation operation) {
+        @Override
+        public String toString() {
+            return model + " (" + operation + ")";
+        }
+    }
+
+    private final class Lane {
+        private final LaneKey key;
+        private final Semaphore bulkhead = new Semaphore(maxConcurrentPerLane);
+        private final Breaker breaker;
+        private final LatencyWindow latency = new LatencyWindow(200);
+
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong rejectedBusy = new AtomicLong();
+        private final AtomicLong rejectedOpen = new AtomicLong();
+
+        private Lane(LaneKey key) {
+            this.key = key;
+            this.breaker = new Breaker(key, latency);
+        }
+
+        private Map<String, Object> getStats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("circuit", breaker.state().name());
+            stats.put("circuitOpens", breaker.opens);
+            stats.put("inFlight", maxConcurrentPerLane - bulkhead.availablePermits());
+            stats.put("calls", calls.get());
+            stats.put("failures", failures.get());
+            stats.put("timeouts", timeouts.get());
+            stats.put("rejectedBusy", rejectedBusy.get());
+            stats.put("rejectedOpen", rejectedOpen.get());
+            stats.put("latencyP50Ms", latency.percentile(50));
+            stats.put("latencyP99Ms", latency.percentile(99));
+            stats.put("timeoutMs", latency.timeout().toMillis());
+            return stats;
+        }
+    }
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Count-based breaker over the last {@code breakerWindow} outcomes.
+     */
+    private final class Breaker {
+        private final LaneKey lane;
+        private final LatencyWindow latency;
+        private final boolean[] outcomes = new boolean[breakerWindow];
+        private int next;
+        private int recorded;
+        private int failed;
+        private State state = State.CLOSED;
+        private long openedAt;
+        private boolean probing;
+        private volatile long opens;
+
+        private Breaker(LaneKey lane, LatencyWindow latency) {
+            this.lane = lane;
+            this.latency = latency;
+        }
+
+        private synchronized State state() {
+            return state;
+        }
+
+        /**
+         * The state the call was admitted in (HALF_OPEN for the probe), or
+         * null if it is refused.
+         */
+        private synchronized State tryAcquire() {
+            if (state == State.OPEN) {
+                if (System.currentTimeMillis() - openedAt < openMs) {
+                    return null;
+                }
+                state = State.HALF_OPEN;
+                probing = false;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probing) {
+                    return null;
+                }
+                probing = true;
+            }
+            return state;
+        }
+
+        private synchronized void onSuccess() {
+            if (state == State.HALF_OPEN) {
+                logger.info("AI circuit for {} closed", lane);
+                reset();
+                state = State.CLOSED;
+                return;
+            }
+            record(false);
+        }
+
+        private synchronized void onFailure() {
+            if (state == State.HALF_OPEN) {
+                open();
+                return;
+            }
+            if (state == State.CLOSED) {
+                record(true);
+                if (recorded >= breakerMinCalls && failed * 100 >= failureRatePercent * recorded) {
+                    open();
+                }
+            }
+        }
+
+        /**
+         * A finished call that says nothing about the provider's health; frees
+         * the probe slot if it was the probe.
+         */
+        private synchronized void onIgnored() {
+            if (state == State.HALF_OPEN) {
+                probing = false;
+            }
+        }
+
+        private void record(boolean failure) {
+            if (recorded == outcomes.length) {
+                if (outcomes[next]) {
+                    failed--;
+                }
+            } else {
+                recorded++;
+            }
+            outcomes[next] = failure;
+            if (failure) {
+                failed++;
+            }
+            next = (next + 1) % outcomes.length;
+        }
+
+        private void open() {
+            logger.warn("AI circuit for {} opened for {} ms", lane, openMs);
+            reset();
+            // Latencies from before the outage say little about the provider once it recovers
+            latency.reset();
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+            opens++;
+        }
+
+        private void reset() {
+            Arrays.fill(outcomes, false);
+            next = 0;
+            recorded = 0;
+            failed = 0;
+            probing = false;
+        }
+    }
+
+    /**
+     * Latencies of the most recent calls. The timeout is derived again every
+     * few samples; until enough samples exist it is the maximum. A timed-out
+     * call counts as taking its full timeout and backs the timeout off at
+     * once, so a timeout that shrank during a fast period cannot keep
+     * failing every call once the provider slows down.
+     */
+    private final class LatencyWindow {
+        private static final int MIN_SAMPLES = 20;
+        private static final int RECOMPUTE_EVERY = 10;
+
+        private final long[] samples;
+        private int next;
+        private int size;
+        private long recordedSince;
+        private volatile Duration timeout = Duration.ofMillis(maxTimeoutMs);
+
+        private LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        private synchronized void record(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+            if (size >= MIN_SAMPLES && ++recordedSince >= RECOMPUTE_EVERY) {
+                recordedSince = 0;
+                long adaptive = (long) (percentile(timeoutPercentile) * timeoutMultiplier);
+                timeout = Duration.ofMillis(Math.max(minTimeoutMs, Math.min(maxTimeoutMs, adaptive)));
+            }
+        }
+
+        private synchronized void onTimeout(long timeoutMillis) {
+            record(timeoutMillis);
+            long backedOff = (long) (timeout.toMillis() * timeoutMultiplier);
+            timeout = Duration.ofMillis(Math.max(minTimeoutMs, Math.min(maxTimeoutMs, backedOff)));
+        }
+
+        private synchronized void reset() {
+            next = 0;
+            size = 0;
+            recordedSince = 0;
+            timeout = Duration.ofMillis(maxTimeoutMs);
+        }
+
+        private synchronized long percentile(int p) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(p / 100.0 * size) - 1;
+            return sorted[Math.max(0, Math.min(size - 1, rank))];
+        }
+
+        private Duration timeout() {
+            return timeout;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.wellness.backend.ai;
+
+/**
+ * Kind of request sent to a model. Operations differ a lot in latency (a
+ * prescription image takes far longer than a short triage prompt), so the
+ * {@link AiGateway} keeps a separate lane for each model and operation.
+ */
+public enum AiOperation {
+    TRIAGE,
+    PRESCRIPTION_ANALYSIS
+}
@@ -0,0 +1,21 @@
+package com.wellness.backend.ai;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends one generateContent request to a model. Selected with app.ai.provider
+ * (gemini or stub). Callers go through {@link AiGateway}, which adds the
+ * concurrency limit, circuit breaker and timeout.
+ */
+public interface AiProvider {
+
+    String name();
+
+    /**
+     * @return the raw response body in the Gemini generateContent shape
+     */
+    Mono<String> generate(String model, List<Map<String, Object>> parts);
+}
@@ -0,0 +1,12 @@
+package com.wellness.backend.ai;
+
+/**
+ * The gateway refused a call without contacting the provider, because the
+ * circuit for the model and operation is open or its concurrency limit is reached.
+ */
+public class AiUnavailableException extends RuntimeException {
+
+    public AiUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,117 @@
+package com.wellness.backend.ai;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Google Gemini generateContent over WebClient. Connection failures are
+ * retried here; timeouts and breaker decisions belong to {@link AiGateway}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.ai.provider", havingValue = "gemini", matchIfMissing = true)
+public class GeminiProvider implements AiProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiProvider.class);
+
+    @Value("${google.gemini.api.key:}")
+    private String rawApiKey;
+    private String apiKey;
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        this.apiKey = (rawApiKey != null) ? rawApiKey.trim() : "";
+    }
+
+    // The output stream blocks while the connection applies backpressure
+    private static final Executor BODY_WRITER = task -> Schedulers.boundedElastic().schedule(task);
+
+    private final ObjectWriter bodyWriter = new ObjectMapper().writer()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    // Configure durable HttpClient
+    private final HttpClient httpClient = HttpClient.create()
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000)
+            .doOnConnected(conn -> conn
+                    .addHandlerLast(new ReadTimeoutHandler(30))
+                    .addHandlerLast(new WriteTimeoutHandler(30)));
+
+    private final WebClient webClient = WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .build();
+
+    @Override
+    public String name() {
+        return "gemini";
+    }
+
+    @Override
+    public Mono<String> generate(String model, List<Map<String, Object>> parts) {
+        String uri = "https://generativelanguage.googleapis.com/v1beta/models/" + model + ":generateContent?key=" + apiKey;
+
+        Map<String, Object> requestMap = new HashMap<>();
+        requestMap.put("contents", List.of(Map.of("role", "user", "parts", parts)));
+        
+        // Output formatting config to force Gemini into strict JSON mode.
+        // It guarantees valid JSON based on the user's explicit Schema instructions above.
+        requestMap.put("generationConfig", Map.of("response_mime_type", "application/json"));
+
+        // Disable Safety Gating to prevent clinical censorship
+        List<Map<String, String>> safetySettings = List.of(
+            Map.of("category", "HARM_CATEGORY_HARASSMENT", "threshold", "BLOCK_NONE"),
+            Map.of("category", "HARM_CATEGORY_HATE_SPEECH", "threshold", "BLOCK_NONE"),
+            Map.of("category", "HARM_CATEGORY_SEXUALLY_EXPLICIT", "threshold", "BLOCK_NONE"),
+            Map.of("category", "HARM_CATEGORY_DANGEROUS_CONTENT", "threshold", "BLOCK_NONE")
+        );
+        requestMap.put("safetySettings", safetySettings);
+
+        return webClient.post()
+                .uri(uri)
+                .header("Content-Type", "application/json")
+                // Serialize straight into the request; InlineImage parts stream their base64 from disk
+                .body(BodyInserters.fromOutputStream(out -> writeBody(out, requestMap), BODY_WRITER))
+                .retrieve()
+                // Keep the status-specific exception so a 429 can switch to the fallback model
+                .onStatus(HttpStatusCode::isError, response -> response.createException().flatMap(e -> {
+                    logger.error("Gemini API Error ({}): {}", response.statusCode(), e.getResponseBodyAsString());
+                    return Mono.error(e);
+                }))
+                .bodyToMono(String.class)
+                .retryWhen(Retry.backoff(2, Duration.ofSeconds(1))
+                        .filter(t -> t instanceof WebClientRequestException || (t.getMessage() != null && t.getMessage().contains("Connection reset"))));
+    }
+
+    private void writeBody(OutputStream out, Map<String, Object> requestMap) {
+        try {
+            bodyWriter.writeValue(out, requestMap);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.wellness.backend.ai;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * An image part backed by a file. It serializes as Gemini inline_data
+ * ({@code {"mime_type": ..., "data": <base64>}}), and the base64 is encoded
+ * from the file while the JSON is written. The encoded image is never held in
+ * memory as a whole.
+ */
+@JsonSerialize(using = InlineImage.Serializer.class)
+public record InlineImage(Path file, String mimeType, long size) {
+
+    static final class Serializer extends StdSerializer<InlineImage> {
+
+        Serializer() {
+            super(InlineImage.class);
+        }
+
+        @Override
+        public void serialize(InlineImage image, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("mime_type", image.mimeType());
+            gen.writeFieldName("data");
+            try (InputStream in = Files.newInputStream(image.file())) {
+                gen.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, in, (int) image.size());
+            }
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.wellness.backend.ai;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local provider for tests and load runs: answers every request with a fixed
+ * response after a configurable delay and fails a configurable share of calls,
+ * without network access or an API key. The answer carries both the triage and
+ * the prescription fields, so either parser accepts it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.ai.provider", havingValue = "stub")
+public class StubAiProvider implements AiProvider {
+
+    private static final Map<String, Object> ANSWER = Map.of(
+            "specialist", "General Medicine",
+            "medicines", List.of(Map.of("name", "Paracetamol", "usage", "500mg every 6 hours if needed")),
+            "home_remedies", List.of("Rest", "Hydration"),
+            "extracted_medicines", List.of(),
+            "advice", "Stub response. Consult a registered medical practitioner.");
+
+    @Value("${app.ai.stub.latency-ms:200}")
+    private long latencyMs;
+
+    @Value("${app.ai.stub.failure-rate:0.0}")
+    private double failureRate;
+
+    private final String response;
+
+    public StubAiProvider() {
+        ObjectMapper mapper = new ObjectMapper();
+        try {
+            String text = mapper.writeValueAsString(ANSWER);
+            response = mapper.writeValueAsString(Map.of("candidates", List.of(
+                    Map.of("content", Map.of("parts", List.of(Map.of("text", text)))))));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "stub";
+    }
+
+    @Override
+    public Mono<String> generate(String model, List<Map<String, Object>> parts) {
+        return Mono.delay(Duration.ofMillis(latencyMs)).flatMap(tick -> {
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                return Mono.error(new IllegalStateException("Stub provider failure"));
+            }
+            return Mono.just(response);
+        });
+    }
+}
@@ -0,0 +1,360 @@
+package com.wellness.backend.catalog;
+
+import com.wellness.backend.dto.ProductDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Matches medicine names extracted from prescriptions to catalog products.
+ *
+ * Active ingredients and product names are normalized into tokens (dose
+ * units, dosage forms and digits dropped, common US/UK generic names folded)
+ * and stored in a trie built from {@link ProductCatalogIndex}. Each query
+ * token is looked up exactly, as a prefix, and within a small edit distance
+ * to absorb OCR errors. A batch looks every distinct token up once, then
+ * scores products per medicine by the share of its tokens they cover.
+ *
+ * The trie is immutable and rebuilt lazily when the catalog version moves,
+ * which only name and ingredient changes do. Stock and availability are read
+ * from the live index entry at scoring time.
+ */
+@Component
+public class IngredientMatcher {
+
+    private static final int MIN_TOKEN_LENGTH = 3;
+    private static final int MIN_PREFIX_LENGTH = 4;
+    // A short prefix can expand to many terms; stop collecting past this
+    private static final int MAX_PREFIX_PRODUCTS = 200;
+    private static final double PREFIX_SCORE = 0.85;
+
+    private static final Set<String> NOISE = Set.of(
+            "tab", "tabs", "tablet", "tablets", "cap", "caps", "capsule", "capsules", "syp", "syrup",
+            "susp", "suspension", "inj", "injection", "cream", "ointment", "oint", "gel", "drops", "drop",
+            "lotion", "spray", "sachet", "powder", "mg", "mcg", "ml", "gm", "iu", "sr", "er", "xr", "cr",
+            "ds", "forte", "plus", "and", "with", "the", "for", "once", "twice", "daily", "before", "after");
+
+    private static final Map<String, String> GENERIC_ALIASES = Map.of(
+            "acetaminophen", "paracetamol",
+            "albuterol", "salbutamol",
+            "epinephrine", "adrenaline",
+            "glyceryl", "nitroglycerin",
+            "amoxycillin", "amoxicillin",
+            "cyclosporine", "ciclosporin",
+            "furosemide", "frusemide",
+            "lidocaine", "lignocaine",
+            "rifampin", "rifampicin",
+            "acetylsalicylic", "aspirin");
+
+    @Autowired
+    private ProductCatalogIndex catalogIndex;
+
+    @Value("${app.medical.match.limit:5}")
+    private int matchLimit;
+
+    @Value("${app.medical.match.min-score:0.5}")
+    private double minScore;
+
+    private volatile Snapshot snapshot = new Snapshot(-1, Node.freeze(new BuildNode()), 0, 0);
+    private final Object buildLock = new Object();
+
+    // ================= METRICS =================
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong medicines = new AtomicLong();
+    private final AtomicLong tokenLookups = new AtomicLong();
+    private final AtomicLong fuzzyHits = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private volatile long lastBuildMs;
+
+    /**
+     * Products matched for one extracted medicine, best first.
+     */
+    public record MedicineMatch(String medicine, List<ProductDTO> products) {
+    }
+
+    private record Snapshot(long version, Node root, int products, int terms) {
+    }
+
+    /**
+     * Matches every name against the catalog in one pass. The result lists
+     * are in input order.
+     */
+    public List<MedicineMatch> matchAll(List<String> names) {
+        Snapshot current = current();
+        batches.incrementAndGet();
+
+        List<List<String>> queries = new ArrayList<>(names.size());
+        Map<String, Map<Integer, Double>> hitsByToken = new HashMap<>();
+        for (String name : names) {
+            List<String> tokens = new ArrayList<>(new LinkedHashSet<>(normalize(name)));
+            queries.add(tokens);
+            for (String token : tokens) {
+                hitsByToken.computeIfAbsent(token, t -> lookup(current.root(), t));
+            }
+        }
+        tokenLookups.addAndGet(hitsByToken.size());
+
+        List<MedicineMatch> matches = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            medicines.incrementAndGet();
+            matches.add(new MedicineMatch(names.get(i), score(queries.get(i), hitsByToken)));
+        }
+        return matches;
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("catalogVersion", current.version());
+        stats.put("products", current.products());
+        stats.put("terms", current.terms());
+        stats.put("rebuilds", rebuilds.get());
+        stats.put("lastBuildMs", lastBuildMs);
+        stats.put("batches", batches.get());
+        stats.put("medicines", medicines.get());
+        stats.put("tokenLookups", tokenLookups.get());
+        stats.put("fuzzyHits", fuzzyHits.get());
+        return stats;
+    }
+
+    // ================= SCORING =================
+    private List<ProductDTO> score(List<String> tokens, Map<String, Map<Integer, Double>> hits) {
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Double> scores = new HashMap<>();
+        for (String token : tokens) {
+            hits.get(token).forEach((id, score) -> scores.merge(id, score, Double::sum));
+        }
+
+        // Live entries, so stock changes since the trie was built are reflected
+        Map<Integer, ProductDTO> live = new HashMap<>();
+        List<Map.Entry<Integer, Double>> ranked = new ArrayList<>();
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            if (entry.getValue() / tokens.size() < minScore) {
+                continue;
+            }
+            ProductDTO product = catalogIndex.get(entry.getKey());
+            if (product != null) {
+                live.put(entry.getKey(), product);
+                ranked.add(entry);
+            }
+        }
+        ranked.sort(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                .thenComparing(e -> !Boolean.TRUE.equals(live.get(e.getKey()).getAvailable()))
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        List<ProductDTO> products = new ArrayList<>(Math.min(ranked.size(), matchLimit));
+        for (int i = 0; i < ranked.size() && products.size() < matchLimit; i++) {
+            products.add(live.get(ranked.get(i).getKey()));
+        }
+        return products;
+    }
+
+    /**
+     * Best score per product for one query token: 1 for an exact term,
+     * {@link #PREFIX_SCORE} for a prefix, otherwise scaled by edit distance.
+     */
+    private Map<Integer, Double> lookup(Node root, String token) {
+        Map<Integer, Double> hits = new HashMap<>();
+        Node exact = root.find(token);
+        if (exact != null && exact.productIds != null) {
+            for (int id : exact.productIds) {
+                hits.put(id, 1.0);
+            }
+        }
+        if (exact != null && token.length() >= MIN_PREFIX_LENGTH) {
+            exact.collect(hits, PREFIX_SCORE, MAX_PREFIX_PRODUCTS);
+        }
+
+        int maxEdits = token.length() <= 4 ? 0 : token.length() <= 7 ? 1 : 2;
+        if (maxEdits > 0) {
+            int[] firstRow = new int[token.length() + 1];
+            for (int i = 0; i < firstRow.length; i++) {
+                firstRow[i] = i;
+            }
+            for (int c = 0; c < root.keys.length; c++) {
+                fuzzy(root.children[c], root.keys[c], token, firstRow, 1, maxEdits, hits);
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Levenshtein DP over the trie: one row per depth, pruned once every
+     * cell of the row exceeds {@code maxEdits}.
+     */
+    private void fuzzy(Node node, char ch, String token, int[] previous, int depth, int maxEdits,
+            Map<Integer, Double> hits) {
+        int[] row = new int[previous.length];
+        row[0] = previous[0] + 1;
+        int best = row[0];
+        for (int i = 1; i < row.length; i++) {
+            int cost = token.charAt(i - 1) == ch ? 0 : 1;
+            row[i] = Math.min(Math.min(row[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
+            best = Math.min(best, row[i]);
+        }
+
+        int distance = row[row.length - 1];
+        if (distance > 0 && distance <= maxEdits && node.productIds != null) {
+            double score = 1.0 - (double) distance / Math.max(token.length(), depth);
+            boolean added = false;
+            for (int id : node.productIds) {
+                if (hits.getOrDefault(id, 0.0) < score) {
+                    hits.put(id, score);
+                    added = true;
+                }
+            }
+            if (added) {
+                fuzzyHits.incrementAndGet();
+            }
+        }
+        if (best <= maxEdits) {
+            for (int c = 0; c < node.keys.length; c++) {
+                fuzzy(node.children[c], node.keys[c], token, row, depth + 1, maxEdits, hits);
+            }
+        }
+    }
+
+    // ================= BUILD =================
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        long version = catalogIndex.version();
+        if (current.version() == version) {
+            return current;
+        }
+        synchronized (buildLock) {
+            if (snapshot.version() != catalogIndex.version()) {
+                snapshot = build();
+            }
+            return snapshot;
+        }
+    }
+
+    private Snapshot build() {
+        long started = System.nanoTime();
+        // Read the version first: a change during the build forces another one
+        long version = catalogIndex.version();
+        BuildNode root = new BuildNode();
+        int products = 0;
+        Set<String> terms = new TreeSet<>();
+        for (ProductDTO product : catalogIndex.activeProducts()) {
+            products++;
+            Set<String> tokens = new LinkedHashSet<>(normalize(product.getActiveIngredient()));
+            tokens.addAll(normalize(product.getName()));
+            for (String token : tokens) {
+                root.insert(token, product.getId());
+                terms.add(token);
+            }
+        }
+        rebuilds.incrementAndGet();
+        lastBuildMs = (System.nanoTime() - started) / 1_000_000;
+        return new Snapshot(version, Node.freeze(root), products, terms.size());
+    }
+
+    /**
+     * Lower-cases, strips accents, digits and punctuation, drops dose units
+     * and dosage forms, and folds generic-name aliases.
+     */
+    static List<String> normalize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+        for (String token : folded.split("[^a-z]+")) {
+            if (token.length() < MIN_TOKEN_LENGTH || NOISE.contains(token)) {
+                continue;
+            }
+            tokens.add(GENERIC_ALIASES.getOrDefault(token, token));
+        }
+        return tokens;
+    }
+
+    private static final class BuildNode {
+        private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        private Set<Integer> productIds;
+
+        void insert(String term, Integer productId) {
+            BuildNode node = this;
+            for (int i = 0; i < term.length(); i++) {
+                node = node.children.computeIfAbsent(term.charAt(i), c -> new BuildNode());
+            }
+            if (node.productIds == null) {
+                node.productIds = new TreeSet<>();
+            }
+            node.productIds.add(productId);
+        }
+    }
+
+    /**
+     * Frozen trie node with sorted child keys for binary search.
+     */
+    private static final class Node {
+        private final char[] keys;
+        private final Node[] children;
+        private final int[] productIds;
+
+        private Node(char[] keys, Node[] children, int[] productIds) {
+            this.keys = keys;
+            this.children = children;
+            this.productIds = productIds;
+        }
+
+        static Node freeze(BuildNode node) {
+            char[] keys = new char[node.children.size()];
+            Node[] children = new Node[keys.length];
+            int i = 0;
+            for (Map.Entry<Character, BuildNode> child : node.children.entrySet()) {
+                keys[i] = child.getKey();
+                children[i++] = freeze(child.getValue());
+            }
+            int[] ids = node.productIds == null ? null
+                    : node.productIds.stream().mapToInt(Integer::intValue).toArray();
+            return new Node(keys, children, ids);
+        }
+
+        Node find(String term) {
+            Node node = this;
+            for (int i = 0; i < term.length() && node != null; i++) {
+                int at = Arrays.binarySearch(node.keys, term.charAt(i));
+                node = at < 0 ? null : node.children[at];
+            }
+            return node;
+        }
+
+        /**
+         * Adds every product below this node with {@code score} unless it
+         * already scored higher.
+         */
+        void collect(Map<Integer, Double> hits, double score, int limit) {
+            if (hits.size() >= limit) {
+                return;
+            }
+            if (productIds != null) {
+                for (int id : productIds) {
+                    hits.merge(id, score, Math::max);
+                }
+            }
+            for (Node child : children) {
+                child.collect(hits, score, limit);
+            }
+        }
+    }
+}
@@ -0,0 +1,563 @@
+package com.wellness.backend.catalog;
+
+import com.wellness.backend.dto.ProductDTO;
+import com.wellness.backend.enums.ProductModerationStatus;
+import com.wellness.backend.event.ProductChangedEvent;
+import com.wellness.backend.model.Product;
+import com.wellness.backend.repository.ProductRepository;
+import com.wellness.backend.service.ProductMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of ACTIVE products for catalog browsing and search.
+ *
+ * Products are posted by category, ingredient, price bucket and name /
+ * ingredient token. A query starts from its most selective posting list,
+ * verifies each candidate against the full filter, then sorts and pages in
+ * memory, so browse traffic never reaches MySQL.
+ *
+ * Writers publish a {@link ProductChangedEvent}; after commit the product is
+ * re-read and re-posted under a per-product lock, so the last reload always
+ * sees the latest committed row. A periodic resync repairs anything missed.
+ */
+@Component
+public class ProductCatalogIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalogIndex.class);
+
+    private static final int LOCK_STRIPES = 64;
+    private static final int TOP_INGREDIENT_FACETS = 20;
+
+    public enum Sort {
+        ID, NAME, PRICE_ASC, PRICE_DESC, NEWEST, STOCK;
+
+        public static Sort parse(String value) {
+            if (value == null || value.isBlank()) {
+                return NAME;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown sort: " + value);
+            }
+        }
+    }
+
+    /**
+     * Catalog filter. Null fields do not filter.
+     */
+    public record Query(String text, String category, String ingredient, BigDecimal minPrice, BigDecimal maxPrice,
+            Boolean inStock, Sort sort) {
+
+        public static Query all(Sort sort) {
+            return new Query(null, null, null, null, null, null, sort);
+        }
+    }
+
+    public record Page(List<ProductDTO> items, int page, int size, long total, int totalPages,
+            Map<String, Map<String, Long>> facets) {
+    }
+
+    private record Entry(Integer id, String nameKey, String category, String categoryKey, String ingredient,
+            String ingredientKey, BigDecimal price, int bucket, int stock, Set<String> tokens, ProductDTO dto,
+            Source source, long loadedAt) {
+    }
+
+    // The product columns an entry is built from, to tell whether a resync read changed anything
+    private record Source(String name, String description, BigDecimal price, String category, Integer stock,
+            String imageUrl, String imageUrl2, String activeIngredient, Integer sellerId) {
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Value("${app.catalog.price-buckets:100,250,500,1000}")
+    private BigDecimal[] priceBuckets;
+
+    @Value("${app.catalog.max-page-size:100}")
+    private int maxPageSize;
+
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> byCategory = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> byIngredient = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Integer>> byPriceBucket = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Integer>> byToken = new ConcurrentSkipListMap<>();
+
+    // Bumped when a product enters or leaves the index or its name or ingredient changes, so
+    // name-based structures know when to rebuild; stock and price updates leave it alone
+    private final AtomicLong version = new AtomicLong();
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final Object resyncLock = new Object();
+    private volatile boolean loaded;
+
+    // ================= METRICS =================
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong substringFallbacks = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+    private volatile long lastResyncMs;
+
+    public ProductCatalogIndex() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            ensureLoaded();
+        } catch (Exception e) {
+            logger.warn("Catalog index initialization failed: {}", e.getMessage());
+        }
+    }
+
+    @Async("domainEventExecutor")
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        reload(event.productId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.resync-ms:600000}",
+            initialDelayString = "${app.catalog.resync-ms:600000}")
+    public void scheduledResync() {
+        try {
+            resync();
+        } catch (Exception e) {
+            logger.warn("Catalog resync failed: {}", e.getMessage());
+        }
+    }
+
+    // ================= QUERIES =================
+    /**
+     * Runs a filtered, sorted, paginated query with facet counts over all
+     * matches.
+     */
+    public Page query(Query query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        int pageIndex = Math.max(0, page);
+        List<Entry> matches = match(query);
+
+        List<ProductDTO> items = new ArrayList<>(pageSize);
+        long from = (long) pageIndex * pageSize;
+        for (int i = (int) Math.min(from, matches.size()); i < matches.size() && items.size() < pageSize; i++) {
+            items.add(matches.get(i).dto());
+        }
+        int totalPages = (matches.size() + pageSize - 1) / pageSize;
+        return new Page(items, pageIndex, pageSize, matches.size(), totalPages, facets(matches));
+    }
+
+    /**
+     * All matches of the query, sorted, without paging.
+     */
+    public List<ProductDTO> list(Query query) {
+        List<Entry> matches = match(query);
+        List<ProductDTO> items = new ArrayList<>(matches.size());
+        for (Entry entry : matches) {
+            items.add(entry.dto());
+        }
+        return items;
+    }
+
+    /**
+     * All indexed products, in no particular order.
+     */
+    public List<ProductDTO> activeProducts() {
+        ensureLoaded();
+        List<ProductDTO> products = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            products.add(entry.dto());
+        }
+        return products;
+    }
+
+    /**
+     * Current DTO of an indexed product, or null if it is not in the index.
+     */
+    public ProductDTO get(Integer productId) {
+        Entry entry = entries.get(productId);
+        return entry != null ? entry.dto() : null;
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    // ================= MAINTENANCE =================
+    /**
+     * Re-reads one product and re-posts or removes it.
+     */
+    public void reload(Integer productId) {
+        synchronized (lockFor(productId)) {
+            long readAt = System.nanoTime();
+            Product product = productRepository.findById(productId).orElse(null);
+            if (product == null || product.getModerationStatus() != ProductModerationStatus.ACTIVE) {
+                remove(productId);
+            } else {
+                put(toEntry(product, sourceOf(product), readAt));
+            }
+            reloads.incrementAndGet();
+        }
+    }
+
+    /**
+     * Reconciles the index with all ACTIVE rows. Products reloaded while the
+     * resync ran keep their newer state.
+     */
+    public void resync() {
+        synchronized (resyncLock) {
+            long started = System.nanoTime();
+            List<Product> products = productRepository.findByModerationStatus(ProductModerationStatus.ACTIVE);
+            Set<Integer> active = new HashSet<>();
+            for (Product product : products) {
+                active.add(product.getId());
+                Source source = sourceOf(product);
+                synchronized (lockFor(product.getId())) {
+                    Entry current = entries.get(product.getId());
+                    // Unchanged rows are left as they are, so a resync does not churn postings or the version
+                    if (current == null || (current.loadedAt() < started && !current.source().equals(source))) {
+                        put(toEntry(product, source, started));
+                    }
+                }
+            }
+            for (Integer id : new ArrayList<>(entries.keySet())) {
+                if (active.contains(id)) {
+                    continue;
+                }
+                synchronized (lockFor(id)) {
+                    Entry current = entries.get(id);
+                    if (current != null && current.loadedAt() < started) {
+                        remove(id);
+                    }
+                }
+            }
+            loaded = true;
+            resyncs.incrementAndGet();
+            lastResyncMs = (System.nanoTime() - started) / 1_000_000;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", loaded);
+        stats.put("products", entries.size());
+        stats.put("version", version.get());
+        stats.put("categories", byCategory.size());
+        stats.put("ingredients", byIngredient.size());
+        stats.put("tokens", byToken.size());
+        stats.put("queries", queries.get());
+        stats.put("substringFallbacks", substringFallbacks.get());
+        stats.put("reloads", reloads.get());
+        stats.put("resyncs", resyncs.get());
+        stats.put("lastResyncMs", lastResyncMs);
+        return stats;
+    }
+
+    // ================= INTERNALS =================
+    private void ensureLoaded() {
+        if (!loaded) {
+            resync();
+        }
+    }
+
+    private List<Entry> match(Query query) {
+        ensureLoaded();
+        queries.incrementAndGet();
+        List<String> terms = tokenize(query.text());
+
+        List<Entry> matches = new ArrayList<>();
+        for (Integer id : candidates(query, terms)) {
+            Entry entry = entries.get(id);
+            if (entry != null && matchesFilters(entry, query) && matchesTerms(entry, terms)) {
+                matches.add(entry);
+            }
+        }
+        if (matches.isEmpty() && !terms.isEmpty()) {
+            // Nothing starts with the typed text; fall back to a substring match on the name
+            substringFallbacks.incrementAndGet();
+            String needle = query.text().trim().toLowerCase(Locale.ROOT);
+            for (Entry entry : entries.values()) {
+                if (matchesFilters(entry, query) && entry.nameKey().contains(needle)) {
+                    matches.add(entry);
+                }
+            }
+        }
+        matches.sort(comparator(query.sort()));
+        return matches;
+    }
+
+    /**
+     * The smallest posting list that constrains the query, or all products.
+     */
+    private Collection<Integer> candidates(Query query, List<String> terms) {
+        List<Collection<Integer>> lists = new ArrayList<>();
+        if (query.category() != null) {
+            lists.add(byCategory.getOrDefault(key(query.category()), Set.of()));
+        }
+        if (query.ingredient() != null) {
+            lists.add(byIngredient.getOrDefault(key(query.ingredient()), Set.of()));
+        }
+        if (query.minPrice() != null || query.maxPrice() != null) {
+            int low = query.minPrice() != null ? bucketOf(query.minPrice()) : 0;
+            int high = query.maxPrice() != null ? bucketOf(query.maxPrice()) : priceBuckets.length;
+            Set<Integer> ids = new HashSet<>();
+            for (int bucket = low; bucket <= high; bucket++) {
+                ids.addAll(byPriceBucket.getOrDefault(bucket, Set.of()));
+            }
+            lists.add(ids);
+        }
+        if (!terms.isEmpty()) {
+            // Posting list of the rarest term prefix
+            Collection<Integer> best = null;
+            for (String term : terms) {
+                Set<Integer> ids = new HashSet<>();
+                for (Set<Integer> posting : byToken.subMap(term, term + Character.MAX_VALUE).values()) {
+                    ids.addAll(posting);
+                }
+                if (best == null || ids.size() < best.size()) {
+                    best = ids;
+                }
+            }
+            lists.add(best);
+        }
+
+        Collection<Integer> smallest = entries.keySet();
+        for (Collection<Integer> list : lists) {
+            if (list.size() < smallest.size()) {
+                smallest = list;
+            }
+        }
+        return smallest;
+    }
+
+    private boolean matchesFilters(Entry entry, Query query) {
+        if (query.category() != null && !entry.categoryKey().equals(key(query.category()))) {
+            return false;
+        }
+        if (query.ingredient() != null && !entry.ingredientKey().equals(key(query.ingredient()))) {
+            return false;
+        }
+        if (query.minPrice() != null && entry.price().compareTo(query.minPrice()) < 0) {
+            return false;
+        }
+        if (query.maxPrice() != null && entry.price().compareTo(query.maxPrice()) > 0) {
+            return false;
+        }
+        return query.inStock() == null || query.inStock() == (entry.stock() > 0);
+    }
+
+    private static boolean matchesTerms(Entry entry, List<String> terms) {
+        for (String term : terms) {
+            boolean found = false;
+            for (String token : entry.tokens()) {
+                if (token.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<String, Map<String, Long>> facets(List<Entry> matches) {
+        Map<String, Long> categories = new HashMap<>();
+        Map<String, Long> ingredients = new HashMap<>();
+        long[] buckets = new long[priceBuckets.length + 1];
+        long inStock = 0;
+        for (Entry entry : matches) {
+            categories.merge(entry.category(), 1L, Long::sum);
+            if (entry.ingredient() != null) {
+                ingredients.merge(entry.ingredient(), 1L, Long::sum);
+            }
+            buckets[entry.bucket()]++;
+            if (entry.stock() > 0) {
+                inStock++;
+            }
+        }
+
+        Map<String, Long> prices = new LinkedHashMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] > 0) {
+                prices.put(bucketLabel(i), buckets[i]);
+            }
+        }
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put("category", sortedByCount(categories, Integer.MAX_VALUE));
+        facets.put("ingredient", sortedByCount(ingredients, TOP_INGREDIENT_FACETS));
+        facets.put("price", prices);
+        facets.put("availability", Map.of("inStock", inStock, "outOfStock", matches.size() - inStock));
+        return facets;
+    }
+
+    private static Map<String, Long> sortedByCount(Map<String, Long> counts, int limit) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+
+    private static Comparator<Entry> comparator(Sort sort) {
+        Comparator<Entry> byId = Comparator.comparing(Entry::id);
+        switch (sort != null ? sort : Sort.NAME) {
+            case ID:
+                return byId;
+            case PRICE_ASC:
+                return Comparator.comparing(Entry::price).thenComparing(byId);
+            case PRICE_DESC:
+                return Comparator.comparing(Entry::price).reversed().thenComparing(byId);
+            case NEWEST:
+                return byId.reversed();
+            case STOCK:
+                return Comparator.comparingInt(Entry::stock).reversed().thenComparing(byId);
+            case NAME:
+            default:
+                return Comparator.comparing(Entry::nameKey).thenComparing(byId);
+        }
+    }
+
+    private void put(Entry entry) {
+        Entry previous = entries.put(entry.id(), entry);
+        if (previous != null) {
+            unpost(previous);
+        }
+        post(entry);
+        if (previous == null || !previous.nameKey().equals(entry.nameKey())
+                || !Objects.equals(previous.ingredientKey(), entry.ingredientKey())) {
+            version.incrementAndGet();
+        }
+    }
+
+    private void remove(Integer productId) {
+        Entry previous = entries.remove(productId);
+        if (previous != null) {
+            unpost(previous);
+            version.incrementAndGet();
+        }
+    }
+
+    private void post(Entry entry) {
+        add(byCategory, entry.categoryKey(), entry.id());
+        if (entry.ingredientKey() != null) {
+            add(byIngredient, entry.ingredientKey(), entry.id());
+        }
+        add(byPriceBucket, entry.bucket(), entry.id());
+        for (String token : entry.tokens()) {
+            add(byToken, token, entry.id());
+        }
+    }
+
+    private void unpost(Entry entry) {
+        drop(byCategory, entry.categoryKey(), entry.id());
+        if (entry.ingredientKey() != null) {
+            drop(byIngredient, entry.ingredientKey(), entry.id());
+        }
+        drop(byPriceBucket, entry.bucket(), entry.id());
+        for (String token : entry.tokens()) {
+            drop(byToken, token, entry.id());
+        }
+    }
+
+    private static <K> void add(Map<K, Set<Integer>> postings, K key, Integer id) {
+        postings.compute(key, (k, ids) -> {
+            Set<Integer> set = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            set.add(id);
+            return set;
+        });
+    }
+
+    private static <K> void drop(Map<K, Set<Integer>> postings, K key, Integer id) {
+        postings.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static Source sourceOf(Product product) {
+        return new Source(product.getName(), product.getDescription(), product.getPrice(), product.getCategory(),
+                product.getStock(), product.getImageUrl(), product.getImageUrl2(), product.getActiveIngredient(),
+                product.getSeller() != null ? product.getSeller().getId() : null);
+    }
+
+    private Entry toEntry(Product product, Source source, long loadedAt) {
+        Set<String> tokens = new HashSet<>(tokenize(product.getName()));
+        tokens.addAll(tokenize(product.getActiveIngredient()));
+        String ingredient = product.getActiveIngredient() != null && !product.getActiveIngredient().isBlank()
+                ? product.getActiveIngredient().trim() : null;
+        BigDecimal price = product.getPrice() != null ? product.getPrice() : BigDecimal.ZERO;
+        return new Entry(product.getId(), key(product.getName()), product.getCategory(), key(product.getCategory()),
+                ingredient, ingredient != null ? key(ingredient) : null, price, bucketOf(price),
+                product.getStock() != null ? product.getStock() : 0, Set.copyOf(tokens),
+                productMapper.toDTO(product), source, loadedAt);
+    }
+
+    private int bucketOf(BigDecimal price) {
+        for (int i = 0; i < priceBuckets.length; i++) {
+            if (price.compareTo(priceBuckets[i]) < 0) {
+                return i;
+            }
+        }
+        return priceBuckets.length;
+    }
+
+    private String bucketLabel(int bucket) {
+        if (bucket == priceBuckets.length) {
+            return priceBuckets[bucket - 1].toPlainString() + "+";
+        }
+        String low = bucket == 0 ? "0" : priceBuckets[bucket - 1].toPlainString();
+        return low + "-" + priceBuckets[bucket].toPlainString();
+    }
+
+    private Object lockFor(Integer productId) {
+        return locks[Math.floorMod(productId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,133 @@
+package com.wellness.backend.config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.broker.AbstractSubscriptionRegistry;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.PathMatcher;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Subscription registry for the simple broker that looks up exact destinations
+ * with a single hash probe instead of matching every message against every
+ * subscription.
+ *
+ * User destinations (/user/queue/...) resolve to per-session destinations such
+ * as /queue/notifications-user{sessionId}, so with thousands of sockets each
+ * message touches only its own subscribers. Wildcard subscriptions are kept in
+ * a separate, usually empty, pattern index.
+ */
+public class IndexedSubscriptionRegistry extends AbstractSubscriptionRegistry {
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    // destination -> sessionId -> subscriptionIds
+    private final Map<String, Map<String, Set<String>>> exactIndex = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Set<String>>> patternIndex = new ConcurrentHashMap<>();
+
+    // sessionId -> subscriptionId -> destination (for UNSUBSCRIBE / DISCONNECT)
+    private final Map<String, Map<String, String>> sessionIndex = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+
+    @Override
+    protected void addSubscriptionInternal(String sessionId, String subscriptionId, String destination,
+            Message<?> message) {
+        String previous = sessionIndex.computeIfAbsent(sessionId, k -> new ConcurrentHashMap<>())
+                .put(subscriptionId, destination);
+        if (previous != null) {
+            removeFromIndex(previous, sessionId, subscriptionId);
+        }
+        indexFor(destination).compute(destination, (d, sessions) -> {
+            Map<String, Set<String>> target = sessions != null ? sessions : new ConcurrentHashMap<>();
+            if (target.computeIfAbsent(sessionId, k -> ConcurrentHashMap.newKeySet()).add(subscriptionId)) {
+                subscriptionCount.incrementAndGet();
+            }
+            return target;
+        });
+    }
+
+    @Override
+    protected void removeSubscriptionInternal(String sessionId, String subscriptionId, Message<?> message) {
+        Map<String, String> subscriptions = sessionIndex.get(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        String destination = subscriptions.remove(subscriptionId);
+        if (destination != null) {
+            removeFromIndex(destination, sessionId, subscriptionId);
+        }
+    }
+
+    @Override
+    public void unregisterAllSubscriptions(String sessionId) {
+        Map<String, String> subscriptions = sessionIndex.remove(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        subscriptions.forEach((subscriptionId, destination) -> removeFromIndex(destination, sessionId, subscriptionId));
+    }
+
+    @Override
+    protected MultiValueMap<String, String> findSubscriptionsInternal(String destination, Message<?> message) {
+        MultiValueMap<String, String> result = new LinkedMultiValueMap<>();
+        collect(exactIndex.get(destination), result);
+        if (!patternIndex.isEmpty()) {
+            patternIndex.forEach((pattern, sessions) -> {
+                if (pathMatcher.match(pattern, destination)) {
+                    collect(sessions, result);
+                }
+            });
+        }
+        return result;
+    }
+
+    public int getSubscriptionCount() {
+        return subscriptionCount.get();
+    }
+
+    public int getDestinationCount() {
+        return exactIndex.size() + patternIndex.size();
+    }
+
+    public int getPatternDestinationCount() {
+        return patternIndex.size();
+    }
+
+    public int getSessionCount() {
+        return sessionIndex.size();
+    }
+
+    private Map<String, Map<String, Set<String>>> indexFor(String destination) {
+        return pathMatcher.isPattern(destination) ? patternIndex : exactIndex;
+    }
+
+    private void removeFromIndex(String destination, String sessionId, String subscriptionId) {
+        indexFor(destination).computeIfPresent(destination, (d, sessions) -> {
+            Set<String> ids = sessions.get(sessionId);
+            if (ids != null && ids.remove(subscriptionId)) {
+                subscriptionCount.decrementAndGet();
+                if (ids.isEmpty()) {
+                    sessions.remove(sessionId);
+                }
+            }
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    private static void collect(Map<String, Set<String>> sessions, MultiValueMap<String, String> result) {
+        if (sessions == null) {
+            return;
+        }
+        sessions.forEach((sessionId, subscriptionIds) -> {
+            for (String subscriptionId : subscriptionIds) {
+                result.add(sessionId, subscriptionId);
+            }
+        });
+    }
+}
@@ -1,6 +1,7 @@
 package com.wellness.backend.config;
 
 import com.wellness.backend.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -59,6 +60,10 @@ public class SecurityConfig {
                 // Allow H2 Frame options if you are using it
                 .headers(headers -> headers.frameOptions(frame -> frame.disable()))
                 .authorizeHttpRequests(auth -> auth
+                        // 0. ASYNC DISPATCH - the request was authorized before the controller returned a future;
+                        // the JWT filter does not run again when the result is dispatched back
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // 1. PUBLIC ENDPOINTS
                         .requestMatchers("/", "/api/auth/**", "/h2-console/**", "/ws/**", "/ws-chat/**", "/api/payments/webhook", "/error")
                         .permitAll()
@@ -96,6 +101,7 @@ public class SecurityConfig {
 
                         // 6. ROLE-BASED DASHBOARDS
                         .requestMatchers("/api/practitioner/**").hasRole("PRACTITIONER")
+                        .requestMatchers("/api/seller/**").hasRole("PRODUCT_SELLER")
                         .requestMatchers("/api/user/**").hasRole("PATIENT")
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
@@ -1,11 +1,25 @@
 package com.wellness.backend.config;
 
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.lang.NonNull; // Import this
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
@@ -13,26 +27,100 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.simp.stomp.StompCommand;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.beans.factory.annotation.Autowired;
-import com.wellness.backend.security.JwtService;
-import com.wellness.backend.security.CustomUserDetailsService;
+import com.wellness.backend.security.WebSocketAuthService;
+import com.wellness.backend.service.WebSocketLivenessService;
+import com.wellness.backend.service.WebSocketMetricsService;
+import com.wellness.backend.service.WebSocketPublisher;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    // "simple" = in-memory broker (single node), "relay" = external STOMP broker
+    @Value("${app.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${app.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${app.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${app.websocket.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    // STOMP heart-beat intervals offered to clients (server send, expected client send)
+    @Value("${app.websocket.heartbeat.server-ms:10000}")
+    private long heartbeatServerMs;
+
+    @Value("${app.websocket.heartbeat.client-ms:10000}")
+    private long heartbeatClientMs;
+
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy TaskScheduler messageBrokerTaskScheduler) {
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+
     @Override
     public void configureMessageBroker(@NonNull MessageBrokerRegistry config) {
-        // Enable a simple in-memory broker with destination prefix /topic
-        config.enableSimpleBroker("/topic", "/queue"); // Added /queue for user-specific messages
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            // External STOMP broker (RabbitMQ/ActiveMQ); user destinations are
+            // resolved across nodes via the broadcast topics below
+            var relay = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry")
+                    .setSystemHeartbeatSendInterval(heartbeatServerMs)
+                    .setSystemHeartbeatReceiveInterval(heartbeatClientMs);
+            if (relayVirtualHost != null && !relayVirtualHost.isBlank()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+        } else {
+            // Enable a simple in-memory broker with destination prefix /topic
+            // Native STOMP heart-beats: the broker answers every session from one
+            // scheduler and drops sessions that stop sending them
+            config.enableSimpleBroker("/topic", "/queue") // Added /queue for user-specific messages
+                    .setHeartbeatValue(new long[] { heartbeatServerMs, heartbeatClientMs })
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+        }
         // Application destination prefix for @MessageMapping methods
         config.setApplicationDestinationPrefixes("/app");
         // For user-specific notifications (convertAndSendToUser)
         config.setUserDestinationPrefix("/user");
     }
 
+    /**
+     * Swaps the simple broker's default registry for the hash-indexed one.
+     */
+    @Bean
+    public static BeanPostProcessor subscriptionRegistryPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (bean instanceof SimpleBrokerMessageHandler handler) {
+                    handler.setSubscriptionRegistry(new IndexedSubscriptionRegistry());
+                }
+                return bean;
+            }
+        };
+    }
+
     @Override
     public void registerStompEndpoints(@NonNull StompEndpointRegistry registry) {
         // WebSocket endpoint (native WebSockets)
@@ -48,33 +136,86 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     }
 
     @Autowired
-    private JwtService jwtService;
+    private WebSocketAuthService webSocketAuthService;
 
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private WebSocketMetricsService webSocketMetricsService;
+
+    @Autowired
+    private WebSocketLivenessService webSocketLivenessService;
+
+    @Override
+    public void configureWebSocketTransport(@NonNull WebSocketTransportRegistration registration) {
+        // Register raw sockets so the liveness sweep can close idle ones
+        registration.addDecoratorFactory(handler -> new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(@NonNull WebSocketSession session) throws Exception {
+                webSocketLivenessService.register(session);
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(@NonNull WebSocketSession session, @NonNull CloseStatus closeStatus)
+                    throws Exception {
+                webSocketLivenessService.unregister(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        });
+    }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(new ChannelInterceptor() {
             @Override
             public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                if (sessionId != null) {
+                    webSocketLivenessService.touch(sessionId);
+                }
+                if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.HEARTBEAT) {
+                    webSocketLivenessService.recordHeartbeatReceived();
+                    return message;
+                }
+
                 StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
                 if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
-                    String authHeader = accessor.getFirstNativeHeader("Authorization");
-                    if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                        String token = authHeader.substring(7);
+                    UsernamePasswordAuthenticationToken authentication = webSocketAuthService
+                            .authenticate(accessor.getFirstNativeHeader("Authorization"));
+                    if (authentication != null) {
+                        accessor.setUser(authentication);
+                    }
+                } else if (accessor != null && StompCommand.SEND.equals(accessor.getCommand())
+                        && isSubscribeRequest(accessor.getDestination()) && accessor.getUser() == null) {
+                    // /app/*/subscribe is only for authenticated sessions; ownership of the
+                    // requested userId is checked in WebSocketController
+                    throw new AccessDeniedException("Authentication required");
+                }
+                return message;
+            }
+        });
+    }
+
+    private static boolean isSubscribeRequest(String destination) {
+        return destination != null && destination.startsWith("/app/") && destination.endsWith("/subscribe");
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                SimpMessageType messageType = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+                if (messageType == SimpMessageType.HEARTBEAT) {
+                    webSocketLivenessService.recordHeartbeatSent();
+                } else if (messageType == SimpMessageType.MESSAGE) {
+                    String publishedAt = NativeMessageHeaderAccessor.getFirstNativeHeader(
+                            WebSocketPublisher.PUBLISHED_AT_HEADER, message.getHeaders());
+                    if (publishedAt != null) {
                         try {
-                            String username = jwtService.extractUsername(token);
-                            if (username != null) {
-                                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                                if (jwtService.validateToken(token, userDetails.getUsername())) {
-                                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                                            userDetails, null, userDetails.getAuthorities());
-                                    accessor.setUser(authentication);
-                                }
-                            }
-                        } catch (Exception e) {
-                            // Invalid token
+                            webSocketMetricsService.recordDelivery(
+                                    System.currentTimeMillis() - Long.parseLong(publishedAt));
+                        } catch (NumberFormatException e) {
+                            // Not one of ours
                         }
                     }
                 }
@@ -82,4 +223,4 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
             }
         });
     }
-}
\ No newline at end of file
+}
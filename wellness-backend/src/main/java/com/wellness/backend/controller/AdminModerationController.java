@@ -4,10 +4,11 @@ import com.wellness.backend.enums.ProductModerationStatus;
 import com.wellness.backend.model.Product;
 import com.wellness.backend.model.ProductSellerProfile;
 import com.wellness.backend.service.ProductSellerService;
+import com.wellness.backend.storage.ContentStore;
+import com.wellness.backend.storage.FileServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +25,12 @@ public class AdminModerationController {
     @Autowired
     private ProductSellerService sellerService;
 
+    @Autowired
+    private ContentStore contentStore;
+
+    @Autowired
+    private FileServer fileServer;
+
     @GetMapping("/sellers/pending")
     public ResponseEntity<List<ProductSellerProfile>> getPendingSellers() {
         return ResponseEntity.ok(sellerService.getPendingSellers());
@@ -52,12 +59,15 @@ public class AdminModerationController {
     }
 
     @GetMapping("/download")
-    public ResponseEntity<Resource> downloadFile(@RequestParam String path) throws IOException {
+    public void downloadFile(@RequestParam String path, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         Path filePath = Paths.get(path);
-        Resource resource = new UrlResource(filePath.toUri());
-        
-        return ResponseEntity.ok()
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-            .body(resource);
+        // Only files under the storage root can be fetched through this endpoint
+        if (!contentStore.isStored(filePath)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        fileServer.serve(new FileServer.ServedFile(filePath, filePath.getFileName().toString(), null, true),
+                request, response);
     }
 }
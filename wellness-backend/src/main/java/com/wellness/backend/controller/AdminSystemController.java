@@ -0,0 +1,303 @@
+package com.wellness.backend.controller;
+
+import com.wellness.backend.ai.AiGateway;
+import com.wellness.backend.catalog.IngredientMatcher;
+import com.wellness.backend.catalog.ProductCatalogIndex;
+import com.wellness.backend.event.DomainEventPublisher;
+import com.wellness.backend.model.AuditEntry;
+import com.wellness.backend.model.PayoutJobRun;
+import com.wellness.backend.scheduler.AnalyticsRollupJob;
+import com.wellness.backend.scheduler.EarningsReconciler;
+import com.wellness.backend.scheduler.HoldCleanupScheduler;
+import com.wellness.backend.scheduler.MonthlyPayoutScheduler;
+import com.wellness.backend.scheduler.SellerPayoutScheduler;
+import com.wellness.backend.security.WebSocketAuthService;
+import com.wellness.backend.service.AuditLogService;
+import com.wellness.backend.service.EmailDispatcher;
+import com.wellness.backend.service.NotificationCleanupService;
+import com.wellness.backend.service.PractitionerEarningService;
+import com.wellness.backend.service.PrescriptionImageService;
+import com.wellness.backend.service.SellerPayoutService;
+import com.wellness.backend.service.SessionReminderScheduler;
+import com.wellness.backend.service.TriageCache;
+import com.wellness.backend.service.WebSocketLivenessService;
+import com.wellness.backend.service.WebSocketMetricsService;
+import com.wellness.backend.storage.ContentStore;
+import com.wellness.backend.storage.FileServer;
+import com.wellness.backend.storage.ImageDerivatives;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/system")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminSystemController {
+
+    @Autowired
+    private NotificationCleanupService notificationCleanupService;
+
+    @Autowired
+    private ProductCatalogIndex productCatalogIndex;
+
+    @Autowired
+    private IngredientMatcher ingredientMatcher;
+
+    @Autowired
+    private TriageCache triageCache;
+
+    @Autowired
+    private AiGateway aiGateway;
+
+    @Autowired
+    private PrescriptionImageService prescriptionImageService;
+
+    @Autowired
+    private WebSocketMetricsService webSocketMetricsService;
+
+    @Autowired
+    private WebSocketAuthService webSocketAuthService;
+
+    @Autowired
+    private WebSocketLivenessService webSocketLivenessService;
+
+    @Autowired
+    private DomainEventPublisher domainEventPublisher;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private EmailDispatcher emailDispatcher;
+
+    @Autowired
+    private SessionReminderScheduler sessionReminderScheduler;
+
+    @Autowired
+    private HoldCleanupScheduler holdCleanupScheduler;
+
+    @Autowired
+    private MonthlyPayoutScheduler monthlyPayoutScheduler;
+
+    @Autowired
+    private SellerPayoutScheduler sellerPayoutScheduler;
+
+    @Autowired
+    private SellerPayoutService sellerPayoutService;
+
+    @Autowired
+    private EarningsReconciler earningsReconciler;
+
+    @Autowired
+    private PractitionerEarningService practitionerEarningService;
+
+    @Autowired
+    private AnalyticsRollupJob analyticsRollupJob;
+
+    @Autowired
+    private ContentStore contentStore;
+
+    @Autowired
+    private FileServer fileServer;
+
+    @Autowired
+    private ImageDerivatives imageDerivatives;
+
+    // ================= PRODUCT CATALOG =================
+    @GetMapping("/catalog")
+    public ResponseEntity<Map<String, Object>> getCatalogIndexStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(productCatalogIndex.getStats());
+        stats.put("ingredientMatcher", ingredientMatcher.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @PostMapping("/catalog/resync")
+    public ResponseEntity<Map<String, Object>> resyncCatalogIndex() {
+        productCatalogIndex.resync();
+        return ResponseEntity.ok(productCatalogIndex.getStats());
+    }
+
+    // ================= AI =================
+    @GetMapping("/ai")
+    public ResponseEntity<Map<String, Object>> getAiClientStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(aiGateway.getStats());
+        stats.put("prescriptionImages", prescriptionImageService.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/ai/triage-cache")
+    public ResponseEntity<Map<String, Object>> getTriageCacheStats() {
+        return ResponseEntity.ok(triageCache.getStats());
+    }
+
+    @PostMapping("/ai/triage-cache/clear")
+    public ResponseEntity<Map<String, Object>> clearTriageCache() {
+        triageCache.clear();
+        return ResponseEntity.ok(triageCache.getStats());
+    }
+
+    // ================= NOTIFICATION RETENTION =================
+    @GetMapping("/notifications/retention")
+    public ResponseEntity<Map<String, Object>> getNotificationRetentionStatus() {
+        return ResponseEntity.ok(notificationCleanupService.getRetentionStatus());
+    }
+
+    @PostMapping("/notifications/retention/run")
+    public ResponseEntity<Map<String, Object>> runNotificationRetention() {
+        notificationCleanupService.triggerCleanup();
+        return ResponseEntity.accepted().body(Map.of("message", "Notification retention run started"));
+    }
+
+    // ================= WEBSOCKET =================
+    @GetMapping("/websocket")
+    public ResponseEntity<Map<String, Object>> getWebSocketStats() {
+        return ResponseEntity.ok(webSocketMetricsService.getStats());
+    }
+
+    @GetMapping("/websocket/auth")
+    public ResponseEntity<Map<String, Object>> getWebSocketAuthStats() {
+        return ResponseEntity.ok(webSocketAuthService.getStats());
+    }
+
+    @GetMapping("/websocket/liveness")
+    public ResponseEntity<Map<String, Object>> getWebSocketLivenessStats() {
+        return ResponseEntity.ok(webSocketLivenessService.getStats());
+    }
+
+    // ================= DOMAIN EVENTS =================
+    @GetMapping("/events")
+    public ResponseEntity<Map<String, Object>> getDomainEventStats() {
+        return ResponseEntity.ok(domainEventPublisher.getStats());
+    }
+
+    // ================= AUDIT LOG =================
+    @GetMapping("/audit")
+    public ResponseEntity<Map<String, Object>> getAuditWriterStats() {
+        return ResponseEntity.ok(auditLogService.getStats());
+    }
+
+    @PostMapping("/audit/flush")
+    public ResponseEntity<Map<String, Object>> flushAuditLog() {
+        auditLogService.flush();
+        return ResponseEntity.ok(auditLogService.getStats());
+    }
+
+    @GetMapping("/audit/entity/{entityType}/{entityId}")
+    public ResponseEntity<List<AuditEntry>> getEntityAuditHistory(@PathVariable String entityType,
+            @PathVariable String entityId, @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(auditLogService.getEntityHistory(entityType, entityId, Math.min(limit, 1000)));
+    }
+
+    @GetMapping("/audit/user/{userId}")
+    public ResponseEntity<List<AuditEntry>> getUserAuditHistory(@PathVariable Integer userId,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(auditLogService.getUserHistory(userId, Math.min(limit, 1000)));
+    }
+
+    // ================= MAIL QUEUE =================
+    @GetMapping("/mail")
+    public ResponseEntity<Map<String, Object>> getMailQueueStats() {
+        return ResponseEntity.ok(emailDispatcher.getStats());
+    }
+
+    // ================= SESSION SCHEDULERS =================
+    @GetMapping("/reminders")
+    public ResponseEntity<Map<String, Object>> getSessionReminderStats() {
+        return ResponseEntity.ok(sessionReminderScheduler.getStats());
+    }
+
+    @GetMapping("/holds")
+    public ResponseEntity<Map<String, Object>> getHoldExpiryStats() {
+        return ResponseEntity.ok(holdCleanupScheduler.getStats());
+    }
+
+    // ================= PAYOUTS =================
+    @GetMapping("/payouts/runs")
+    public ResponseEntity<List<PayoutJobRun>> getPayoutRuns(@RequestParam(defaultValue = "12") int limit) {
+        return ResponseEntity.ok(monthlyPayoutScheduler.getRecentRuns(Math.min(limit, 100)));
+    }
+
+    @PostMapping("/payouts/run")
+    public ResponseEntity<Map<String, Object>> runPayouts(@RequestParam String month) {
+        YearMonth period = YearMonth.parse(month);
+        if (!period.isBefore(YearMonth.now())) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Payouts can only be generated for a past month"));
+        }
+        monthlyPayoutScheduler.triggerRun(period);
+        return ResponseEntity.accepted().body(Map.of("message", "Payout run for " + period + " started"));
+    }
+
+    @GetMapping("/seller-payouts/runs")
+    public ResponseEntity<List<PayoutJobRun>> getSellerPayoutRuns(@RequestParam(defaultValue = "12") int limit) {
+        return ResponseEntity.ok(sellerPayoutScheduler.getRecentRuns(Math.min(limit, 100)));
+    }
+
+    @PostMapping("/seller-payouts/run")
+    public ResponseEntity<Map<String, Object>> runSellerPayouts(@RequestParam String month) {
+        YearMonth period = YearMonth.parse(month);
+        if (!period.isBefore(YearMonth.now())) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Payouts can only be generated for a past month"));
+        }
+        sellerPayoutScheduler.triggerRun(period);
+        return ResponseEntity.accepted().body(Map.of("message", "Seller payout run for " + period + " started"));
+    }
+
+    @PostMapping("/seller-payouts/balances/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSellerBalances() {
+        return ResponseEntity.ok(Map.of("rowsAffected", sellerPayoutService.rebuildBalances()));
+    }
+
+    @GetMapping("/earnings/reconcile")
+    public ResponseEntity<Map<String, Object>> getEarningsReconcileStats() {
+        return ResponseEntity.ok(earningsReconciler.getStats());
+    }
+
+    @PostMapping("/earnings/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileEarnings() {
+        int created = earningsReconciler.reconcile();
+        if (created < 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Earnings reconciliation already in progress"));
+        }
+        return ResponseEntity.ok(Map.of("earningsCreated", created));
+    }
+
+    @PostMapping("/earnings/summaries/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildEarningSummaries() {
+        return ResponseEntity.ok(Map.of("rowsAffected", practitionerEarningService.rebuildSummaries()));
+    }
+
+    // ================= ANALYTICS =================
+    @GetMapping("/analytics/rollups")
+    public ResponseEntity<Map<String, Object>> getAnalyticsRollupStats() {
+        return ResponseEntity.ok(analyticsRollupJob.getStats());
+    }
+
+    @PostMapping("/analytics/rollups/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildAnalyticsRollups() {
+        if (!analyticsRollupJob.rebuild()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Analytics rollup already in progress"));
+        }
+        return ResponseEntity.ok(analyticsRollupJob.getStats());
+    }
+
+    // ================= STORAGE =================
+    @GetMapping("/storage")
+    public ResponseEntity<Map<String, Object>> getStorageStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(contentStore.getStats());
+        stats.put("downloads", fileServer.getStats());
+        stats.put("images", imageDerivatives.getStats());
+        return ResponseEntity.ok(stats);
+    }
+}
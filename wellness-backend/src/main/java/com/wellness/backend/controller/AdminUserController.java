@@ -3,6 +3,7 @@ package com.wellness.backend.controller;
 import com.wellness.backend.dto.UserDTO;
 import com.wellness.backend.model.User;
 import com.wellness.backend.repository.UserRepository;
+import com.wellness.backend.security.WebSocketAuthService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -19,6 +20,9 @@ public class AdminUserController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private WebSocketAuthService webSocketAuthService;
+
     @GetMapping
     public ResponseEntity<Page<UserDTO>> getUsers(
             @RequestParam(required = false) User.Role role,
@@ -43,6 +47,7 @@ public class AdminUserController {
         user.setBlocked(true);
         user.setBlockingReason(reason);
         userRepository.save(user);
+        webSocketAuthService.evictUser(user.getEmail());
         
         // Simulating sending email
         System.out.println("NOTIFICATION: User " + user.getEmail() + " blocked. Reason: " + reason);
@@ -58,6 +63,7 @@ public class AdminUserController {
         user.setBlocked(false);
         user.setBlockingReason(null);
         userRepository.save(user);
+        webSocketAuthService.evictUser(user.getEmail());
         
         return ResponseEntity.ok("User unblocked successfully");
     }
@@ -5,12 +5,15 @@ import com.wellness.backend.service.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -26,6 +29,19 @@ public class MedicalIntelligenceController {
         "ENT", "Psychiatry", "Endocrinology", "General Medicine"
     );
 
+    // Checked in this order; the first specialty with a matching keyword wins
+    private static final KeywordAutomaton<String> SYMPTOM_SPECIALTIES = KeywordAutomaton.<String>builder()
+        .add(1, "Gastroenterology", "diarrhea", "constipation", "nausea", "vomiting", "heartburn", "stomach*", "acidity", "gastric")
+        .add(2, "Cardiology", "chest pain", "heart", "palpitations", "blood pressure")
+        .add(3, "Neurology", "headache*", "seizure*", "dizziness", "brain", "paralysis", "numbness")
+        .add(4, "Dermatology", "skin", "rash*", "itching", "acne", "burn*", "allerg*")
+        .add(5, "Pulmonology", "breathing", "cough*", "shortness of breath", "lung*", "asthma", "wheezing")
+        .add(6, "Orthopedics", "bone*", "joint*", "fracture*", "back pain", "knee*", "spine", "ortho*")
+        .add(7, "ENT", "ear", "ears", "earache", "nose", "throat", "sinus*", "hearing", "tonsil*")
+        .add(8, "Psychiatry", "mental", "depress*", "anxiety", "anxious", "stress*", "sleep*", "psych*")
+        .add(9, "Endocrinology", "hormone*", "thyroid", "diabetes", "diabetic", "insulin", "growth")
+        .build();
+
     @Autowired
     private MedicalIntelligenceService medicalIntelligenceService;
 
@@ -38,67 +54,86 @@ public class MedicalIntelligenceController {
     @Autowired
     private ProductService productService;
 
-    @PostMapping("/analyze")
-    public ResponseEntity<Map<String, Object>> analyzeMedicalInput(@RequestBody Map<String, String> request) {
+    @PostMapping(value = "/analyze", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> analyzeMedicalInput(@RequestBody Map<String, String> request) {
         String text = request.get("text");
         String base64Image = request.get("image");
         String mimeType = request.get("mimeType");
 
-        try {
-            Map<String, Object> response = medicalIntelligenceService.analyzeAndMatch(text, base64Image, mimeType);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Medical analysis failure: {}", e.getMessage(), e);
-            
-            // Build a consistent failure response for the frontend
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("status", "ERROR");
-            errorResponse.put("message", "Analysis service briefly unavailable. Please try again in a few moments.");
-            
-            // Still returning 200 OK with status='ERROR' to maintain UI stability
-            return ResponseEntity.ok(errorResponse);
-        }
+        // The servlet thread is released here; the response is written when the AI call completes
+        return medicalIntelligenceService.analyzeAndMatch(text, base64Image, mimeType)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(this::analysisFailure);
+    }
+
+    /**
+     * Multipart variant of {@link #analyzeMedicalInput}: the image is uploaded
+     * as a file part, downscaled on the server and streamed to the AI request
+     * instead of travelling as base64 inside JSON.
+     */
+    @PostMapping(value = "/analyze", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> analyzeMedicalUpload(
+            @RequestParam(value = "text", required = false) String text,
+            @RequestParam(value = "image", required = false) MultipartFile image) {
+        return medicalIntelligenceService.analyzeAndMatch(text, image)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(this::analysisFailure);
+    }
+
+    private ResponseEntity<Map<String, Object>> analysisFailure(Throwable e) {
+        logger.error("Medical analysis failure: {}", e.getMessage(), e);
+        
+        // Build a consistent failure response for the frontend
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("status", "ERROR");
+        errorResponse.put("message", "Analysis service briefly unavailable. Please try again in a few moments.");
+        
+        // Still returning 200 OK with status='ERROR' to maintain UI stability
+        return ResponseEntity.ok(errorResponse);
     }
 
     @GetMapping("/triage")
-    public ResponseEntity<TriageResponse> analyzeTriage(@RequestParam String symptoms) {
+    public CompletableFuture<ResponseEntity<TriageResponse>> analyzeTriage(@RequestParam String symptoms) {
         if (symptoms == null || symptoms.trim().isEmpty()) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
 
         logger.info("Executing Triage for symptoms: {}", symptoms);
 
+        // 1. Attempt AI Triage Analysis (Gemini) without holding the servlet thread
+        return geminiService.analyzeSymptomsForTriage(symptoms)
+                .exceptionally(e -> {
+                    logger.error("AI Triage attempt failed: {}. Continuing with fallback clinical logic.", e.getMessage());
+                    // Non-fatal error; proceeding to fallback mapper
+                    return null;
+                })
+                .thenApply(result -> buildTriageResponse(symptoms, result));
+    }
+
+    private ResponseEntity<TriageResponse> buildTriageResponse(String symptoms, TriageResult result) {
         try {
-            // 1. Attempt AI Triage Analysis (Gemini)
-            TriageResult result = null;
             String aiSpecialty = null;
-            try {
-                result = geminiService.analyzeSymptomsForTriage(symptoms);
-                if (result != null) {
-                    aiSpecialty = result.getSuggestedSpecialty();
+            if (result != null) {
+                aiSpecialty = result.getSuggestedSpecialty();
+                
+                // REJECTION CHECK: If AI explicitly blocked the prompt for being non-medical
+                if (aiSpecialty == null || aiSpecialty.equalsIgnoreCase("null") || aiSpecialty.equalsIgnoreCase("None")) {
+                    TriageResponse reject = new TriageResponse();
+                    reject.setTriageLevel("REJECTED");
+                    reject.setSuggestedSpecialty(null);
+                    reject.setMessage("System Access Denied: Please ask medical queries only.");
+                    reject.setRecommendedDoctors(List.of());
+                    reject.setMedicines(List.of());
                     
-                    // REJECTION CHECK: If AI explicitly blocked the prompt for being non-medical
-                    if (aiSpecialty == null || aiSpecialty.equalsIgnoreCase("null") || aiSpecialty.equalsIgnoreCase("None")) {
-                        TriageResponse reject = new TriageResponse();
-                        reject.setTriageLevel("REJECTED");
-                        reject.setSuggestedSpecialty(null);
-                        reject.setMessage("System Access Denied: Please ask medical queries only.");
-                        reject.setRecommendedDoctors(List.of());
-                        reject.setMedicines(List.of());
-                        
-                        TriageDTO t = new TriageDTO(); 
-                        t.setAdvice(result.getTriageDTO() != null && result.getTriageDTO().getAdvice() != null 
-                            ? result.getTriageDTO().getAdvice() : "This bot only answers medical questions.");
-                        reject.setTriage(t);
-                        
-                        return ResponseEntity.ok(reject);
-                    }
-
-                    logger.info("AI Analysis result source: {}, Suggested: {}", result.getSource(), aiSpecialty);
+                    TriageDTO t = new TriageDTO(); 
+                    t.setAdvice(result.getTriageDTO() != null && result.getTriageDTO().getAdvice() != null 
+                        ? result.getTriageDTO().getAdvice() : "This bot only answers medical questions.");
+                    reject.setTriage(t);
+                    
+                    return ResponseEntity.ok(reject);
                 }
-            } catch (Exception e) {
-                logger.error("AI Triage attempt failed: {}. Continuing with fallback clinical logic.", e.getMessage());
-                // Non-fatal error; proceeding to fallback mapper
+
+                logger.info("AI Analysis result source: {}, Suggested: {}", result.getSource(), aiSpecialty);
             }
 
             // 2. Normalize Specialty (Clinical Validation)
@@ -214,27 +249,8 @@ public class MedicalIntelligenceController {
      * Smart fallback: Maps symptoms directly to specialties using keywords.
      */
     private String mapSymptomsToSpecialty(String symptoms) {
-        if (symptoms == null) return "General Medicine";
-        String s = symptoms.toLowerCase();
-        
-        if (containsAny(s, "diarrhea", "constipation", "nausea", "vomiting", "heartburn", "stomach", "acidity", "gastric")) return "Gastroenterology";
-        if (containsAny(s, "chest pain", "heart", "palpitations", "blood pressure")) return "Cardiology";
-        if (containsAny(s, "headache", "seizure", "dizziness", "brain", "paralysis", "numbness")) return "Neurology";
-        if (containsAny(s, "skin", "rash", "itching", "acne", "burn", "allergy")) return "Dermatology";
-        if (containsAny(s, "breathing", "cough", "shortness of breath", "lung", "asthma", "wheezing")) return "Pulmonology";
-        if (containsAny(s, "bone", "joint", "fracture", "back pain", "knee", "spine", "ortho")) return "Orthopedics";
-        if (containsAny(s, "ear", "nose", "throat", "sinus", "hearing", "tonsil")) return "ENT";
-        if (containsAny(s, "mental", "depression", "anxiety", "stress", "sleep", "psych")) return "Psychiatry";
-        if (containsAny(s, "hormone", "thyroid", "diabetes", "insulin", "growth")) return "Endocrinology";
-        
-        return "General Medicine";
-    }
-
-    private boolean containsAny(String input, String... keywords) {
-        for (String k : keywords) {
-            if (input.contains(k)) return true;
-        }
-        return false;
+        KeywordAutomaton.Match<String> match = SYMPTOM_SPECIALTIES.best(symptoms);
+        return match != null ? match.value() : "General Medicine";
     }
 
     /**
@@ -8,17 +8,17 @@ import com.wellness.backend.dto.PractitionerDocumentDTO;
 import com.wellness.backend.dto.SessionHistoryDTO;
 import com.wellness.backend.model.PractitionerDocument;
 import com.wellness.backend.service.PractitionerService;
+import com.wellness.backend.storage.FileServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.net.MalformedURLException;
-import java.nio.file.Path;
+import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.List;
 import org.springframework.cache.annotation.Cacheable;
@@ -28,10 +28,12 @@ import org.springframework.cache.annotation.Cacheable;
 public class PractitionerController {
 
     private final PractitionerService practitionerService;
+    private final FileServer fileServer;
 
     @Autowired
-    public PractitionerController(PractitionerService practitionerService) {
+    public PractitionerController(PractitionerService practitionerService, FileServer fileServer) {
         this.practitionerService = practitionerService;
+        this.fileServer = fileServer;
     }
 
     // ================= GET ALL (PUBLIC) =================
@@ -170,41 +172,21 @@ public class PractitionerController {
     // ================= DOWNLOAD DOCUMENT (ADMIN/PRACTITIONER) =================
     @PreAuthorize("hasAnyRole('PRACTITIONER','ADMIN')")
     @GetMapping("/documents/{documentId}/download")
-    public ResponseEntity<Resource> downloadDocument(
-            @PathVariable Integer documentId) {
+    public void downloadDocument(
+            @PathVariable Integer documentId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
 
         PractitionerDocument document = practitionerService.getDocumentById(documentId);
 
-        try {
-            // 1. Get the path
-            Path filePath = Paths.get(document.getFilePath()).toAbsolutePath().normalize();
-
-            // 2. Convert to URI and ensure it is not null to satisfy @NonNull URI
-            java.net.URI fileUri = filePath.toUri();
-            if (fileUri == null) {
-                return ResponseEntity.internalServerError().build();
-            }
-
-            // 3. Create the resource
-            Resource resource = new org.springframework.core.io.UrlResource(fileUri);
-
-            if (!resource.exists()) {
-                return ResponseEntity.notFound().build();
-            }
-
-            String contentType = document.getFileType();
-            if (contentType == null || contentType.isBlank()) {
-                contentType = "application/pdf";
-            }
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "inline; filename=\"" + document.getFileName() + "\"")
-                    .header(HttpHeaders.CONTENT_TYPE, contentType)
-                    .body(resource);
-        } catch (MalformedURLException e) {
-            return ResponseEntity.internalServerError().build();
+        String contentType = document.getFileType();
+        if (contentType == null || contentType.isBlank()) {
+            contentType = "application/pdf";
         }
+
+        // Range, ETag and conditional GET are handled by the file server
+        fileServer.serve(new FileServer.ServedFile(Paths.get(document.getFilePath()), document.getFileName(),
+                contentType, false), request, response);
     }
 
     // ================= GET ISSUED PRESCRIPTIONS (HISTORY) =================
@@ -1,23 +1,44 @@
 package com.wellness.backend.controller;
 
+import com.wellness.backend.catalog.ProductCatalogIndex;
 import com.wellness.backend.dto.ProductDTO;
 import com.wellness.backend.service.ProductService;
+import com.wellness.backend.storage.FileServer;
+import com.wellness.backend.storage.ImageDerivatives;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic()
+            .immutable().getHeaderValue();
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ImageDerivatives imageDerivatives;
+
+    @Autowired
+    private FileServer fileServer;
+
     // GET /api/products — Get all products
     @GetMapping
     public ResponseEntity<List<ProductDTO>> getAllProducts() {
@@ -39,6 +60,23 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    // GET /api/products/catalog — Paginated, faceted catalog (served from the in-memory index)
+    @GetMapping("/catalog")
+    public ResponseEntity<ProductCatalogIndex.Page> browseCatalog(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String ingredient,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "24") int size) {
+        ProductCatalogIndex.Query query = new ProductCatalogIndex.Query(blankToNull(q), blankToNull(category),
+                blankToNull(ingredient), minPrice, maxPrice, inStock, ProductCatalogIndex.Sort.parse(sort));
+        return ResponseEntity.ok(productService.browseCatalog(query, page, size));
+    }
+
     // GET /api/products/category/{category} — Get products by category
     @GetMapping("/category/{category}")
     public ResponseEntity<List<ProductDTO>> getProductsByCategory(@PathVariable String category) {
@@ -46,6 +84,21 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    // GET /api/products/images/{sha256}/{variant} — Resized product image (thumb, medium)
+    @GetMapping("/images/{sha256}/{variant}")
+    public void getProductImage(@PathVariable String sha256, @PathVariable String variant,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Path> image = ImageDerivatives.Variant.fromPathSegment(variant)
+                .flatMap(v -> imageDerivatives.resolve(sha256, v));
+        if (image.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        // The URL is derived from the content hash, so its bytes never change
+        fileServer.serve(new FileServer.ServedFile(image.get(), image.get().getFileName().toString(),
+                MediaType.IMAGE_JPEG_VALUE, false, IMMUTABLE), request, response);
+    }
+
     // GET /api/products/{id} — Get product by ID
     @GetMapping("/{id}")
     public ResponseEntity<ProductDTO> getProductById(@PathVariable Integer id) {
@@ -78,4 +131,8 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
 }
@@ -0,0 +1,39 @@
+package com.wellness.backend.controller;
+
+import com.wellness.backend.model.SellerPayout;
+import com.wellness.backend.service.SellerPayoutService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/seller/earnings")
+@PreAuthorize("hasRole('PRODUCT_SELLER')")
+public class SellerEarningController {
+
+    @Autowired
+    private SellerPayoutService sellerPayoutService;
+
+    @GetMapping("/pending")
+    public ResponseEntity<Map<String, Object>> getPendingEarnings(Authentication authentication) {
+        return ResponseEntity.ok(sellerPayoutService.getBalance(authentication.getName()));
+    }
+
+    @GetMapping("/payouts")
+    public ResponseEntity<List<SellerPayout>> getPayouts(Authentication authentication) {
+        return ResponseEntity.ok(sellerPayoutService.getPayouts(authentication.getName()));
+    }
+
+    @PostMapping("/withdraw")
+    public ResponseEntity<Map<String, Object>> withdrawEarnings(Authentication authentication) {
+        return ResponseEntity.ok(sellerPayoutService.withdraw(authentication.getName()));
+    }
+}
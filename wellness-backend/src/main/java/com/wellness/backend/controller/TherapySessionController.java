@@ -3,17 +3,20 @@ package com.wellness.backend.controller;
 import com.wellness.backend.dto.BookSessionDTO;
 import com.wellness.backend.dto.TherapySessionDTO;
 import com.wellness.backend.service.TherapySessionService;
+import com.wellness.backend.storage.FileServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.core.io.Resource;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.http.MediaType;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +28,9 @@ public class TherapySessionController {
     @Autowired
     private TherapySessionService therapySessionService;
 
+    @Autowired
+    private FileServer fileServer;
+
     // POST /api/sessions/book — Book a new session
     @PreAuthorize("hasAnyRole('PATIENT', 'PRACTITIONER', 'ADMIN')")
     @PostMapping("/book")
@@ -103,18 +109,15 @@ public class TherapySessionController {
     // GET /api/sessions/{id}/document/download
     @PreAuthorize("hasAnyRole('PATIENT', 'PRACTITIONER', 'ADMIN')")
     @GetMapping("/{id}/document/download")
-    public ResponseEntity<Resource> downloadPrescribedDocument(@PathVariable Integer id) {
+    public void downloadPrescribedDocument(@PathVariable Integer id, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        FileServer.ServedFile file;
         try {
-            // Need a way to fetch the document URL from service securely.
-            // Since we don't have a specific getSession method directly returning entity
-            // here safely,
-            // let's fetch the DTO and see if prescribedDocumentUrl is not null.
-            // But wait, the DTO has "prescribedDocumentUrl" which contains the filesystem
-            // path.
-            // This is secure enough only if user has access to the session.
-            return therapySessionService.downloadSessionDocument(id);
+            file = therapySessionService.downloadSessionDocument(id);
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            return;
         }
+        fileServer.serve(file, request, response);
     }
 }
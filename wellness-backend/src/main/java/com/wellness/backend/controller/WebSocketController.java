@@ -1,11 +1,14 @@
 package com.wellness.backend.controller;
 
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
 import org.springframework.beans.factory.annotation.Autowired;
+import com.wellness.backend.security.WebSocketAuthService;
+import com.wellness.backend.service.WebSocketLivenessService;
+import com.wellness.backend.service.WebSocketPublisher;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
@@ -14,17 +17,24 @@ import java.util.Map;
 public class WebSocketController {
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private WebSocketPublisher webSocketPublisher;
+
+    @Autowired
+    private WebSocketAuthService webSocketAuthService;
+
+    @Autowired
+    private WebSocketLivenessService webSocketLivenessService;
 
     // ================= SESSION UPDATES =================
     
     /**
      * Endpoint: /app/session/subscribe
      * Allows users to subscribe to session updates
-     * Message format: { "userId": 123 }
+     * Message format: { "userId": 123 } (must match the authenticated user)
      */
     @MessageMapping("/session/subscribe")
-    public void subscribeToSessions(Map<String, Object> message) {
+    public void subscribeToSessions(Map<String, Object> message, Principal principal) {
+        webSocketAuthService.assertOwnUserId(principal, message.get("userId"));
         Integer userId = ((Number) message.get("userId")).intValue();
         
         // Send confirmation
@@ -33,10 +43,7 @@ public class WebSocketController {
         response.put("channel", "session-updates-" + userId);
         response.put("timestamp", LocalDateTime.now().toString());
         
-        messagingTemplate.convertAndSendToUser(
-                userId.toString(),
-                "/queue/session-subscription",
-                response);
+        webSocketPublisher.sendToUserQueue(userId, "/queue/session-subscription", response);
     }
 
     // ================= NOTIFICATION UPDATES =================
@@ -46,7 +53,8 @@ public class WebSocketController {
      * Allows users to subscribe to general notifications
      */
     @MessageMapping("/notifications/subscribe")
-    public void subscribeToNotifications(Map<String, Object> message) {
+    public void subscribeToNotifications(Map<String, Object> message, Principal principal) {
+        webSocketAuthService.assertOwnUserId(principal, message.get("userId"));
         Integer userId = ((Number) message.get("userId")).intValue();
         
         Map<String, Object> response = new HashMap<>();
@@ -54,21 +62,21 @@ public class WebSocketController {
         response.put("channel", "notifications-" + userId);
         response.put("timestamp", LocalDateTime.now().toString());
         
-        messagingTemplate.convertAndSendToUser(
-                userId.toString(),
-                "/queue/notification-subscription",
-                response);
+        webSocketPublisher.sendToUserQueue(userId, "/queue/notification-subscription", response);
     }
 
     // ================= HEARTBEAT / KEEP-ALIVE =================
     
     /**
      * Endpoint: /app/ping
-     * Keeps the connection alive
+     * Application-level round-trip check. Connection keep-alive is handled by
+     * STOMP heart-beats; the reply goes only to the calling session
+     * (/user/queue/pong) instead of every /topic/pong subscriber.
      */
     @MessageMapping("/ping")
-    @SendTo("/topic/pong")
+    @SendToUser(destinations = "/queue/pong", broadcast = false)
     public Map<String, Object> ping(Map<String, Object> message) {
+        webSocketLivenessService.recordPing();
         Map<String, Object> response = new HashMap<>();
         response.put("status", "pong");
         response.put("timestamp", LocalDateTime.now().toString());
@@ -83,7 +91,8 @@ public class WebSocketController {
      * Allows users to subscribe to order updates
      */
     @MessageMapping("/orders/subscribe")
-    public void subscribeToOrders(Map<String, Object> message) {
+    public void subscribeToOrders(Map<String, Object> message, Principal principal) {
+        webSocketAuthService.assertOwnUserId(principal, message.get("userId"));
         Integer userId = ((Number) message.get("userId")).intValue();
         
         Map<String, Object> response = new HashMap<>();
@@ -91,10 +100,7 @@ public class WebSocketController {
         response.put("channel", "orders-" + userId);
         response.put("timestamp", LocalDateTime.now().toString());
         
-        messagingTemplate.convertAndSendToUser(
-                userId.toString(),
-                "/queue/order-subscription",
-                response);
+        webSocketPublisher.sendToUserQueue(userId, "/queue/order-subscription", response);
     }
 
     // ================= PRACTITIONER AVAILABILITY UPDATES =================
@@ -102,9 +108,11 @@ public class WebSocketController {
     /**
      * Endpoint: /app/availability/subscribe
      * Allows practitioners to get availability updates
+     * (practitionerId must be the practitioner's own user id)
      */
     @MessageMapping("/availability/subscribe")
-    public void subscribeToAvailability(Map<String, Object> message) {
+    public void subscribeToAvailability(Map<String, Object> message, Principal principal) {
+        webSocketAuthService.assertOwnUserId(principal, message.get("practitionerId"));
         Integer practitionerId = ((Number) message.get("practitionerId")).intValue();
         
         Map<String, Object> response = new HashMap<>();
@@ -112,9 +120,6 @@ public class WebSocketController {
         response.put("channel", "availability-" + practitionerId);
         response.put("timestamp", LocalDateTime.now().toString());
         
-        messagingTemplate.convertAndSendToUser(
-                practitionerId.toString(),
-                "/queue/availability-subscription",
-                response);
+        webSocketPublisher.sendToUserQueue(practitionerId, "/queue/availability-subscription", response);
     }
 }
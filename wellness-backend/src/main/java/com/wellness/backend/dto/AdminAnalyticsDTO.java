@@ -1,6 +1,7 @@
 package com.wellness.backend.dto;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -31,6 +32,9 @@ public class AdminAnalyticsDTO {
     // Top performers
     private List<TopPractitioner> topPractitioners;
 
+    // When the served snapshot was built
+    private LocalDateTime generatedAt;
+
     // --- Inner Classes ---
 
     public static class MonthlyStat {
@@ -131,4 +135,7 @@ public class AdminAnalyticsDTO {
 
     public List<TopPractitioner> getTopPractitioners() { return topPractitioners; }
     public void setTopPractitioners(List<TopPractitioner> topPractitioners) { this.topPractitioners = topPractitioners; }
+
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public void setGeneratedAt(LocalDateTime generatedAt) { this.generatedAt = generatedAt; }
 }
@@ -0,0 +1,33 @@
+package com.wellness.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class PendingEarningDTO {
+    private Integer id;
+    private Integer sessionId;
+    private BigDecimal netAmount;
+    private LocalDateTime createdAt;
+
+    public PendingEarningDTO() {}
+
+    public PendingEarningDTO(Integer id, Integer sessionId, BigDecimal netAmount, LocalDateTime createdAt) {
+        this.id = id;
+        this.sessionId = sessionId;
+        this.netAmount = netAmount;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public Integer getSessionId() { return sessionId; }
+    public void setSessionId(Integer sessionId) { this.sessionId = sessionId; }
+
+    public BigDecimal getNetAmount() { return netAmount; }
+    public void setNetAmount(BigDecimal netAmount) { this.netAmount = netAmount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -28,6 +28,11 @@ public class ProductDTO {
 
     private String imageUrl;
     private String imageUrl2;
+    // Resized derivatives of uploaded images; null for external image URLs
+    private String thumbnailUrl;
+    private String mediumImageUrl;
+    private String thumbnailUrl2;
+    private String mediumImageUrl2;
     private String activeIngredient;
     private Integer sellerId;
     private String moderationStatus;
@@ -121,6 +126,18 @@ public class ProductDTO {
     public String getImageUrl2() { return imageUrl2; }
     public void setImageUrl2(String imageUrl2) { this.imageUrl2 = imageUrl2; }
 
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
+    public String getMediumImageUrl() { return mediumImageUrl; }
+    public void setMediumImageUrl(String mediumImageUrl) { this.mediumImageUrl = mediumImageUrl; }
+
+    public String getThumbnailUrl2() { return thumbnailUrl2; }
+    public void setThumbnailUrl2(String thumbnailUrl2) { this.thumbnailUrl2 = thumbnailUrl2; }
+
+    public String getMediumImageUrl2() { return mediumImageUrl2; }
+    public void setMediumImageUrl2(String mediumImageUrl2) { this.mediumImageUrl2 = mediumImageUrl2; }
+
     public Integer getSellerId() { return sellerId; }
     public void setSellerId(Integer sellerId) { this.sellerId = sellerId; }
 
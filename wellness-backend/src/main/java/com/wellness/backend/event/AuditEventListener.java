@@ -0,0 +1,98 @@
+package com.wellness.backend.event;
+
+import com.wellness.backend.service.AuditLogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes audit log rows for committed domain events.
+ */
+@Component
+public class AuditEventListener {
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Async("domainEventExecutor")
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onSessionCancelled(SessionCancelledEvent event) {
+        auditLogService.logAction(
+                event.userId(),
+                "SESSION_CANCELLED",
+                "TherapySession",
+                event.sessionId().toString(),
+                "Reason: " + event.reason());
+    }
+
+    @Async("domainEventExecutor")
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onSessionCompleted(SessionCompletedEvent event) {
+        auditLogService.logAction(
+                event.practitionerUserId(),
+                "SESSION_COMPLETED",
+                "TherapySession",
+                event.sessionId().toString(),
+                "Session marked as completed");
+    }
+
+    @Async("domainEventExecutor")
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPaymentSucceeded(PaymentSucceededEvent event) {
+        auditLogService.logAction(
+                event.userId(),
+                event.wallet() ? "PAYMENT_SUCCESS_WALLET" : "PAYMENT_SUCCESS",
+                "PaymentTransaction",
+                event.transactionId().toString(),
+                "Amount: " + event.amount() + " " + event.currency());
+    }
+
+    @Async("domainEventExecutor")
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onOrderPaid(OrderPaidEvent event) {
+        auditLogService.logAction(
+                event.userId(),
+                "ORDER_PAYMENT_UPDATE",
+                "Order",
+                event.orderId().toString(),
+                "Status: PAID");
+    }
+
+    @Async("domainEventExecutor")
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if ("PLACED".equals(event.status())) {
+            return;
+        }
+        boolean cancelled = "CANCELLED".equals(event.status());
+        auditLogService.logAction(
+                event.userId(),
+                cancelled ? "ORDER_CANCELLED" : "ORDER_STATUS_UPDATE",
+                "Order",
+                event.orderId().toString(),
+                cancelled ? "Reason: " + event.reason() : "Status: " + event.status());
+    }
+
+    @Async("domainEventExecutor")
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onRefundProcessed(RefundProcessedEvent event) {
+        if (event.refundTransactionId() == null) {
+            return;
+        }
+        auditLogService.logAction(
+                event.userId(),
+                "REFUND_PROCESSED",
+                "RefundTransaction",
+                event.refundTransactionId().toString(),
+                "Amount: " + event.amount());
+    }
+}
@@ -0,0 +1,74 @@
+package com.wellness.backend.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes domain events once the surrounding transaction has committed.
+ *
+ * Services call {@link #publish(Object)} where they used to send notifications
+ * and write audit rows inline; listeners then run on the bounded
+ * "domainEventExecutor" pool, so the business transaction releases its row
+ * locks without waiting on them. Events from a rolled-back transaction are
+ * discarded. Outside a transaction the event is published immediately.
+ */
+@Component
+public class DomainEventPublisher {
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    @Qualifier("domainEventExecutor")
+    private ThreadPoolTaskExecutor domainEventExecutor;
+
+    // ================= METRICS =================
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong deferred = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    public void publish(Object event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(event);
+            return;
+        }
+
+        deferred.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                deferred.decrementAndGet();
+                if (status == STATUS_COMMITTED) {
+                    dispatch(event);
+                } else {
+                    discarded.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    private void dispatch(Object event) {
+        published.incrementAndGet();
+        applicationEventPublisher.publishEvent(event);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("published", published.get());
+        stats.put("awaitingCommit", deferred.get());
+        stats.put("discardedOnRollback", discarded.get());
+        stats.put("executorActive", domainEventExecutor.getActiveCount());
+        stats.put("executorPoolSize", domainEventExecutor.getPoolSize());
+        stats.put("executorQueueDepth", domainEventExecutor.getThreadPoolExecutor().getQueue().size());
+        return stats;
+    }
+}
@@ -0,0 +1,79 @@
+package com.wellness.backend.event;
+
+import com.wellness.backend.service.SessionNotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Sends user/practitioner notifications for committed domain events.
+ */
+@Component
+public class NotificationEventListener {
+
+    @Autowired
+    private SessionNotificationService notificationService;
+
+    @Async("domainEventExecutor")
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onSessionBooked(SessionBookedEvent event) {
+        notificationService.notifySessionBooked(
+                event.userId(),
+                event.practitionerUserId(),
+                event.practitionerName(),
+                event.startsAt());
+    }
+
+    @Async("domainEventExecutor")
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onSessionAccepted(SessionAcceptedEvent event) {
+        notificationService.notifySessionAccepted(
+                event.userId(),
+                event.practitionerName(),
+                event.sessionDate(),
+                event.startTime());
+    }
+
+    @Async("domainEventExecutor")
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onSessionCancelled(SessionCancelledEvent event) {
+        notificationService.notifySessionCancelled(
+                event.userId(),
+                event.userName(),
+                event.userEmail(),
+                event.practitionerUserId(),
+                event.practitionerName(),
+                event.reason(),
+                event.cancelledBy());
+    }
+
+    @Async("domainEventExecutor")
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onSessionCompleted(SessionCompletedEvent event) {
+        notificationService.notifySessionCompleted(event.userId(), event.practitionerUserId());
+    }
+
+    @Async("domainEventExecutor")
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        notificationService.notifyOrderStatusChanged(
+                event.userId(),
+                event.orderId().toString(),
+                event.status());
+    }
+
+    @Async("domainEventExecutor")
+    @EventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onRefundProcessed(RefundProcessedEvent event) {
+        notificationService.notifyRefundProcessed(event.userId(), event.amount());
+    }
+}
@@ -0,0 +1,7 @@
+package com.wellness.backend.event;
+
+/**
+ * An order's payment status moved to PAID.
+ */
+public record OrderPaidEvent(Integer orderId, Integer userId) {
+}
@@ -0,0 +1,12 @@
+package com.wellness.backend.event;
+
+/**
+ * An order was placed or its fulfilment status changed. {@code reason} is only
+ * set for cancellations.
+ */
+public record OrderStatusChangedEvent(
+        Integer orderId,
+        Integer userId,
+        String status,
+        String reason) {
+}
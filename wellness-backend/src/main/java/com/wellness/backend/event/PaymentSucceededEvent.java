@@ -0,0 +1,14 @@
+package com.wellness.backend.event;
+
+import java.math.BigDecimal;
+
+/**
+ * A payment transaction succeeded, through the gateway or the wallet.
+ */
+public record PaymentSucceededEvent(
+        Integer transactionId,
+        Integer userId,
+        BigDecimal amount,
+        String currency,
+        boolean wallet) {
+}
@@ -0,0 +1,7 @@
+package com.wellness.backend.event;
+
+/**
+ * A product was created, edited, moderated, deleted or had its stock changed.
+ */
+public record ProductChangedEvent(Integer productId) {
+}
@@ -0,0 +1,13 @@
+package com.wellness.backend.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Money was refunded to a user's wallet. {@code refundTransactionId} is null for
+ * order refunds, which are not tracked as refund transactions.
+ */
+public record RefundProcessedEvent(
+        Integer refundTransactionId,
+        Integer userId,
+        BigDecimal amount) {
+}
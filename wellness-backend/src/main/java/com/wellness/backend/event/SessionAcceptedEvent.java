@@ -0,0 +1,15 @@
+package com.wellness.backend.event;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A practitioner accepted a session that was on HOLD.
+ */
+public record SessionAcceptedEvent(
+        Integer sessionId,
+        Integer userId,
+        String practitionerName,
+        LocalDate sessionDate,
+        LocalTime startTime) {
+}
@@ -0,0 +1,14 @@
+package com.wellness.backend.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * A HOLD session was paid for and is now BOOKED.
+ */
+public record SessionBookedEvent(
+        Integer sessionId,
+        Integer userId,
+        Integer practitionerUserId,
+        String practitionerName,
+        LocalDateTime startsAt) {
+}
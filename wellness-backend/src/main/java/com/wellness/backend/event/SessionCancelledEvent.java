@@ -0,0 +1,15 @@
+package com.wellness.backend.event;
+
+/**
+ * A session was cancelled by the user, the practitioner or an admin.
+ */
+public record SessionCancelledEvent(
+        Integer sessionId,
+        Integer userId,
+        String userName,
+        String userEmail,
+        Integer practitionerUserId,
+        String practitionerName,
+        String reason,
+        String cancelledBy) {
+}
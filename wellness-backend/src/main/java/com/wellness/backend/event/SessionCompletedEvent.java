@@ -0,0 +1,11 @@
+package com.wellness.backend.event;
+
+/**
+ * A practitioner marked a BOOKED session as completed.
+ */
+public record SessionCompletedEvent(
+        Integer sessionId,
+        Integer userId,
+        Integer practitionerId,
+        Integer practitionerUserId) {
+}
@@ -0,0 +1,63 @@
+package com.wellness.backend.metrics;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size ring of recent latency samples with running count/total/max.
+ * Percentiles are computed on read from the retained window, so recording
+ * stays O(1) and allocation free.
+ */
+public class LatencySampler {
+
+    private final long[] samples;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMs = new AtomicLong();
+    private final AtomicLong maxMs = new AtomicLong();
+
+    public LatencySampler(int windowSize) {
+        this.samples = new long[windowSize];
+    }
+
+    public void record(long latencyMs) {
+        long value = Math.max(0, latencyMs);
+        samples[(int) (cursor.getAndIncrement() % samples.length)] = value;
+        count.incrementAndGet();
+        totalMs.addAndGet(value);
+        maxMs.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @param percentile value between 0 and 100
+     * @return the percentile over the retained window, or 0 when empty
+     */
+    public long percentile(double percentile) {
+        int size = (int) Math.min(cursor.get(), samples.length);
+        if (size == 0) {
+            return 0;
+        }
+        long[] copy = Arrays.copyOf(samples, size);
+        Arrays.sort(copy);
+        int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+        return copy[Math.min(Math.max(index, 0), size - 1)];
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long n = count.get();
+        stats.put("count", n);
+        stats.put("avgMs", n == 0 ? 0 : totalMs.get() / n);
+        stats.put("p50Ms", percentile(50));
+        stats.put("p95Ms", percentile(95));
+        stats.put("p99Ms", percentile(99));
+        stats.put("maxMs", maxMs.get());
+        return stats;
+    }
+}
@@ -0,0 +1,55 @@
+package com.wellness.backend.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Events-per-second over a sliding window of one-second buckets.
+ */
+public class RateMeter {
+
+    private final int windowSeconds;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray bucketSeconds;
+    private final AtomicLong total = new AtomicLong();
+
+    public RateMeter(int windowSeconds) {
+        this.windowSeconds = windowSeconds;
+        this.counts = new AtomicLongArray(windowSeconds);
+        this.bucketSeconds = new AtomicLongArray(windowSeconds);
+    }
+
+    public void mark() {
+        mark(1);
+    }
+
+    public void mark(long events) {
+        long second = System.currentTimeMillis() / 1000;
+        int bucket = (int) (second % windowSeconds);
+        long stamp = bucketSeconds.get(bucket);
+        if (stamp != second && bucketSeconds.compareAndSet(bucket, stamp, second)) {
+            counts.set(bucket, 0);
+        }
+        counts.addAndGet(bucket, events);
+        total.addAndGet(events);
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    /**
+     * Average rate over the window, excluding the current (partial) second.
+     */
+    public double perSecond() {
+        long now = System.currentTimeMillis() / 1000;
+        long sum = 0;
+        for (int i = 0; i < windowSeconds; i++) {
+            long age = now - bucketSeconds.get(i);
+            if (age > 0 && age <= windowSeconds) {
+                sum += counts.get(i);
+            }
+        }
+        return (double) sum / windowSeconds;
+    }
+}
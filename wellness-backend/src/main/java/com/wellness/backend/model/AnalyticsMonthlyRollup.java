@@ -0,0 +1,56 @@
+package com.wellness.backend.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Monthly fact row of one admin analytics metric (row count and amount per
+ * calendar month). Written only by the rollup job through
+ * {@link com.wellness.backend.repository.AnalyticsRollupRepository}.
+ */
+@Entity
+@Table(name = "analytics_monthly_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rollup_metric_month", columnNames = { "metric", "month" })
+})
+public class AnalyticsMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 40)
+    private String metric;
+
+    @Column(nullable = false, length = 7) // Format: YYYY-MM
+    private String month;
+
+    @Column(name = "count_value", nullable = false)
+    private long countValue = 0;
+
+    @Column(name = "amount_value", nullable = false, precision = 16, scale = 2)
+    private BigDecimal amountValue = BigDecimal.ZERO;
+
+    @Column(name = "refreshed_at")
+    private LocalDateTime refreshedAt;
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getMetric() { return metric; }
+    public void setMetric(String metric) { this.metric = metric; }
+
+    public String getMonth() { return month; }
+    public void setMonth(String month) { this.month = month; }
+
+    public long getCountValue() { return countValue; }
+    public void setCountValue(long countValue) { this.countValue = countValue; }
+
+    public BigDecimal getAmountValue() { return amountValue; }
+    public void setAmountValue(BigDecimal amountValue) { this.amountValue = amountValue; }
+
+    public LocalDateTime getRefreshedAt() { return refreshedAt; }
+    public void setRefreshedAt(LocalDateTime refreshedAt) { this.refreshedAt = refreshedAt; }
+}
@@ -0,0 +1,17 @@
+package com.wellness.backend.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable audit record as captured at the call site, before it is written to
+ * the audit_log table. {@code createdAt} is the time of the action, not of the
+ * (possibly delayed) insert.
+ */
+public record AuditEntry(
+        Integer userId,
+        String action,
+        String entityType,
+        String entityId,
+        String metadata,
+        LocalDateTime createdAt) {
+}
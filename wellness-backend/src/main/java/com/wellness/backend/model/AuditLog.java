@@ -5,7 +5,10 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_log")
+@Table(name = "audit_log", indexes = {
+        @Index(name = "idx_audit_entity_created", columnList = "entity_type, entity_id, created_at"),
+        @Index(name = "idx_audit_user_created", columnList = "user_id, created_at")
+})
 public class AuditLog {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
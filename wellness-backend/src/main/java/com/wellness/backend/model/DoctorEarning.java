@@ -8,7 +8,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "doctor_earning")
+@Table(name = "doctor_earning", indexes = {
+        @Index(name = "idx_earning_payout_scan", columnList = "payout_status, practitioner_id, created_at"),
+        @Index(name = "idx_earning_created_at", columnList = "created_at")
+})
 public class DoctorEarning {
 
     public enum PayoutStatus {
@@ -0,0 +1,211 @@
+package com.wellness.backend.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One run of a chunked payout job for a period. {@code lastPayeeId} is the
+ * restart checkpoint: it is updated in the same transaction as each chunk, so
+ * a rerun of an unfinished period continues after the last committed payee.
+ */
+@Entity
+@Table(name = "payout_job_run", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_payout_job_period", columnNames = { "job_name", "period" })
+})
+public class PayoutJobRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 50)
+    private String jobName;
+
+    @Column(nullable = false, length = 7) // Format: YYYY-MM
+    private String period;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.RUNNING;
+
+    @Column(name = "last_payee_id", nullable = false)
+    private Integer lastPayeeId = 0;
+
+    @Column(nullable = false)
+    private int chunks = 0;
+
+    @Column(name = "payees_processed", nullable = false)
+    private int payeesProcessed = 0;
+
+    @Column(name = "earnings_marked", nullable = false)
+    private long earningsMarked = 0;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (startedAt == null) {
+            startedAt = LocalDateTime.now();
+        }
+        updatedAt = startedAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public PayoutJobRun() {
+    }
+
+    public PayoutJobRun(String jobName, String period) {
+        this.jobName = jobName;
+        this.period = period;
+    }
+
+    /**
+     * Records a committed chunk and moves the checkpoint past it.
+     */
+    public void recordChunk(Integer lastPayeeId, int payees, long earnings, BigDecimal amount) {
+        this.lastPayeeId = lastPayeeId;
+        this.chunks++;
+        this.payeesProcessed += payees;
+        this.earningsMarked += earnings;
+        this.totalAmount = this.totalAmount.add(amount);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Integer getLastPayeeId() {
+        return lastPayeeId;
+    }
+
+    public void setLastPayeeId(Integer lastPayeeId) {
+        this.lastPayeeId = lastPayeeId;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+
+    public int getPayeesProcessed() {
+        return payeesProcessed;
+    }
+
+    public void setPayeesProcessed(int payeesProcessed) {
+        this.payeesProcessed = payeesProcessed;
+    }
+
+    public long getEarningsMarked() {
+        return earningsMarked;
+    }
+
+    public void setEarningsMarked(long earningsMarked) {
+        this.earningsMarked = earningsMarked;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
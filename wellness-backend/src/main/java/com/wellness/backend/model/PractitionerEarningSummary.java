@@ -0,0 +1,70 @@
+package com.wellness.backend.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running earnings summary of a practitioner, keyed by practitioner profile id.
+ *
+ * Credited in the same transaction that records a DoctorEarning and debited
+ * in the same transaction that marks earnings PAID, so the earnings dashboard
+ * reads one row instead of aggregating doctor_earning.
+ */
+@Entity
+@Table(name = "practitioner_earning_summary", indexes = {
+        @Index(name = "idx_summary_lifetime_gross", columnList = "lifetime_gross")
+})
+public class PractitionerEarningSummary {
+
+    @Id
+    @Column(name = "practitioner_id")
+    private Integer practitionerId;
+
+    @Column(name = "pending_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal pendingAmount = BigDecimal.ZERO;
+
+    @Column(name = "pending_count", nullable = false)
+    private long pendingCount = 0;
+
+    @Column(name = "lifetime_earned", nullable = false, precision = 14, scale = 2)
+    private BigDecimal lifetimeEarned = BigDecimal.ZERO;
+
+    @Column(name = "lifetime_gross", nullable = false, precision = 14, scale = 2)
+    private BigDecimal lifetimeGross = BigDecimal.ZERO;
+
+    @Column(name = "lifetime_sessions", nullable = false)
+    private long lifetimeSessions = 0;
+
+    @Column(name = "paid_out", nullable = false, precision = 14, scale = 2)
+    private BigDecimal paidOut = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Getters and Setters
+    public Integer getPractitionerId() { return practitionerId; }
+    public void setPractitionerId(Integer practitionerId) { this.practitionerId = practitionerId; }
+
+    public BigDecimal getPendingAmount() { return pendingAmount; }
+    public void setPendingAmount(BigDecimal pendingAmount) { this.pendingAmount = pendingAmount; }
+
+    public long getPendingCount() { return pendingCount; }
+    public void setPendingCount(long pendingCount) { this.pendingCount = pendingCount; }
+
+    public BigDecimal getLifetimeEarned() { return lifetimeEarned; }
+    public void setLifetimeEarned(BigDecimal lifetimeEarned) { this.lifetimeEarned = lifetimeEarned; }
+
+    public BigDecimal getLifetimeGross() { return lifetimeGross; }
+    public void setLifetimeGross(BigDecimal lifetimeGross) { this.lifetimeGross = lifetimeGross; }
+
+    public long getLifetimeSessions() { return lifetimeSessions; }
+    public void setLifetimeSessions(long lifetimeSessions) { this.lifetimeSessions = lifetimeSessions; }
+
+    public BigDecimal getPaidOut() { return paidOut; }
+    public void setPaidOut(BigDecimal paidOut) { this.paidOut = paidOut; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,56 @@
+package com.wellness.backend.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running earnings balance of a seller, keyed by seller profile id.
+ *
+ * Credited in the same transaction that records a SellerEarning and debited
+ * in the same transaction that marks earnings PAID, always with relative
+ * UPDATEs, so reading a seller's pending total never scans seller_earning.
+ */
+@Entity
+@Table(name = "seller_balance")
+public class SellerBalance {
+
+    @Id
+    @Column(name = "seller_id")
+    private Integer sellerId;
+
+    @Column(name = "pending_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal pendingAmount = BigDecimal.ZERO;
+
+    @Column(name = "pending_count", nullable = false)
+    private long pendingCount = 0;
+
+    @Column(name = "lifetime_earned", nullable = false, precision = 14, scale = 2)
+    private BigDecimal lifetimeEarned = BigDecimal.ZERO;
+
+    @Column(name = "paid_out", nullable = false, precision = 14, scale = 2)
+    private BigDecimal paidOut = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Getters and Setters
+    public Integer getSellerId() { return sellerId; }
+    public void setSellerId(Integer sellerId) { this.sellerId = sellerId; }
+
+    public BigDecimal getPendingAmount() { return pendingAmount; }
+    public void setPendingAmount(BigDecimal pendingAmount) { this.pendingAmount = pendingAmount; }
+
+    public long getPendingCount() { return pendingCount; }
+    public void setPendingCount(long pendingCount) { this.pendingCount = pendingCount; }
+
+    public BigDecimal getLifetimeEarned() { return lifetimeEarned; }
+    public void setLifetimeEarned(BigDecimal lifetimeEarned) { this.lifetimeEarned = lifetimeEarned; }
+
+    public BigDecimal getPaidOut() { return paidOut; }
+    public void setPaidOut(BigDecimal paidOut) { this.paidOut = paidOut; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
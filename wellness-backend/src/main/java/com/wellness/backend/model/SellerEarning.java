@@ -8,7 +8,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "seller_earning")
+@Table(name = "seller_earning", indexes = {
+        @Index(name = "idx_seller_earning_payout_scan", columnList = "payout_status, seller_id, created_at"),
+        @Index(name = "idx_seller_earning_created_at", columnList = "created_at")
+})
 public class SellerEarning {
 
     public enum PayoutStatus {
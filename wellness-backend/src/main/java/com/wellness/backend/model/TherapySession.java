@@ -12,6 +12,9 @@ import java.time.LocalTime;
 @Table(name = "therapy_session", indexes = {
         @Index(name = "idx_start_time", columnList = "startTime"),
         @Index(name = "idx_status", columnList = "status"),
+        @Index(name = "idx_status_session_date", columnList = "status, sessionDate"),
+        @Index(name = "idx_status_created_at", columnList = "status, createdAt"),
+        @Index(name = "idx_created_at", columnList = "createdAt"),
         @Index(name = "idx_reminder_sent", columnList = "reminderSent"),
         @Index(name = "idx_user_id", columnList = "user_id"),
         @Index(name = "idx_practitioner_id", columnList = "practitioner_id")
@@ -81,6 +84,9 @@ public class TherapySession {
     @Column(length = 1000)
     private String prescribedDocumentUrl;
 
+    // Original upload name; the stored path is content-addressed
+    private String prescribedDocumentName;
+
     @Column(length = 1000)
     private String patientDocumentUrl;
 
@@ -259,6 +265,14 @@ public class TherapySession {
         this.prescribedDocumentUrl = prescribedDocumentUrl;
     }
 
+    public String getPrescribedDocumentName() {
+        return prescribedDocumentName;
+    }
+
+    public void setPrescribedDocumentName(String prescribedDocumentName) {
+        this.prescribedDocumentName = prescribedDocumentName;
+    }
+
     // Aliases for service compatibility
     public String getPrescriptionPath() {
         return prescribedDocumentUrl;
@@ -0,0 +1,135 @@
+package com.wellness.backend.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based JDBC access to analytics_monthly_rollup and the cheap aggregates
+ * behind the admin dashboard snapshot.
+ *
+ * Each metric is refreshed with one INSERT ... SELECT ... GROUP BY month over
+ * a created-at range, so an incremental refresh only reads the reopened months.
+ */
+@Repository
+public class AnalyticsRollupRepository {
+
+    /**
+     * Monthly metrics, each with its source table, date column, summed amount
+     * and row filter.
+     */
+    public enum Metric {
+        USERS("users", "created_at", "0", null),
+        SESSIONS("therapy_session", "created_at", "0", null),
+        ORDERS("orders", "order_date", "0", null),
+        SESSION_REVENUE("therapy_session", "created_at", "fee_amount", "payment_status = 'PAID'"),
+        ORDER_REVENUE("orders", "order_date", "total_amount", "payment_status = 'PAID'"),
+        SESSION_PLATFORM_FEES("doctor_earning", "created_at", "platform_fee", null),
+        PRODUCT_PLATFORM_FEES("seller_earning", "created_at", "platform_fee", null);
+
+        private final String sql;
+
+        Metric(String table, String dateColumn, String amount, String filter) {
+            this.sql = "INSERT INTO analytics_monthly_rollup (metric, month, count_value, amount_value, refreshed_at) "
+                    + "SELECT '" + name() + "', DATE_FORMAT(" + dateColumn + ", '%Y-%m') AS m, COUNT(*), "
+                    + "COALESCE(SUM(" + amount + "), 0), ? FROM " + table
+                    + " WHERE " + dateColumn + " >= ?" + (filter != null ? " AND " + filter : "")
+                    + " GROUP BY m ON DUPLICATE KEY UPDATE "
+                    + "count_value = VALUES(count_value), "
+                    + "amount_value = VALUES(amount_value), "
+                    + "refreshed_at = VALUES(refreshed_at)";
+        }
+    }
+
+    public record MonthlyValue(String metric, String month, long count, BigDecimal amount) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public AnalyticsRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Recomputes every metric for the months starting at {@code fromMonth}.
+     * Must run in a transaction so readers never see the deleted months.
+     */
+    public int refreshFrom(LocalDate fromMonth, LocalDateTime now) {
+        String month = String.format("%04d-%02d", fromMonth.getYear(), fromMonth.getMonthValue());
+        Timestamp from = Timestamp.valueOf(fromMonth.withDayOfMonth(1).atStartOfDay());
+        Timestamp refreshedAt = Timestamp.valueOf(now);
+
+        // Months that lost all their rows must disappear, so clear the window first
+        jdbcTemplate.update("DELETE FROM analytics_monthly_rollup WHERE month >= ?", month);
+        int rows = 0;
+        for (Metric metric : Metric.values()) {
+            rows += jdbcTemplate.update(metric.sql, refreshedAt, from);
+        }
+        return rows;
+    }
+
+    public long countRollups() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM analytics_monthly_rollup", Long.class);
+        return count != null ? count : 0;
+    }
+
+    public List<MonthlyValue> findAllRollups() {
+        return jdbcTemplate.query("SELECT metric, month, count_value, amount_value FROM analytics_monthly_rollup "
+                        + "ORDER BY metric, month",
+                (rs, rowNum) -> new MonthlyValue(rs.getString(1), rs.getString(2), rs.getLong(3),
+                        rs.getBigDecimal(4)));
+    }
+
+    // ================= SNAPSHOT AGGREGATES =================
+    public Map<String, Long> countUsersByRole() {
+        return countGroupedBy("SELECT role, COUNT(*) FROM users GROUP BY role");
+    }
+
+    public Map<String, Long> countSessionsByStatus() {
+        return countGroupedBy("SELECT status, COUNT(*) FROM therapy_session GROUP BY status");
+    }
+
+    public Map<String, Long> countOrdersByStatus() {
+        return countGroupedBy("SELECT status, COUNT(*) FROM orders GROUP BY status");
+    }
+
+    public Map<String, Long> countOrdersByPaymentStatus() {
+        return countGroupedBy("SELECT payment_status, COUNT(*) FROM orders GROUP BY payment_status");
+    }
+
+    /**
+     * Top practitioners by gross earnings, read from the running earning
+     * summaries over idx_summary_lifetime_gross.
+     * Rows are {@code [name, specialization, sessions, gross]}.
+     */
+    public List<Object[]> findTopPractitioners(int limit) {
+        return jdbcTemplate.query("SELECT u.name, p.specialization, s.lifetime_sessions, s.lifetime_gross "
+                        + "FROM practitioner_earning_summary s "
+                        + "JOIN practitioner_profile p ON p.id = s.practitioner_id "
+                        + "JOIN users u ON u.id = p.user_id "
+                        + "ORDER BY s.lifetime_gross DESC LIMIT ?",
+                (rs, rowNum) -> new Object[] { rs.getString(1), rs.getString(2), rs.getLong(3),
+                        rs.getBigDecimal(4) },
+                limit);
+    }
+
+    private Map<String, Long> countGroupedBy(String sql) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            String key = rs.getString(1);
+            if (key != null) {
+                counts.put(key, rs.getLong(2));
+            }
+        });
+        return counts;
+    }
+}
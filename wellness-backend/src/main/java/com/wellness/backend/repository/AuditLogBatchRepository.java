@@ -0,0 +1,56 @@
+package com.wellness.backend.repository;
+
+import com.wellness.backend.model.AuditEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Multi-row JDBC inserts into audit_log. IDENTITY ids prevent Hibernate from
+ * batching these inserts, so the batch writer goes straight to JDBC.
+ */
+@Repository
+public class AuditLogBatchRepository {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO audit_log (user_id, action, entity_type, entity_id, metadata, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?)";
+    private static final int COLUMNS = 6;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public AuditLogBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts all entries with a single multi-row INSERT statement.
+     */
+    public int insertAll(List<AuditEntry> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + entries.size() * (ROW_PLACEHOLDER.length() + 1));
+        sql.append(INSERT_PREFIX);
+        Object[] args = new Object[entries.size() * COLUMNS];
+        int i = 0;
+        for (AuditEntry entry : entries) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(ROW_PLACEHOLDER);
+            args[i++] = entry.userId();
+            args[i++] = entry.action();
+            args[i++] = entry.entityType();
+            args[i++] = entry.entityId();
+            args[i++] = entry.metadata();
+            args[i++] = Timestamp.valueOf(entry.createdAt());
+        }
+        return jdbcTemplate.update(sql.toString(), args);
+    }
+}
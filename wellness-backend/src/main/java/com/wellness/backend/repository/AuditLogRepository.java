@@ -1,9 +1,17 @@
 package com.wellness.backend.repository;
 
 import com.wellness.backend.model.AuditLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Integer> {
+
+    List<AuditLog> findByEntityTypeAndEntityIdOrderByCreatedAtDescIdDesc(String entityType, String entityId,
+            Pageable pageable);
+
+    List<AuditLog> findByUserIdOrderByCreatedAtDescIdDesc(Integer userId, Pageable pageable);
 }
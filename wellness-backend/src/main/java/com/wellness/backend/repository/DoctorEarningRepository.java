@@ -1,31 +1,60 @@
 package com.wellness.backend.repository;
 
+import com.wellness.backend.dto.PendingEarningDTO;
 import com.wellness.backend.model.DoctorEarning;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface DoctorEarningRepository extends JpaRepository<DoctorEarning, Integer> {
-    List<DoctorEarning> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
-
-    List<DoctorEarning> findByPractitioner_IdAndPayoutStatus(Integer practitionerId, DoctorEarning.PayoutStatus status);
 
     long countByPractitioner_Id(Integer practitionerId);
 
     java.util.Optional<DoctorEarning> findBySession_Id(Integer sessionId);
 
-    // Analytics
-    @Query("SELECT COALESCE(SUM(e.platformFee), 0) FROM DoctorEarning e")
-    BigDecimal sumTotalPlatformFees();
-
-    @Query("SELECT e.practitioner.id, e.practitioner.user.name, e.practitioner.specialization, COUNT(e), COALESCE(SUM(e.amount), 0) " +
-           "FROM DoctorEarning e GROUP BY e.practitioner.id, e.practitioner.user.name, e.practitioner.specialization " +
-           "ORDER BY SUM(e.amount) DESC")
-    List<Object[]> findTopEarningPractitioners(Pageable pageable);
+    // ================= Monthly Payout Batch =================
+    @Query("SELECT e.practitioner.id, COUNT(e), COALESCE(SUM(e.netAmount), 0) FROM DoctorEarning e " +
+           "WHERE e.payoutStatus = com.wellness.backend.model.DoctorEarning.PayoutStatus.PENDING " +
+           "AND e.createdAt >= :start AND e.createdAt < :end AND e.practitioner.id > :afterId " +
+           "GROUP BY e.practitioner.id ORDER BY e.practitioner.id")
+    List<Object[]> sumPendingByPractitioner(@Param("start") LocalDateTime start,
+                                            @Param("end") LocalDateTime end,
+                                            @Param("afterId") Integer afterId,
+                                            Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE DoctorEarning e SET e.payoutStatus = com.wellness.backend.model.DoctorEarning.PayoutStatus.PAID " +
+           "WHERE e.payoutStatus = com.wellness.backend.model.DoctorEarning.PayoutStatus.PENDING " +
+           "AND e.createdAt >= :start AND e.createdAt < :end " +
+           "AND e.practitioner.id > :afterId AND e.practitioner.id <= :throughId")
+    int markPaidForPractitionerRange(@Param("start") LocalDateTime start,
+                                     @Param("end") LocalDateTime end,
+                                     @Param("afterId") Integer afterId,
+                                     @Param("throughId") Integer throughId);
+
+    // ================= Practitioner Earnings =================
+    @Query("SELECT new com.wellness.backend.dto.PendingEarningDTO(e.id, e.session.id, e.netAmount, e.createdAt) " +
+           "FROM DoctorEarning e WHERE e.practitioner.id = :practitionerId " +
+           "AND e.payoutStatus = com.wellness.backend.model.DoctorEarning.PayoutStatus.PENDING " +
+           "ORDER BY e.createdAt DESC")
+    List<PendingEarningDTO> findRecentPending(@Param("practitionerId") Integer practitionerId, Pageable pageable);
+
+    @Query("SELECT e.practitioner.id, COUNT(e), COALESCE(SUM(e.netAmount), 0) FROM DoctorEarning e " +
+           "WHERE e.practitioner.id = :practitionerId " +
+           "AND e.payoutStatus = com.wellness.backend.model.DoctorEarning.PayoutStatus.PENDING " +
+           "GROUP BY e.practitioner.id")
+    List<Object[]> sumPendingForPractitioner(@Param("practitionerId") Integer practitionerId);
+
+    @Modifying
+    @Query("UPDATE DoctorEarning e SET e.payoutStatus = com.wellness.backend.model.DoctorEarning.PayoutStatus.PAID " +
+           "WHERE e.practitioner.id = :practitionerId " +
+           "AND e.payoutStatus = com.wellness.backend.model.DoctorEarning.PayoutStatus.PENDING")
+    int markAllPaidForPractitioner(@Param("practitionerId") Integer practitionerId);
 }
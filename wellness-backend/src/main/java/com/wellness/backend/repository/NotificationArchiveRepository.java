@@ -0,0 +1,125 @@
+package com.wellness.backend.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the month-partitioned notification_archive table.
+ *
+ * The archive is range-partitioned on archive_month (yyyyMM of the original
+ * created_at), so expired months are removed with DROP PARTITION instead of
+ * row-by-row deletes. Partition DDL is MySQL specific and is not managed by
+ * Hibernate.
+ */
+@Repository
+public class NotificationArchiveRepository {
+
+    private static final String TABLE = "notification_archive";
+    private static final String OVERFLOW_PARTITION = "p_max";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    public NotificationArchiveRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    public void createTableIfMissing() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                + " id BIGINT NOT NULL,"
+                + " receiver_id BIGINT NOT NULL,"
+                + " receiver_role VARCHAR(20) NOT NULL,"
+                + " session_id BIGINT,"
+                + " type VARCHAR(50) NOT NULL,"
+                + " message TEXT NOT NULL,"
+                + " is_read BOOLEAN NOT NULL,"
+                + " email_sent BOOLEAN NOT NULL,"
+                + " created_at DATETIME NOT NULL,"
+                + " archive_month INT NOT NULL,"
+                + " archived_at DATETIME NOT NULL,"
+                + " PRIMARY KEY (id, archive_month),"
+                + " INDEX idx_archive_receiver (receiver_id, receiver_role)"
+                + ") ENGINE=InnoDB"
+                + " PARTITION BY RANGE (archive_month) ("
+                + " PARTITION " + OVERFLOW_PARTITION + " VALUES LESS THAN MAXVALUE)");
+    }
+
+    /**
+     * Upper bounds (exclusive, yyyyMM) of every bounded partition, ascending.
+     */
+    public List<Integer> findPartitionBounds() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? "
+                        + "AND PARTITION_NAME IS NOT NULL AND PARTITION_NAME <> ? "
+                        + "ORDER BY PARTITION_ORDINAL_POSITION",
+                TABLE, OVERFLOW_PARTITION);
+        List<Integer> bounds = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            bounds.add(Integer.valueOf(String.valueOf(row.get("PARTITION_DESCRIPTION"))));
+        }
+        return bounds;
+    }
+
+    /**
+     * Splits a dedicated partition for {@code month} off the overflow partition.
+     * Only valid for months newer than the highest existing bound.
+     */
+    public void addMonthPartition(YearMonth month) {
+        int upperBound = toArchiveMonth(month.plusMonths(1));
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + OVERFLOW_PARTITION + " INTO ("
+                + " PARTITION " + partitionName(month) + " VALUES LESS THAN (" + upperBound + "),"
+                + " PARTITION " + OVERFLOW_PARTITION + " VALUES LESS THAN MAXVALUE)");
+    }
+
+    public void dropPartitionWithBound(int upperBound) {
+        YearMonth month = fromArchiveMonth(upperBound).minusMonths(1);
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + partitionName(month));
+    }
+
+    // ================= LIVE TABLE CHUNKS =================
+
+    public List<Long> findReadNotificationIdsBefore(LocalDateTime cutoff, long afterId, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM notifications WHERE is_read = TRUE AND created_at < ? AND id > ? ORDER BY id LIMIT ?",
+                Long.class, cutoff, afterId, limit);
+    }
+
+    public int copyToArchive(List<Long> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        return namedJdbcTemplate.update("INSERT IGNORE INTO " + TABLE
+                + " (id, receiver_id, receiver_role, session_id, type, message, is_read, email_sent, created_at,"
+                + " archive_month, archived_at)"
+                + " SELECT id, receiver_id, receiver_role, session_id, type, message, is_read, email_sent, created_at,"
+                + " CAST(DATE_FORMAT(created_at, '%Y%m') AS UNSIGNED), NOW()"
+                + " FROM notifications WHERE id IN (:ids)", params);
+    }
+
+    public int deleteLiveNotifications(List<Long> ids) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        return namedJdbcTemplate.update("DELETE FROM notifications WHERE id IN (:ids)", params);
+    }
+
+    public static int toArchiveMonth(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    private static YearMonth fromArchiveMonth(int archiveMonth) {
+        return YearMonth.of(archiveMonth / 100, archiveMonth % 100);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "p_" + toArchiveMonth(month);
+    }
+}
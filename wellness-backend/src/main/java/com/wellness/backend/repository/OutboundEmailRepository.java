@@ -0,0 +1,44 @@
+package com.wellness.backend.repository;
+
+import com.wellness.backend.model.OutboundEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    @Query("SELECT e.id FROM OutboundEmail e WHERE e.status = com.wellness.backend.model.OutboundEmail.Status.PENDING "
+            + "AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claims due rows by pushing their next attempt past the lease; rows another
+     * dispatcher claimed first no longer match {@code nextAttemptAt <= now}.
+     */
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.nextAttemptAt = :leaseUntil WHERE e.id IN :ids "
+            + "AND e.status = com.wellness.backend.model.OutboundEmail.Status.PENDING AND e.nextAttemptAt <= :now")
+    int claim(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now,
+            @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    List<OutboundEmail> findByIdInAndNextAttemptAt(List<Long> ids, LocalDateTime nextAttemptAt);
+
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = com.wellness.backend.model.OutboundEmail.Status.SENT, "
+            + "e.sentAt = :sentAt, e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int markSent(@Param("ids") List<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    long countByStatus(OutboundEmail.Status status);
+
+    @Modifying
+    @Query("DELETE FROM OutboundEmail e WHERE e.status = com.wellness.backend.model.OutboundEmail.Status.SENT "
+            + "AND e.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
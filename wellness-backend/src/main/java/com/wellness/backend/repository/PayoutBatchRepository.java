@@ -0,0 +1,172 @@
+package com.wellness.backend.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multi-row JDBC writes for the chunked payout jobs. IDENTITY ids prevent
+ * Hibernate from batching these inserts.
+ */
+@Repository
+public class PayoutBatchRepository {
+
+    private static final String PRACTITIONER_INSERT_PREFIX = "INSERT INTO practitioner_payout "
+            + "(practitioner_id, month_year, total_sessions, total_amount, status, created_at, updated_at) VALUES ";
+    private static final String PRACTITIONER_ROW_PLACEHOLDER = "(?, ?, ?, ?, 'PENDING', ?, ?)";
+
+    // One payout row per seller and month; a second payout in the same month is merged into it
+    private static final String SELLER_UPSERT_PREFIX = "INSERT INTO seller_payout "
+            + "(seller_id, month_year, total_items, total_amount, status, created_at, updated_at) VALUES ";
+    private static final String SELLER_ROW_PLACEHOLDER = "(?, ?, ?, ?, 'PENDING', ?, ?)";
+    private static final String SELLER_UPSERT_SUFFIX = " ON DUPLICATE KEY UPDATE "
+            + "total_items = total_items + VALUES(total_items), "
+            + "total_amount = total_amount + VALUES(total_amount), "
+            + "updated_at = VALUES(updated_at)";
+
+    private static final int PAYOUT_COLUMNS = 6;
+
+    // Debits move an amount from pending to paid out; a missing row is created and fixed by the next rebuild
+    private static final String SELLER_BALANCE_DEBIT_PREFIX = "INSERT INTO seller_balance "
+            + "(seller_id, pending_amount, pending_count, lifetime_earned, paid_out, updated_at) VALUES ";
+    private static final String SELLER_BALANCE_DEBIT_ROW = "(?, ?, ?, 0, ?, ?)";
+    private static final String PRACTITIONER_SUMMARY_DEBIT_PREFIX = "INSERT INTO practitioner_earning_summary "
+            + "(practitioner_id, pending_amount, pending_count, lifetime_earned, lifetime_gross, lifetime_sessions, "
+            + "paid_out, updated_at) VALUES ";
+    private static final String PRACTITIONER_SUMMARY_DEBIT_ROW = "(?, ?, ?, 0, 0, 0, ?, ?)";
+    private static final String BALANCE_DEBIT_SUFFIX = " ON DUPLICATE KEY UPDATE "
+            + "pending_amount = pending_amount + VALUES(pending_amount), "
+            + "pending_count = pending_count + VALUES(pending_count), "
+            + "paid_out = paid_out + VALUES(paid_out), "
+            + "updated_at = VALUES(updated_at)";
+    private static final int BALANCE_DEBIT_COLUMNS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public PayoutBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Aggregated pending earnings of one payee.
+     */
+    public record PayeeTotal(Integer payeeId, long earnings, BigDecimal amount) {
+
+        /**
+         * Maps {@code [payeeId, COUNT, SUM]} aggregate rows.
+         */
+        public static List<PayeeTotal> fromRows(List<Object[]> rows) {
+            List<PayeeTotal> totals = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                totals.add(new PayeeTotal((Integer) row[0], ((Number) row[1]).longValue(), (BigDecimal) row[2]));
+            }
+            return totals;
+        }
+
+        public static long countOf(List<PayeeTotal> totals) {
+            long count = 0;
+            for (PayeeTotal total : totals) {
+                count += total.earnings();
+            }
+            return count;
+        }
+
+        public static BigDecimal amountOf(List<PayeeTotal> totals) {
+            BigDecimal amount = BigDecimal.ZERO;
+            for (PayeeTotal total : totals) {
+                amount = amount.add(total.amount());
+            }
+            return amount;
+        }
+    }
+
+    /**
+     * Inserts one PENDING practitioner_payout row per total with a single statement.
+     */
+    public int insertPractitionerPayouts(String monthYear, List<PayeeTotal> totals, LocalDateTime now) {
+        return writePayouts(PRACTITIONER_INSERT_PREFIX, PRACTITIONER_ROW_PLACEHOLDER, "", monthYear, totals, now);
+    }
+
+    /**
+     * Adds each total to the seller's PENDING seller_payout row for the month,
+     * creating it if needed, with a single statement.
+     */
+    public int upsertSellerPayouts(String monthYear, List<PayeeTotal> totals, LocalDateTime now) {
+        return writePayouts(SELLER_UPSERT_PREFIX, SELLER_ROW_PLACEHOLDER, SELLER_UPSERT_SUFFIX, monthYear, totals, now);
+    }
+
+    /**
+     * Moves each total from pending to paid out in seller_balance with a single statement.
+     */
+    public int debitSellerBalances(List<PayeeTotal> totals, LocalDateTime now) {
+        return debitBalances(SELLER_BALANCE_DEBIT_PREFIX, SELLER_BALANCE_DEBIT_ROW, totals, now);
+    }
+
+    /**
+     * Moves each total from pending to paid out in practitioner_earning_summary with a single statement.
+     */
+    public int debitPractitionerSummaries(List<PayeeTotal> totals, LocalDateTime now) {
+        return debitBalances(PRACTITIONER_SUMMARY_DEBIT_PREFIX, PRACTITIONER_SUMMARY_DEBIT_ROW, totals, now);
+    }
+
+    private int debitBalances(String prefix, String placeholder, List<PayeeTotal> totals, LocalDateTime now) {
+        if (totals.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(prefix.length() + BALANCE_DEBIT_SUFFIX.length()
+                + totals.size() * (placeholder.length() + 1));
+        sql.append(prefix);
+        Object[] args = new Object[totals.size() * BALANCE_DEBIT_COLUMNS];
+        Timestamp timestamp = Timestamp.valueOf(now);
+        int i = 0;
+        for (PayeeTotal total : totals) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(placeholder);
+            args[i++] = total.payeeId();
+            args[i++] = total.amount().negate();
+            args[i++] = -total.earnings();
+            args[i++] = total.amount();
+            args[i++] = timestamp;
+        }
+        sql.append(BALANCE_DEBIT_SUFFIX);
+        return jdbcTemplate.update(sql.toString(), args);
+    }
+
+    private int writePayouts(String prefix, String placeholder, String suffix, String monthYear,
+            List<PayeeTotal> totals, LocalDateTime now) {
+        if (totals.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(prefix.length() + suffix.length()
+                + totals.size() * (placeholder.length() + 1));
+        sql.append(prefix);
+        Object[] args = new Object[totals.size() * PAYOUT_COLUMNS];
+        Timestamp timestamp = Timestamp.valueOf(now);
+        int i = 0;
+        for (PayeeTotal total : totals) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(placeholder);
+            args[i++] = total.payeeId();
+            args[i++] = monthYear;
+            args[i++] = Math.toIntExact(total.earnings());
+            args[i++] = total.amount();
+            args[i++] = timestamp;
+            args[i++] = timestamp;
+        }
+        sql.append(suffix);
+        return jdbcTemplate.update(sql.toString(), args);
+    }
+}
@@ -0,0 +1,17 @@
+package com.wellness.backend.repository;
+
+import com.wellness.backend.model.PayoutJobRun;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PayoutJobRunRepository extends JpaRepository<PayoutJobRun, Long> {
+
+    Optional<PayoutJobRun> findByJobNameAndPeriod(String jobName, String period);
+
+    List<PayoutJobRun> findByJobNameOrderByStartedAtDesc(String jobName, Pageable pageable);
+}
@@ -0,0 +1,64 @@
+package com.wellness.backend.repository;
+
+import com.wellness.backend.model.PractitionerEarningSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface PractitionerEarningSummaryRepository extends JpaRepository<PractitionerEarningSummary, Integer> {
+
+    /**
+     * Adds new pending earnings to the practitioner's summary, creating the row if needed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO practitioner_earning_summary "
+            + "(practitioner_id, pending_amount, pending_count, lifetime_earned, lifetime_gross, lifetime_sessions, "
+            + "paid_out, updated_at) "
+            + "VALUES (:practitionerId, :amount, :count, :amount, :gross, :count, 0, :now) ON DUPLICATE KEY UPDATE "
+            + "pending_amount = pending_amount + VALUES(pending_amount), "
+            + "pending_count = pending_count + VALUES(pending_count), "
+            + "lifetime_earned = lifetime_earned + VALUES(lifetime_earned), "
+            + "lifetime_gross = lifetime_gross + VALUES(lifetime_gross), "
+            + "lifetime_sessions = lifetime_sessions + VALUES(lifetime_sessions), "
+            + "updated_at = VALUES(updated_at)", nativeQuery = true)
+    int credit(@Param("practitionerId") Integer practitionerId, @Param("amount") BigDecimal amount,
+            @Param("gross") BigDecimal gross, @Param("count") long count, @Param("now") LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM PractitionerEarningSummary s WHERE s.practitionerId = :practitionerId")
+    Optional<PractitionerEarningSummary> findForUpdate(@Param("practitionerId") Integer practitionerId);
+
+    /**
+     * Recomputes every practitioner's summary from doctor_earning (backfill and repair).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO practitioner_earning_summary "
+            + "(practitioner_id, pending_amount, pending_count, lifetime_earned, lifetime_gross, lifetime_sessions, "
+            + "paid_out, updated_at) "
+            + "SELECT practitioner_id, "
+            + "SUM(CASE WHEN payout_status = 'PENDING' THEN net_amount ELSE 0 END), "
+            + "SUM(CASE WHEN payout_status = 'PENDING' THEN 1 ELSE 0 END), "
+            + "SUM(net_amount), "
+            + "SUM(amount), "
+            + "COUNT(*), "
+            + "SUM(CASE WHEN payout_status = 'PAID' THEN net_amount ELSE 0 END), "
+            + ":now FROM doctor_earning GROUP BY practitioner_id "
+            + "ON DUPLICATE KEY UPDATE "
+            + "pending_amount = VALUES(pending_amount), "
+            + "pending_count = VALUES(pending_count), "
+            + "lifetime_earned = VALUES(lifetime_earned), "
+            + "lifetime_gross = VALUES(lifetime_gross), "
+            + "lifetime_sessions = VALUES(lifetime_sessions), "
+            + "paid_out = VALUES(paid_out), "
+            + "updated_at = VALUES(updated_at)", nativeQuery = true)
+    int rebuildAll(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,56 @@
+package com.wellness.backend.repository;
+
+import com.wellness.backend.model.SellerBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface SellerBalanceRepository extends JpaRepository<SellerBalance, Integer> {
+
+    /**
+     * Adds new pending earnings to the seller's balance, creating the row if needed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO seller_balance "
+            + "(seller_id, pending_amount, pending_count, lifetime_earned, paid_out, updated_at) "
+            + "VALUES (:sellerId, :amount, :count, :amount, 0, :now) ON DUPLICATE KEY UPDATE "
+            + "pending_amount = pending_amount + VALUES(pending_amount), "
+            + "pending_count = pending_count + VALUES(pending_count), "
+            + "lifetime_earned = lifetime_earned + VALUES(lifetime_earned), "
+            + "updated_at = VALUES(updated_at)", nativeQuery = true)
+    int credit(@Param("sellerId") Integer sellerId, @Param("amount") BigDecimal amount,
+            @Param("count") long count, @Param("now") LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM SellerBalance b WHERE b.sellerId = :sellerId")
+    Optional<SellerBalance> findForUpdate(@Param("sellerId") Integer sellerId);
+
+    /**
+     * Recomputes every seller's balance from seller_earning (backfill and repair).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO seller_balance "
+            + "(seller_id, pending_amount, pending_count, lifetime_earned, paid_out, updated_at) "
+            + "SELECT seller_id, "
+            + "SUM(CASE WHEN payout_status = 'PENDING' THEN net_amount ELSE 0 END), "
+            + "SUM(CASE WHEN payout_status = 'PENDING' THEN 1 ELSE 0 END), "
+            + "SUM(net_amount), "
+            + "SUM(CASE WHEN payout_status = 'PAID' THEN net_amount ELSE 0 END), "
+            + ":now FROM seller_earning GROUP BY seller_id "
+            + "ON DUPLICATE KEY UPDATE "
+            + "pending_amount = VALUES(pending_amount), "
+            + "pending_count = VALUES(pending_count), "
+            + "lifetime_earned = VALUES(lifetime_earned), "
+            + "paid_out = VALUES(paid_out), "
+            + "updated_at = VALUES(updated_at)", nativeQuery = true)
+    int rebuildAll(@Param("now") LocalDateTime now);
+}
@@ -1,20 +1,52 @@
 package com.wellness.backend.repository;
 
 import com.wellness.backend.model.SellerEarning;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface SellerEarningRepository extends JpaRepository<SellerEarning, Integer> {
     
     List<SellerEarning> findBySeller_Id(Integer sellerId);
-    
-    @Query("SELECT COALESCE(SUM(e.platformFee), 0) FROM SellerEarning e")
-    BigDecimal sumTotalPlatformFees();
 
     List<SellerEarning> findByOrder_Id(Integer orderId);
+
+    // ================= Seller Payouts =================
+    @Query("SELECT e.seller.id, COUNT(e), COALESCE(SUM(e.netAmount), 0) FROM SellerEarning e " +
+           "WHERE e.payoutStatus = com.wellness.backend.model.SellerEarning.PayoutStatus.PENDING " +
+           "AND e.createdAt >= :start AND e.createdAt < :end AND e.seller.id > :afterId " +
+           "GROUP BY e.seller.id ORDER BY e.seller.id")
+    List<Object[]> sumPendingBySeller(@Param("start") LocalDateTime start,
+                                      @Param("end") LocalDateTime end,
+                                      @Param("afterId") Integer afterId,
+                                      Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE SellerEarning e SET e.payoutStatus = com.wellness.backend.model.SellerEarning.PayoutStatus.PAID " +
+           "WHERE e.payoutStatus = com.wellness.backend.model.SellerEarning.PayoutStatus.PENDING " +
+           "AND e.createdAt >= :start AND e.createdAt < :end " +
+           "AND e.seller.id > :afterId AND e.seller.id <= :throughId")
+    int markPaidForSellerRange(@Param("start") LocalDateTime start,
+                               @Param("end") LocalDateTime end,
+                               @Param("afterId") Integer afterId,
+                               @Param("throughId") Integer throughId);
+
+    @Query("SELECT e.seller.id, COUNT(e), COALESCE(SUM(e.netAmount), 0) FROM SellerEarning e " +
+           "WHERE e.seller.id = :sellerId " +
+           "AND e.payoutStatus = com.wellness.backend.model.SellerEarning.PayoutStatus.PENDING " +
+           "GROUP BY e.seller.id")
+    List<Object[]> sumPendingForSeller(@Param("sellerId") Integer sellerId);
+
+    @Modifying
+    @Query("UPDATE SellerEarning e SET e.payoutStatus = com.wellness.backend.model.SellerEarning.PayoutStatus.PAID " +
+           "WHERE e.seller.id = :sellerId " +
+           "AND e.payoutStatus = com.wellness.backend.model.SellerEarning.PayoutStatus.PENDING")
+    int markAllPaidForSeller(@Param("sellerId") Integer sellerId);
 }
@@ -0,0 +1,13 @@
+package com.wellness.backend.repository;
+
+import com.wellness.backend.model.SellerPayout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SellerPayoutRepository extends JpaRepository<SellerPayout, Integer> {
+
+    List<SellerPayout> findBySeller_IdOrderByMonthYearDesc(Integer sellerId);
+}
@@ -0,0 +1,33 @@
+package com.wellness.backend.repository;
+
+import com.wellness.backend.model.StoredBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    /**
+     * Adds a reference to the blob, creating its index entry if needed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stored_blob "
+            + "(sha256, storage_path, size_bytes, content_type, ref_count, created_at, last_stored_at) "
+            + "VALUES (:sha256, :path, :size, :contentType, 1, :now, :now) ON DUPLICATE KEY UPDATE "
+            + "ref_count = ref_count + 1, "
+            + "last_stored_at = VALUES(last_stored_at)", nativeQuery = true)
+    int acquire(@Param("sha256") String sha256, @Param("path") String path, @Param("size") long size,
+            @Param("contentType") String contentType, @Param("now") LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlob b WHERE b.sha256 = :sha256")
+    Optional<StoredBlob> findForUpdate(@Param("sha256") String sha256);
+}
@@ -2,14 +2,18 @@ package com.wellness.backend.repository;
 
 import com.wellness.backend.enums.SessionStatus;
 import com.wellness.backend.model.TherapySession;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,9 +23,6 @@ public interface TherapySessionRepository extends JpaRepository<TherapySession,
         @EntityGraph(attributePaths = {"user", "practitioner"})
         List<TherapySession> findAllByOrderBySessionDateDescStartTimeDesc();
 
-        List<TherapySession> findByStatusAndCreatedAtBefore(SessionStatus status,
-                        java.time.LocalDateTime createdAt);
-        
         @EntityGraph(attributePaths = {"user", "practitioner"})
         List<TherapySession> findByUser_IdOrderBySessionDateAscStartTimeAsc(Integer userId);
 
@@ -74,41 +75,50 @@ public interface TherapySessionRepository extends JpaRepository<TherapySession,
                         @Param("practitionerId") Integer practitionerId,
                         @Param("sessionDate") LocalDate sessionDate);
 
-        // ================= 15-Min Reminder =================
-        @Query("SELECT s FROM TherapySession s " +
+        // ================= Hold Expiry =================
+        // Locks the oldest abandoned holds; the caller cancels exactly these rows in the same transaction
+        @Query(value = "SELECT id, practitioner_id, DATE_FORMAT(session_date, '%Y-%m-%d') FROM therapy_session " +
+                        "WHERE status = 'HOLD' AND payment_status = 'PENDING' AND created_at < :cutoff " +
+                        "ORDER BY created_at LIMIT :limit FOR UPDATE", nativeQuery = true)
+        List<Object[]> lockExpiredHolds(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+        @Modifying
+        @Query(value = "UPDATE therapy_session SET status = 'CANCELLED', cancellation_reason = :reason, " +
+                        "cancelled_by = 'ADMIN', updated_at = :now " +
+                        "WHERE id IN (:ids) AND status = 'HOLD' AND payment_status = 'PENDING'", nativeQuery = true)
+        int cancelHolds(@Param("ids") Collection<Integer> ids,
+                        @Param("reason") String reason,
+                        @Param("now") LocalDateTime now);
+
+        // ================= Reminders =================
+        @Query("SELECT s.id, s.sessionDate, s.startTime, s.reminderSent, s.oneHourReminderSent " +
+                        "FROM TherapySession s " +
                         "WHERE s.status = 'BOOKED' " +
-                        "AND s.reminderSent = false " +
-                        "AND s.sessionDate = CURRENT_DATE " +
-                        "AND s.startTime >= :nowTime AND s.startTime <= :reminderTime")
-        List<TherapySession> findSessionsForReminder(
-                        @Param("nowTime") LocalTime nowTime,
-                        @Param("reminderTime") LocalTime reminderTime);
-
-        // ================= 1-Hour Reminder =================
+                        "AND s.sessionDate >= :fromDate " +
+                        "AND (s.reminderSent = false OR s.oneHourReminderSent = false)")
+        List<Object[]> findUpcomingWithPendingReminders(@Param("fromDate") LocalDate fromDate);
+
         @Query("SELECT s FROM TherapySession s " +
-                        "WHERE s.status = 'BOOKED' " +
-                        "AND s.oneHourReminderSent = false " +
-                        "AND s.sessionDate = CURRENT_DATE " +
-                        "AND s.startTime >= :windowStartTime AND s.startTime <= :windowEndTime")
-        List<TherapySession> findSessionsForOneHourReminder(
-                        @Param("windowStartTime") LocalTime windowStartTime,
-                        @Param("windowEndTime") LocalTime windowEndTime);
-
-        // ================= Completed Sessions Without Earnings (Self-Healing) =================
-        @Query("SELECT s FROM TherapySession s WHERE s.practitioner.id = :practitionerId " +
-                        "AND s.status = 'COMPLETED' AND s.paymentStatus = 'PAID' " +
-                        "AND s.id NOT IN (SELECT e.session.id FROM com.wellness.backend.model.DoctorEarning e WHERE e.practitioner.id = :practitionerId)")
-        List<TherapySession> findCompletedSessionsWithoutEarnings(
-                        @Param("practitionerId") Integer practitionerId);
+                        "JOIN FETCH s.user " +
+                        "JOIN FETCH s.practitioner p " +
+                        "JOIN FETCH p.user " +
+                        "WHERE s.id IN :ids")
+        List<TherapySession> findWithParticipantsByIdIn(@Param("ids") Collection<Integer> ids);
+
+        @Modifying
+        @Query("UPDATE TherapySession s SET s.reminderSent = true WHERE s.id IN :ids")
+        int markRemindersSent(@Param("ids") Collection<Integer> ids);
+
+        @Modifying
+        @Query("UPDATE TherapySession s SET s.oneHourReminderSent = true WHERE s.id IN :ids")
+        int markOneHourRemindersSent(@Param("ids") Collection<Integer> ids);
+
+        // ================= Completed Sessions Without Earnings (Reconciler) =================
+        @Query("SELECT s FROM TherapySession s JOIN FETCH s.practitioner " +
+                        "WHERE s.status = 'COMPLETED' AND s.paymentStatus = 'PAID' AND s.id > :afterId " +
+                        "AND NOT EXISTS (SELECT 1 FROM com.wellness.backend.model.DoctorEarning e WHERE e.session.id = s.id) " +
+                        "ORDER BY s.id")
+        List<TherapySession> findCompletedWithoutEarningsAfter(@Param("afterId") Integer afterId, Pageable pageable);
 
         long countByPractitioner_IdAndStatus(Integer practitionerId, SessionStatus status);
-
-    // Analytics
-    long countByStatus(SessionStatus status);
-
-    @Query(value = "SELECT DATE_FORMAT(created_at, '%Y-%m') AS month, COUNT(*) FROM therapy_session GROUP BY month ORDER BY month", nativeQuery = true)
-    List<Object[]> countSessionsGroupedByMonth();
-
-    @Query("SELECT COALESCE(SUM(s.feeAmount), 0) FROM TherapySession s WHERE s.paymentStatus = com.wellness.backend.enums.PaymentStatus.PAID")
-    java.math.BigDecimal sumPaidSessionRevenue();
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.wellness.backend.scheduler;
+
+import com.wellness.backend.metrics.LatencySampler;
+import com.wellness.backend.repository.AnalyticsRollupRepository;
+import com.wellness.backend.service.AdminAnalyticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintains analytics_monthly_rollup for the admin dashboard.
+ *
+ * The delta run recomputes only the open months (the current month plus
+ * {@code reopen-months} before it), which is where new rows and payment
+ * status changes land. A nightly full rebuild picks up late changes to
+ * closed months. Every run refreshes the dashboard snapshot afterwards.
+ */
+@Component
+public class AnalyticsRollupJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsRollupJob.class);
+
+    private static final LocalDate FULL_REBUILD_FROM = LocalDate.of(1970, 1, 1);
+
+    @Autowired
+    private AnalyticsRollupRepository rollupRepository;
+
+    @Autowired
+    private AdminAnalyticsService analyticsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.analytics.rollup.reopen-months:1}")
+    private int reopenMonths;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // ================= METRICS =================
+    private final AtomicLong deltaRuns = new AtomicLong();
+    private final AtomicLong fullRebuilds = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final LatencySampler deltaLatency = new LatencySampler(256);
+    private final LatencySampler rebuildLatency = new LatencySampler(32);
+    private volatile LocalDateTime lastRefreshedAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (rollupRepository.countRollups() == 0) {
+                rebuild();
+            } else {
+                refreshOpenMonths();
+            }
+        } catch (Exception e) {
+            logger.warn("Analytics rollup initialization failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analytics.rollup.delta-ms:300000}",
+            initialDelayString = "${app.analytics.rollup.delta-ms:300000}")
+    public void refreshOpenMonths() {
+        LocalDate from = LocalDate.now().withDayOfMonth(1).minusMonths(reopenMonths);
+        run(from, false);
+    }
+
+    @Scheduled(cron = "${app.analytics.rollup.rebuild-cron:0 30 2 * * ?}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Recomputes every month of every metric. Returns false if a run is already in progress.
+     */
+    public boolean rebuild() {
+        return run(FULL_REBUILD_FROM, true);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("reopenMonths", reopenMonths);
+        stats.put("deltaRuns", deltaRuns.get());
+        stats.put("fullRebuilds", fullRebuilds.get());
+        stats.put("failures", failures.get());
+        stats.put("lastRefreshedAt", lastRefreshedAt);
+        stats.put("deltaLatency", deltaLatency.snapshot());
+        stats.put("rebuildLatency", rebuildLatency.snapshot());
+        return stats;
+    }
+
+    // ================= INTERNALS =================
+    private boolean run(LocalDate from, boolean full) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Integer rows = transactionTemplate.execute(status -> rollupRepository.refreshFrom(from, now));
+            lastRefreshedAt = now;
+            long elapsed = System.currentTimeMillis() - start;
+            if (full) {
+                fullRebuilds.incrementAndGet();
+                rebuildLatency.record(elapsed);
+                logger.info("Rebuilt analytics rollups ({} rows) in {} ms", rows, elapsed);
+            } else {
+                deltaRuns.incrementAndGet();
+                deltaLatency.record(elapsed);
+                logger.debug("Refreshed analytics rollups from {} ({} rows) in {} ms", from, rows, elapsed);
+            }
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            logger.error("Analytics rollup refresh from {} failed: {}", from, e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+        analyticsService.refreshSnapshot();
+        return true;
+    }
+}
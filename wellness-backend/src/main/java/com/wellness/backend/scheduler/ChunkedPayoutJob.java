@@ -0,0 +1,155 @@
+package com.wellness.backend.scheduler;
+
+import com.wellness.backend.model.PayoutJobRun;
+import com.wellness.backend.repository.PayoutJobRunRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Shared driver for the month-end payout jobs.
+ *
+ * Payees are processed a chunk at a time in id order. Each chunk runs in its
+ * own transaction together with the checkpoint update on the period's
+ * {@link PayoutJobRun}, so a failed or interrupted run resumes after the last
+ * committed payee and a COMPLETED period is never paid twice.
+ */
+public abstract class ChunkedPayoutJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedPayoutJob.class);
+
+    @Autowired
+    private PayoutJobRunRepository jobRunRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.payout.chunk-size:200}")
+    protected int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * Result of one committed chunk.
+     */
+    protected record ChunkResult(int payees, Integer lastPayeeId, long earnings, BigDecimal amount) {
+        static final ChunkResult EMPTY = new ChunkResult(0, null, 0, BigDecimal.ZERO);
+    }
+
+    protected abstract String jobName();
+
+    /**
+     * Pays the next chunk of at most {@link #chunkSize} payees after
+     * {@code afterId}. Runs inside the chunk transaction; throwing rolls the
+     * chunk back.
+     */
+    protected abstract ChunkResult processChunk(String period, LocalDateTime start, LocalDateTime end,
+            Integer afterId);
+
+    /**
+     * Runs the job off the caller's thread (admin trigger).
+     */
+    @Async("taskExecutor")
+    public void triggerRun(YearMonth month) {
+        try {
+            runForMonth(month);
+        } catch (IllegalStateException e) {
+            logger.warn(e.getMessage());
+        }
+    }
+
+    /**
+     * Generates the payouts for {@code month}, resuming an unfinished run.
+     */
+    public PayoutJobRun runForMonth(YearMonth month) {
+        if (!month.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("Payouts can only be generated for a past month");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A " + jobName() + " payout run is already in progress");
+        }
+        String period = month.toString();
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+        long startNanos = System.nanoTime();
+
+        try {
+            PayoutJobRun run = transactionTemplate.execute(status -> startRun(period));
+            if (run.getStatus() == PayoutJobRun.Status.COMPLETED) {
+                logger.info("{} payouts for {} already generated, skipping.", jobName(), period);
+                return run;
+            }
+            logger.info("Generating {} payouts for {} after payee {}", jobName(), period, run.getLastPayeeId());
+
+            Long runId = run.getId();
+            try {
+                Integer payees;
+                do {
+                    payees = transactionTemplate.execute(status -> runChunk(runId, period, start, end));
+                } while (payees != null && payees == chunkSize);
+            } catch (Exception e) {
+                logger.error("{} payout run for {} failed, will resume from the last checkpoint: {}",
+                        jobName(), period, e.getMessage(), e);
+                return transactionTemplate.execute(status -> finishRun(runId, PayoutJobRun.Status.FAILED,
+                        String.valueOf(e.getMessage())));
+            }
+
+            PayoutJobRun finished = transactionTemplate.execute(status -> finishRun(runId,
+                    PayoutJobRun.Status.COMPLETED, null));
+            logger.info("Generated {} {} payout records ({} earnings, {}) for {} in {} chunks, {} ms",
+                    finished.getPayeesProcessed(), jobName(), finished.getEarningsMarked(),
+                    finished.getTotalAmount(), period, finished.getChunks(),
+                    (System.nanoTime() - startNanos) / 1_000_000);
+            return finished;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public List<PayoutJobRun> getRecentRuns(int limit) {
+        return jobRunRepository.findByJobNameOrderByStartedAtDesc(jobName(), PageRequest.of(0, limit));
+    }
+
+    // ================= INTERNALS =================
+    private PayoutJobRun startRun(String period) {
+        PayoutJobRun run = jobRunRepository.findByJobNameAndPeriod(jobName(), period)
+                .orElseGet(() -> new PayoutJobRun(jobName(), period));
+        if (run.getStatus() != PayoutJobRun.Status.COMPLETED) {
+            run.setStatus(PayoutJobRun.Status.RUNNING);
+            run.setAttempts(run.getAttempts() + 1);
+            run.setLastError(null);
+        }
+        return jobRunRepository.save(run);
+    }
+
+    private int runChunk(Long runId, String period, LocalDateTime start, LocalDateTime end) {
+        PayoutJobRun run = jobRunRepository.findById(runId)
+                .orElseThrow(() -> new IllegalStateException("Payout run not found: " + runId));
+        ChunkResult result = processChunk(period, start, end, run.getLastPayeeId());
+        if (result.payees() > 0) {
+            run.recordChunk(result.lastPayeeId(), result.payees(), result.earnings(), result.amount());
+        }
+        return result.payees();
+    }
+
+    private PayoutJobRun finishRun(Long runId, PayoutJobRun.Status status, String error) {
+        PayoutJobRun run = jobRunRepository.findById(runId)
+                .orElseThrow(() -> new IllegalStateException("Payout run not found: " + runId));
+        run.setStatus(status);
+        run.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (status == PayoutJobRun.Status.COMPLETED) {
+            run.setFinishedAt(LocalDateTime.now());
+        }
+        return run;
+    }
+}
@@ -0,0 +1,119 @@
+package com.wellness.backend.scheduler;
+
+import com.wellness.backend.metrics.LatencySampler;
+import com.wellness.backend.model.TherapySession;
+import com.wellness.backend.repository.TherapySessionRepository;
+import com.wellness.backend.service.PractitionerEarningService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background repair for practitioner earnings, replacing the self-healing
+ * inserts the earnings dashboard used to do on every GET.
+ *
+ * Completed PAID sessions that never got a DoctorEarning are walked in session
+ * id order, a chunk per transaction, and recorded through
+ * {@link PractitionerEarningService#recordEarning}, which also credits the
+ * summary. The run then recomputes every summary from doctor_earning so any
+ * drift in the running totals is corrected.
+ */
+@Component
+public class EarningsReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(EarningsReconciler.class);
+
+    @Autowired
+    private TherapySessionRepository sessionRepository;
+
+    @Autowired
+    private PractitionerEarningService earningService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.earnings.reconcile.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${app.earnings.reconcile.max-chunks-per-run:50}")
+    private int maxChunksPerRun;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // ================= METRICS =================
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong earningsCreated = new AtomicLong();
+    private final LatencySampler runLatency = new LatencySampler(64);
+    private volatile int lastRunCreated;
+    private volatile int lastRunSummaries;
+
+    @Scheduled(cron = "${app.earnings.reconcile.cron:0 15 3 * * ?}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    /**
+     * Creates missing earnings and rebuilds the summaries. Returns the number of
+     * earnings created, or -1 if a run is already in progress.
+     */
+    public int reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            return -1;
+        }
+        long start = System.currentTimeMillis();
+        int created = 0;
+        try {
+            Integer afterId = 0;
+            for (int chunk = 0; chunk < maxChunksPerRun && afterId != null; chunk++) {
+                Integer from = afterId;
+                int[] chunkCreated = new int[1];
+                afterId = transactionTemplate.execute(status -> {
+                    List<TherapySession> sessions = sessionRepository.findCompletedWithoutEarningsAfter(from,
+                            PageRequest.of(0, chunkSize));
+                    for (TherapySession session : sessions) {
+                        earningService.recordEarning(session);
+                    }
+                    chunkCreated[0] = sessions.size();
+                    return sessions.size() < chunkSize ? null : sessions.get(sessions.size() - 1).getId();
+                });
+                created += chunkCreated[0];
+            }
+            lastRunSummaries = earningService.rebuildSummaries();
+        } catch (Exception e) {
+            logger.error("Earnings reconciliation failed: {}", e.getMessage(), e);
+        } finally {
+            runs.incrementAndGet();
+            earningsCreated.addAndGet(created);
+            lastRunCreated = created;
+            runLatency.record(System.currentTimeMillis() - start);
+            running.set(false);
+        }
+
+        if (created > 0) {
+            logger.warn("Created {} missing practitioner earnings.", created);
+        }
+        return created;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("chunkSize", chunkSize);
+        stats.put("runs", runs.get());
+        stats.put("earningsCreated", earningsCreated.get());
+        stats.put("lastRunCreated", lastRunCreated);
+        stats.put("lastRunSummaries", lastRunSummaries);
+        stats.put("runLatency", runLatency.snapshot());
+        return stats;
+    }
+}
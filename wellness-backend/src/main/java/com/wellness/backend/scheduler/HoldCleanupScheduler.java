@@ -1,54 +1,142 @@
 package com.wellness.backend.scheduler;
 
-import com.wellness.backend.enums.PaymentStatus;
-import com.wellness.backend.enums.SessionStatus;
-import com.wellness.backend.model.TherapySession;
+import com.wellness.backend.metrics.LatencySampler;
 import com.wellness.backend.repository.TherapySessionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Cancels HOLD sessions whose payment never arrived.
+ *
+ * Each chunk is two statements in one transaction: a locking SELECT of the
+ * oldest expired holds over idx_status_created_at, then one conditional UPDATE
+ * of exactly those ids. The locked ids stand in for UPDATE ... RETURNING (which
+ * MySQL lacks) and are used to evict the cached slot lists that just freed up.
+ */
 @Component
 public class HoldCleanupScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(HoldCleanupScheduler.class);
 
+    private static final String EXPIRY_REASON = "Payment timeout";
+    private static final String SLOTS_CACHE = "availableSlots";
+
     @Autowired
     private TherapySessionRepository sessionRepository;
 
-    /**
-     * Runs every minute to clean up HOLD sessions that are older than 5 minutes.
-     */
-    @Scheduled(fixedRate = 60000)
-    @Transactional
-    public void cleanupExpiredHolds() {
-        logger.info("Running HoldCleanupScheduler to manage expired session holds...");
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${app.session.hold.timeout-minutes:5}")
+    private long holdTimeoutMinutes;
 
-        LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(5);
+    @Value("${app.session.hold.chunk-size:500}")
+    private int chunkSize;
 
-        List<TherapySession> expiredHolds = sessionRepository.findByStatusAndCreatedAtBefore(SessionStatus.HOLD,
-                cutoffTime);
+    @Value("${app.session.hold.max-chunks-per-run:20}")
+    private int maxChunksPerRun;
 
-        int count = 0;
-        for (TherapySession session : expiredHolds) {
-            if (session.getPaymentStatus() == PaymentStatus.PENDING) {
-                session.setStatus(SessionStatus.CANCELLED);
-                session.setCancellationReason("Payment timeout");
-                session.setCancelledBy(TherapySession.CancelledBy.ADMIN);
-                sessionRepository.save(session);
-                count++;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // ================= METRICS =================
+    private final AtomicLong sweeps = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong evictedSlotEntries = new AtomicLong();
+    private final LatencySampler sweepLatency = new LatencySampler(256);
+    private volatile int lastSweepExpired;
+
+    @Scheduled(fixedRateString = "${app.session.hold.sweep-ms:60000}")
+    public void cleanupExpiredHolds() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int total = 0;
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusMinutes(holdTimeoutMinutes);
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                int cancelled = expireChunk(cutoff);
+                total += cancelled;
+                if (cancelled < chunkSize) {
+                    break;
+                }
             }
+        } catch (Exception e) {
+            logger.error("HOLD expiry sweep failed: {}", e.getMessage(), e);
+        } finally {
+            sweeps.incrementAndGet();
+            expired.addAndGet(total);
+            lastSweepExpired = total;
+            sweepLatency.record(System.currentTimeMillis() - start);
+            running.set(false);
         }
 
-        if (count > 0) {
-            logger.info("Cleaned up {} expired HOLD sessions.", count);
+        if (total > 0) {
+            logger.info("Cancelled {} expired HOLD sessions.", total);
+        } else {
+            logger.debug("No expired HOLD sessions.");
         }
     }
-}
 
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("holdTimeoutMinutes", holdTimeoutMinutes);
+        stats.put("chunkSize", chunkSize);
+        stats.put("sweeps", sweeps.get());
+        stats.put("expired", expired.get());
+        stats.put("lastSweepExpired", lastSweepExpired);
+        stats.put("evictedSlotEntries", evictedSlotEntries.get());
+        stats.put("sweepLatency", sweepLatency.snapshot());
+        return stats;
+    }
+
+    // ================= INTERNALS =================
+    private int expireChunk(LocalDateTime cutoff) {
+        Set<String> slotKeys = new LinkedHashSet<>();
+        Integer cancelled = transactionTemplate.execute(status -> {
+            List<Object[]> rows = sessionRepository.lockExpiredHolds(cutoff, chunkSize);
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            List<Integer> ids = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                ids.add(((Number) row[0]).intValue());
+                slotKeys.add(((Number) row[1]).intValue() + "-" + row[2]);
+            }
+            return sessionRepository.cancelHolds(ids, EXPIRY_REASON, LocalDateTime.now());
+        });
+        evictSlots(slotKeys);
+        return cancelled != null ? cancelled : 0;
+    }
+
+    private void evictSlots(Set<String> slotKeys) {
+        Cache cache = slotKeys.isEmpty() ? null : cacheManager.getCache(SLOTS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        for (String key : slotKeys) {
+            cache.evict(key);
+        }
+        evictedSlotEntries.addAndGet(slotKeys.size());
+    }
+}
@@ -1,34 +1,39 @@
 package com.wellness.backend.scheduler;
 
-import com.wellness.backend.model.DoctorEarning;
-import com.wellness.backend.model.PractitionerPayout;
 import com.wellness.backend.repository.DoctorEarningRepository;
-import com.wellness.backend.repository.PractitionerPayoutRepository;
+import com.wellness.backend.repository.PayoutBatchRepository;
+import com.wellness.backend.repository.PayoutBatchRepository.PayeeTotal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
+/**
+ * Month-end practitioner payout job.
+ *
+ * Pending earnings are summed per practitioner in SQL. Each chunk inserts its
+ * payout rows with one statement and marks the chunk's earnings PAID with one
+ * bulk UPDATE over the practitioner id range (see {@link ChunkedPayoutJob}).
+ * The practitioners' earning summaries are debited in the same transaction.
+ */
 @Component
-public class MonthlyPayoutScheduler {
+public class MonthlyPayoutScheduler extends ChunkedPayoutJob {
 
     private static final Logger logger = LoggerFactory.getLogger(MonthlyPayoutScheduler.class);
 
+    public static final String JOB_NAME = "PRACTITIONER_MONTHLY";
+
     @Autowired
     private DoctorEarningRepository earningRepository;
 
     @Autowired
-    private PractitionerPayoutRepository payoutRepository;
+    private PayoutBatchRepository payoutBatchRepository;
 
     /**
      * Runs on the 1st of every month at midnight to aggregate earnings for the
@@ -36,57 +41,38 @@ public class MonthlyPayoutScheduler {
      * Cron expression: 0 0 0 1 * ?
      */
     @Scheduled(cron = "0 0 0 1 * ?")
-    @Transactional
     public void generateMonthlyPayouts() {
-        LocalDate today = LocalDate.now();
-        LocalDate firstDayOfLastMonth = today.minusMonths(1).withDayOfMonth(1);
-        LocalDate lastDayOfLastMonth = today.minusMonths(1).withDayOfMonth(today.minusMonths(1).lengthOfMonth());
-
-        LocalDateTime start = firstDayOfLastMonth.atStartOfDay();
-        LocalDateTime end = lastDayOfLastMonth.atTime(LocalTime.MAX);
-        String monthYear = firstDayOfLastMonth.getYear() + "-"
-                + String.format("%02d", firstDayOfLastMonth.getMonthValue());
-
-        logger.info("Generating payouts for {}", monthYear);
-
-        List<DoctorEarning> earnings = earningRepository.findByCreatedAtBetween(start, end);
-
-        Map<Integer, List<DoctorEarning>> earningsByPractitioner = earnings.stream()
-                .collect(Collectors.groupingBy(e -> e.getPractitioner().getId()));
-
-        int count = 0;
-        for (Map.Entry<Integer, List<DoctorEarning>> entry : earningsByPractitioner.entrySet()) {
-            Integer practitionerId = entry.getKey();
-            List<DoctorEarning> practEarnings = entry.getValue();
-
-            // Filter for only PENDING earnings (just in case)
-            List<DoctorEarning> pendingEarnings = practEarnings.stream()
-                    .filter(e -> e.getPayoutStatus() == DoctorEarning.PayoutStatus.PENDING)
-                    .collect(Collectors.toList());
-
-            if (pendingEarnings.isEmpty())
-                continue;
-
-            BigDecimal totalNetAmount = pendingEarnings.stream()
-                    .map(DoctorEarning::getNetAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            PractitionerPayout payout = new PractitionerPayout();
-            payout.setPractitioner(pendingEarnings.get(0).getPractitioner());
-            payout.setMonthYear(monthYear);
-            payout.setTotalSessions(pendingEarnings.size());
-            payout.setAmount(totalNetAmount);
-            payout.setStatus(PractitionerPayout.PayoutStatus.PENDING); // Payout itself is pending until disbursed via
-                                                                       // bank
-            payoutRepository.save(payout);
+        try {
+            runForMonth(YearMonth.now().minusMonths(1));
+        } catch (IllegalStateException e) {
+            logger.warn(e.getMessage());
+        }
+    }
 
-            // Mark earnings as PAID
-            pendingEarnings.forEach(e -> e.setPayoutStatus(DoctorEarning.PayoutStatus.PAID));
-            earningRepository.saveAll(pendingEarnings);
+    @Override
+    protected String jobName() {
+        return JOB_NAME;
+    }
 
-            count++;
+    @Override
+    protected ChunkResult processChunk(String period, LocalDateTime start, LocalDateTime end, Integer afterId) {
+        List<PayeeTotal> totals = PayeeTotal.fromRows(earningRepository.sumPendingByPractitioner(start, end, afterId,
+                PageRequest.of(0, chunkSize)));
+        if (totals.isEmpty()) {
+            return ChunkResult.EMPTY;
         }
-
-        logger.info("Generated {} payout records for {}", count, monthYear);
+        Integer throughId = totals.get(totals.size() - 1).payeeId();
+        long earnings = PayeeTotal.countOf(totals);
+
+        LocalDateTime now = LocalDateTime.now();
+        payoutBatchRepository.insertPractitionerPayouts(period, totals, now);
+        int marked = earningRepository.markPaidForPractitionerRange(start, end, afterId, throughId);
+        if (marked != earnings) {
+            // Earnings were settled elsewhere between the SUM and the UPDATE; roll the chunk back
+            throw new IllegalStateException("Expected to mark " + earnings + " earnings PAID for practitioners "
+                    + afterId + "-" + throughId + " but marked " + marked);
+        }
+        payoutBatchRepository.debitPractitionerSummaries(totals, now);
+        return new ChunkResult(totals.size(), throughId, marked, PayeeTotal.amountOf(totals));
     }
 }
@@ -0,0 +1,73 @@
+package com.wellness.backend.scheduler;
+
+import com.wellness.backend.repository.PayoutBatchRepository;
+import com.wellness.backend.repository.PayoutBatchRepository.PayeeTotal;
+import com.wellness.backend.repository.SellerEarningRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Month-end seller payout job, the seller counterpart of
+ * {@link MonthlyPayoutScheduler}. Each chunk also moves the paid amounts from
+ * pending to paid out in seller_balance.
+ */
+@Component
+public class SellerPayoutScheduler extends ChunkedPayoutJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SellerPayoutScheduler.class);
+
+    public static final String JOB_NAME = "SELLER_MONTHLY";
+
+    @Autowired
+    private SellerEarningRepository earningRepository;
+
+    @Autowired
+    private PayoutBatchRepository payoutBatchRepository;
+
+    /**
+     * Runs on the 1st of every month at 00:30, after the practitioner payouts.
+     */
+    @Scheduled(cron = "0 30 0 1 * ?")
+    public void generateMonthlyPayouts() {
+        try {
+            runForMonth(YearMonth.now().minusMonths(1));
+        } catch (IllegalStateException e) {
+            logger.warn(e.getMessage());
+        }
+    }
+
+    @Override
+    protected String jobName() {
+        return JOB_NAME;
+    }
+
+    @Override
+    protected ChunkResult processChunk(String period, LocalDateTime start, LocalDateTime end, Integer afterId) {
+        List<PayeeTotal> totals = PayeeTotal.fromRows(earningRepository.sumPendingBySeller(start, end, afterId,
+                PageRequest.of(0, chunkSize)));
+        if (totals.isEmpty()) {
+            return ChunkResult.EMPTY;
+        }
+        Integer throughId = totals.get(totals.size() - 1).payeeId();
+        long earnings = PayeeTotal.countOf(totals);
+        LocalDateTime now = LocalDateTime.now();
+
+        payoutBatchRepository.upsertSellerPayouts(period, totals, now);
+        int marked = earningRepository.markPaidForSellerRange(start, end, afterId, throughId);
+        if (marked != earnings) {
+            // Earnings were withdrawn between the SUM and the UPDATE; roll the chunk back
+            throw new IllegalStateException("Expected to mark " + earnings + " earnings PAID for sellers "
+                    + afterId + "-" + throughId + " but marked " + marked);
+        }
+        payoutBatchRepository.debitSellerBalances(totals, now);
+        return new ChunkResult(totals.size(), throughId, marked, PayeeTotal.amountOf(totals));
+    }
+}
@@ -0,0 +1,130 @@
+package com.wellness.backend.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel.
+ *
+ * The first level has {@code wheelSize} buckets of {@code tickMs} each; every
+ * further level ticks once per full turn of the level below and is created on
+ * demand, so deadlines any distance ahead cost O(1) to add. {@link #advance}
+ * only visits the buckets whose tick has passed; entries in a higher level are
+ * re-inserted as their bucket comes due and cascade down until they fire.
+ * Deadlines are resolved to the first level's tick.
+ */
+public class TimingWheel<T> {
+
+    private final int wheelSize;
+    private final Level root;
+    private final List<T> due = new ArrayList<>();
+    private int size;
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize greater than 1");
+        }
+        this.wheelSize = wheelSize;
+        this.root = new Level(tickMs, startMs);
+    }
+
+    /**
+     * Schedules {@code item} for {@code deadlineMs}. Deadlines that have already
+     * passed are returned by the next {@link #advance}.
+     */
+    public synchronized void add(long deadlineMs, T item) {
+        size++;
+        insert(new Entry<>(deadlineMs, item));
+    }
+
+    /**
+     * Moves the wheel to {@code nowMs} and returns every item that became due.
+     */
+    public synchronized List<T> advance(long nowMs) {
+        root.advance(nowMs);
+        if (due.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<T> fired = new ArrayList<>(due);
+        due.clear();
+        size -= fired.size();
+        return fired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized int levels() {
+        int levels = 0;
+        for (Level level = root; level != null; level = level.overflow) {
+            levels++;
+        }
+        return levels;
+    }
+
+    private void insert(Entry<T> entry) {
+        if (!root.add(entry)) {
+            due.add(entry.item());
+        }
+    }
+
+    private record Entry<T>(long deadlineMs, T item) {
+    }
+
+    private final class Level {
+        private final long tickMs;
+        private final long spanMs;
+        private final List<List<Entry<T>>> buckets;
+        private long currentTime;
+        private Level overflow;
+
+        private Level(long tickMs, long startMs) {
+            this.tickMs = tickMs;
+            this.spanMs = tickMs * wheelSize;
+            this.buckets = new ArrayList<>(Collections.nCopies(wheelSize, null));
+            this.currentTime = startMs - startMs % tickMs;
+        }
+
+        /**
+         * @return false if the entry is already due at this level's resolution
+         */
+        private boolean add(Entry<T> entry) {
+            if (entry.deadlineMs() < currentTime + tickMs) {
+                return false;
+            }
+            if (entry.deadlineMs() < currentTime + spanMs) {
+                int index = (int) ((entry.deadlineMs() / tickMs) % wheelSize);
+                List<Entry<T>> bucket = buckets.get(index);
+                if (bucket == null) {
+                    bucket = new ArrayList<>();
+                    buckets.set(index, bucket);
+                }
+                bucket.add(entry);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(spanMs, currentTime);
+            }
+            return overflow.add(entry);
+        }
+
+        private void advance(long nowMs) {
+            while (nowMs >= currentTime + tickMs) {
+                currentTime += tickMs;
+                int index = (int) ((currentTime / tickMs) % wheelSize);
+                List<Entry<T>> bucket = buckets.get(index);
+                if (bucket != null) {
+                    buckets.set(index, null);
+                    for (Entry<T> entry : bucket) {
+                        insert(entry);
+                    }
+                }
+            }
+            if (overflow != null) {
+                overflow.advance(nowMs);
+            }
+        }
+    }
+}
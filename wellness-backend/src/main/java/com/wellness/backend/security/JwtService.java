@@ -1,6 +1,7 @@
 package com.wellness.backend.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -18,6 +19,10 @@ public class JwtService {
 
     private static final long EXPIRATION_TIME = 1000 * 60 * 60; // 1 hour
 
+    // Key and parser are immutable and thread-safe, build them once
+    private final Key signInKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+
     // 🔹 Generate Token
     public String generateToken(String email, String role) {
 
@@ -51,21 +56,24 @@ public class JwtService {
         return extractClaim(token, Claims::getExpiration);
     }
 
+    // 🔹 Parse + verify signature/expiry once and return all claims
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     private <T> T extractClaim(String token, Function<Claims, T> resolver) {
         final Claims claims = extractAllClaims(token);
         return resolver.apply(claims);
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
     private Key getSignInKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        return signInKey;
     }
     public String generateRefreshToken(String email) {
     long refreshExpirationTime = 1000 * 60 * 60 * 24 * 7; // 7 days
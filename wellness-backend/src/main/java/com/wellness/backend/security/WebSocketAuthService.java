@@ -0,0 +1,197 @@
+package com.wellness.backend.security;
+
+import com.wellness.backend.metrics.RateMeter;
+import com.wellness.backend.model.User;
+import com.wellness.backend.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.security.Principal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Authentication fast path for STOMP CONNECT frames.
+ *
+ * Verified tokens are cached with their subject and expiry, so a reconnecting
+ * client's token is parsed once. Principals are cached per email for a short
+ * TTL, so a reconnect storm after a deploy does not turn into one user lookup
+ * per socket. Blocking or unblocking a user evicts the cached principal.
+ */
+@Service
+public class WebSocketAuthService {
+
+    private static final long RECONNECT_WINDOW_MS = 60_000;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.websocket.auth.principal-ttl-seconds:300}")
+    private long principalTtlSeconds;
+
+    @Value("${app.websocket.auth.cache-max-entries:20000}")
+    private int cacheMaxEntries;
+
+    private final Map<String, CachedToken> tokenCache = new ConcurrentHashMap<>();
+    private final Map<String, CachedPrincipal> principalCache = new ConcurrentHashMap<>();
+
+    // ================= METRICS =================
+    private final RateMeter connects = new RateMeter(60);
+    private final RateMeter reconnects = new RateMeter(60);
+    private final AtomicLong authFailures = new AtomicLong();
+    private final AtomicLong tokenCacheHits = new AtomicLong();
+    private final AtomicLong principalCacheHits = new AtomicLong();
+    private final AtomicLong principalLoads = new AtomicLong();
+    private final AtomicLong subscribeDenied = new AtomicLong();
+
+    /**
+     * @return the authenticated principal (named by user id), or null if the
+     *         token is missing, invalid, expired or belongs to a blocked user.
+     */
+    public UsernamePasswordAuthenticationToken authenticate(String authHeader) {
+        connects.mark();
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            authFailures.incrementAndGet();
+            return null;
+        }
+        String token = authHeader.substring(7);
+        long now = System.currentTimeMillis();
+
+        try {
+            CachedToken cachedToken = tokenCache.get(token);
+            if (cachedToken != null && cachedToken.expiresAt > now) {
+                tokenCacheHits.incrementAndGet();
+            } else {
+                Claims claims = jwtService.parseClaims(token);
+                if (claims.getSubject() == null || claims.getExpiration() == null) {
+                    authFailures.incrementAndGet();
+                    return null;
+                }
+                cachedToken = new CachedToken(claims.getSubject(), claims.getExpiration().getTime());
+                trimIfFull(tokenCache);
+                tokenCache.put(token, cachedToken);
+            }
+
+            CachedPrincipal principal = resolvePrincipal(cachedToken.email, now);
+            if (principal == null) {
+                authFailures.incrementAndGet();
+                return null;
+            }
+
+            long previous = principal.lastConnectAt;
+            principal.lastConnectAt = now;
+            if (previous > 0 && now - previous < RECONNECT_WINDOW_MS) {
+                reconnects.mark();
+            }
+            return principal.authentication;
+        } catch (Exception e) {
+            // Invalid token
+            tokenCache.remove(token);
+            authFailures.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Rejects /app/.../subscribe requests made on behalf of another user.
+     */
+    public void assertOwnUserId(Principal principal, Object requestedId) {
+        if (principal == null || !(requestedId instanceof Number number)
+                || !principal.getName().equals(String.valueOf(number.intValue()))) {
+            subscribeDenied.incrementAndGet();
+            throw new AccessDeniedException("Cannot subscribe on behalf of another user");
+        }
+    }
+
+    public void evictUser(String email) {
+        principalCache.remove(email);
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        tokenCache.values().removeIf(t -> t.expiresAt <= now);
+        principalCache.values().removeIf(p -> p.expiresAt <= now);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("connectsTotal", connects.getTotal());
+        stats.put("connectsPerSecond", connects.perSecond());
+        stats.put("reconnectsTotal", reconnects.getTotal());
+        stats.put("reconnectsPerSecond", reconnects.perSecond());
+        stats.put("authFailures", authFailures.get());
+        stats.put("tokenCacheHits", tokenCacheHits.get());
+        stats.put("principalCacheHits", principalCacheHits.get());
+        stats.put("principalLoads", principalLoads.get());
+        stats.put("subscribeDenied", subscribeDenied.get());
+        stats.put("cachedTokens", tokenCache.size());
+        stats.put("cachedPrincipals", principalCache.size());
+        return stats;
+    }
+
+    private CachedPrincipal resolvePrincipal(String email, long now) {
+        CachedPrincipal cached = principalCache.get(email);
+        if (cached != null && cached.expiresAt > now) {
+            principalCacheHits.incrementAndGet();
+            return cached;
+        }
+
+        principalLoads.incrementAndGet();
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null || user.isBlocked()) {
+            principalCache.remove(email);
+            return null;
+        }
+
+        // Principal name is the user id so convertAndSendToUser(userId, ...)
+        // resolves to this user's sessions
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                user.getId().toString(), null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
+        authentication.setDetails(user.getEmail());
+
+        CachedPrincipal principal = new CachedPrincipal(authentication, now + principalTtlSeconds * 1000);
+        if (cached != null) {
+            principal.lastConnectAt = cached.lastConnectAt;
+        }
+        trimIfFull(principalCache);
+        principalCache.put(email, principal);
+        return principal;
+    }
+
+    private <V> void trimIfFull(Map<String, V> cache) {
+        if (cache.size() >= cacheMaxEntries) {
+            evictExpired();
+            if (cache.size() >= cacheMaxEntries) {
+                cache.clear();
+            }
+        }
+    }
+
+    private record CachedToken(String email, long expiresAt) {
+    }
+
+    private static final class CachedPrincipal {
+        private final UsernamePasswordAuthenticationToken authentication;
+        private final long expiresAt;
+        private volatile long lastConnectAt;
+
+        private CachedPrincipal(UsernamePasswordAuthenticationToken authentication, long expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
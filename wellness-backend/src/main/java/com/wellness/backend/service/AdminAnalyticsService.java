@@ -5,116 +5,148 @@ import com.wellness.backend.enums.PaymentStatus;
 import com.wellness.backend.enums.SessionStatus;
 import com.wellness.backend.model.Order;
 import com.wellness.backend.model.User;
-import com.wellness.backend.repository.*;
+import com.wellness.backend.repository.AnalyticsRollupRepository;
+import com.wellness.backend.repository.AnalyticsRollupRepository.Metric;
+import com.wellness.backend.repository.AnalyticsRollupRepository.MonthlyValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Admin dashboard analytics served from an in-memory snapshot.
+ *
+ * Trends, revenue and platform fees come from analytics_monthly_rollup (kept
+ * current by {@link com.wellness.backend.scheduler.AnalyticsRollupJob}),
+ * breakdowns from one GROUP BY per table and top practitioners from the
+ * earning summaries. The snapshot is rebuilt on an interval, so a dashboard
+ * load never touches the database.
+ */
 @Service
 public class AdminAnalyticsService {
 
-    @Autowired
-    private UserRepository userRepository;
-
-    @Autowired
-    private TherapySessionRepository sessionRepository;
+    private static final Logger logger = LoggerFactory.getLogger(AdminAnalyticsService.class);
 
     @Autowired
-    private OrderRepository orderRepository;
+    private AnalyticsRollupRepository rollupRepository;
 
-    @Autowired
-    private DoctorEarningRepository earningRepository;
+    @Value("${app.analytics.top-practitioners:5}")
+    private int topPractitioners;
 
-    @Autowired
-    private com.wellness.backend.repository.SellerEarningRepository sellerEarningRepository;
+    private volatile AdminAnalyticsDTO snapshot;
 
     public AdminAnalyticsDTO getDashboardAnalytics() {
-        AdminAnalyticsDTO dto = new AdminAnalyticsDTO();
+        AdminAnalyticsDTO current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = buildSnapshot();
+            }
+            return snapshot;
+        }
+    }
 
-        // --- KPI Cards ---
-        dto.setTotalUsers(userRepository.count());
-        dto.setTotalPatients(userRepository.countByRole(User.Role.PATIENT));
-        dto.setTotalPractitioners(userRepository.countByRole(User.Role.PRACTITIONER));
-        dto.setTotalSellers(userRepository.countByRole(User.Role.PRODUCT_SELLER));
-        dto.setTotalSessions(sessionRepository.count());
-        dto.setTotalOrders(orderRepository.count());
-
-        BigDecimal sessionRevenue = sessionRepository.sumPaidSessionRevenue();
-        BigDecimal orderRevenue = orderRepository.sumPaidOrderRevenue();
-        dto.setTotalRevenue((sessionRevenue != null ? sessionRevenue : BigDecimal.ZERO)
-                .add(orderRevenue != null ? orderRevenue : BigDecimal.ZERO));
-
-        BigDecimal sessionPlatformFees = earningRepository.sumTotalPlatformFees();
-        BigDecimal productPlatformFees = sellerEarningRepository.sumTotalPlatformFees();
-        
-        BigDecimal totalPlatformFees = (sessionPlatformFees != null ? sessionPlatformFees : BigDecimal.ZERO)
-                .add(productPlatformFees != null ? productPlatformFees : BigDecimal.ZERO);
-                
-        dto.setPlatformEarnings(totalPlatformFees);
-
-        // --- Monthly Trends ---
-        dto.setUserGrowth(toMonthlyStats(userRepository.countUsersGroupedByMonth()));
-        dto.setSessionTrend(toMonthlyStats(sessionRepository.countSessionsGroupedByMonth()));
-        dto.setOrderTrend(toMonthlyStats(orderRepository.countOrdersGroupedByMonth()));
-        dto.setRevenueTrend(toMonthlyStatsWithAmount(orderRepository.sumRevenueGroupedByMonth()));
+    @Scheduled(fixedDelayString = "${app.analytics.snapshot-ms:60000}",
+            initialDelayString = "${app.analytics.snapshot-ms:60000}")
+    public void refreshSnapshot() {
+        try {
+            AdminAnalyticsDTO next = buildSnapshot();
+            synchronized (this) {
+                snapshot = next;
+            }
+        } catch (Exception e) {
+            // Keep serving the previous snapshot
+            logger.warn("Analytics snapshot refresh failed: {}", e.getMessage());
+        }
+    }
+
+    // ================= SNAPSHOT =================
+    private AdminAnalyticsDTO buildSnapshot() {
+        AdminAnalyticsDTO dto = new AdminAnalyticsDTO();
 
         // --- Breakdowns ---
         Map<String, Long> usersByRole = new LinkedHashMap<>();
+        Map<String, Long> roleCounts = rollupRepository.countUsersByRole();
         for (User.Role role : User.Role.values()) {
-            usersByRole.put(role.name(), userRepository.countByRole(role));
+            usersByRole.put(role.name(), roleCounts.getOrDefault(role.name(), 0L));
         }
         dto.setUsersByRole(usersByRole);
+        dto.setSessionsByStatus(withAllKeys(rollupRepository.countSessionsByStatus(), SessionStatus.values()));
+        dto.setOrdersByStatus(withAllKeys(rollupRepository.countOrdersByStatus(), Order.OrderStatus.values()));
+        dto.setOrdersByPaymentStatus(withAllKeys(rollupRepository.countOrdersByPaymentStatus(),
+                PaymentStatus.values()));
 
-        Map<String, Long> sessionsByStatus = new LinkedHashMap<>();
-        for (SessionStatus status : SessionStatus.values()) {
-            sessionsByStatus.put(status.name(), sessionRepository.countByStatus(status));
+        // --- KPI Cards ---
+        dto.setTotalUsers(sum(roleCounts));
+        dto.setTotalPatients(usersByRole.get(User.Role.PATIENT.name()));
+        dto.setTotalPractitioners(usersByRole.get(User.Role.PRACTITIONER.name()));
+        dto.setTotalSellers(usersByRole.get(User.Role.PRODUCT_SELLER.name()));
+        dto.setTotalSessions(sum(dto.getSessionsByStatus()));
+        dto.setTotalOrders(sum(dto.getOrdersByStatus()));
+
+        // --- Monthly Trends and Revenue ---
+        Map<Metric, List<AdminAnalyticsDTO.MonthlyStat>> trends = new EnumMap<>(Metric.class);
+        Map<Metric, BigDecimal> totals = new EnumMap<>(Metric.class);
+        for (Metric metric : Metric.values()) {
+            trends.put(metric, new ArrayList<>());
+            totals.put(metric, BigDecimal.ZERO);
         }
-        dto.setSessionsByStatus(sessionsByStatus);
-
-        Map<String, Long> ordersByStatus = new LinkedHashMap<>();
-        for (Order.OrderStatus status : Order.OrderStatus.values()) {
-            ordersByStatus.put(status.name(), orderRepository.countByStatus(status));
+        for (MonthlyValue value : rollupRepository.findAllRollups()) {
+            Metric metric = Metric.valueOf(value.metric());
+            trends.get(metric).add(new AdminAnalyticsDTO.MonthlyStat(value.month(), value.count(), value.amount()));
+            totals.put(metric, totals.get(metric).add(value.amount()));
         }
-        dto.setOrdersByStatus(ordersByStatus);
+        dto.setUserGrowth(countsOnly(trends.get(Metric.USERS)));
+        dto.setSessionTrend(countsOnly(trends.get(Metric.SESSIONS)));
+        dto.setOrderTrend(countsOnly(trends.get(Metric.ORDERS)));
+        List<AdminAnalyticsDTO.MonthlyStat> revenueTrend = trends.get(Metric.ORDER_REVENUE);
+        revenueTrend.forEach(stat -> stat.setCount(0));
+        dto.setRevenueTrend(revenueTrend);
 
-        Map<String, Long> ordersByPayment = new LinkedHashMap<>();
-        for (PaymentStatus status : PaymentStatus.values()) {
-            ordersByPayment.put(status.name(), orderRepository.countByPaymentStatus(status));
-        }
-        dto.setOrdersByPaymentStatus(ordersByPayment);
+        dto.setTotalRevenue(totals.get(Metric.SESSION_REVENUE).add(totals.get(Metric.ORDER_REVENUE)));
+        dto.setPlatformEarnings(totals.get(Metric.SESSION_PLATFORM_FEES).add(totals.get(Metric.PRODUCT_PLATFORM_FEES)));
 
         // --- Top Practitioners ---
-        List<Object[]> topRows = earningRepository.findTopEarningPractitioners(PageRequest.of(0, 5));
-        List<AdminAnalyticsDTO.TopPractitioner> topList = topRows.stream().map(row -> {
-            AdminAnalyticsDTO.TopPractitioner tp = new AdminAnalyticsDTO.TopPractitioner();
-            tp.setName(row[1] != null ? row[1].toString() : "Unknown");
-            tp.setSpecialization(row[2] != null ? row[2].toString() : "N/A");
-            tp.setCompletedSessions(((Number) row[3]).longValue());
-            tp.setTotalEarnings(row[4] != null ? new BigDecimal(row[4].toString()) : BigDecimal.ZERO);
-            return tp;
-        }).collect(Collectors.toList());
+        List<AdminAnalyticsDTO.TopPractitioner> topList = new ArrayList<>();
+        for (Object[] row : rollupRepository.findTopPractitioners(topPractitioners)) {
+            topList.add(new AdminAnalyticsDTO.TopPractitioner(
+                    row[0] != null ? row[0].toString() : "Unknown",
+                    row[1] != null ? row[1].toString() : "N/A",
+                    (Long) row[2],
+                    row[3] != null ? (BigDecimal) row[3] : BigDecimal.ZERO));
+        }
         dto.setTopPractitioners(topList);
 
+        dto.setGeneratedAt(LocalDateTime.now());
         return dto;
     }
 
-    private List<AdminAnalyticsDTO.MonthlyStat> toMonthlyStats(List<Object[]> rows) {
-        return rows.stream().map(row -> new AdminAnalyticsDTO.MonthlyStat(
-                row[0].toString(),
-                ((Number) row[1]).longValue(),
-                null
-        )).collect(Collectors.toList());
+    private List<AdminAnalyticsDTO.MonthlyStat> countsOnly(List<AdminAnalyticsDTO.MonthlyStat> stats) {
+        stats.forEach(stat -> stat.setAmount(null));
+        return stats;
     }
 
-    private List<AdminAnalyticsDTO.MonthlyStat> toMonthlyStatsWithAmount(List<Object[]> rows) {
-        return rows.stream().map(row -> new AdminAnalyticsDTO.MonthlyStat(
-                row[0].toString(),
-                0,
-                row[1] != null ? new BigDecimal(row[1].toString()) : BigDecimal.ZERO
-        )).collect(Collectors.toList());
+    private Map<String, Long> withAllKeys(Map<String, Long> counts, Enum<?>[] keys) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Enum<?> key : keys) {
+            result.put(key.name(), counts.getOrDefault(key.name(), 0L));
+        }
+        return result;
+    }
+
+    private long sum(Map<String, Long> counts) {
+        long total = 0;
+        for (Long count : counts.values()) {
+            total += count;
+        }
+        return total;
     }
 }
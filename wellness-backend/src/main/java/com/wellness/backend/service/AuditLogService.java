@@ -1,23 +1,270 @@
 package com.wellness.backend.service;
 
-import com.wellness.backend.model.AuditLog;
-import com.wellness.backend.repository.AuditLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellness.backend.metrics.LatencySampler;
+import com.wellness.backend.model.AuditEntry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous, batched audit log writer.
+ *
+ * {@link #logAction} only appends to a lock-free queue. The queue is flushed
+ * to the configured {@link AuditStore} (multi-row INSERTs into audit_log, or
+ * the local journal) every flush interval, or as soon as a full batch is
+ * waiting. Batches that cannot be written (database down or slow enough that
+ * the queue overflows) are appended to a local JSON-lines spill file and
+ * replayed once writes succeed again.
+ */
 @Service
 public class AuditLogService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogService.class);
+
+    @Autowired
+    private AuditStore auditStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    @Qualifier("auditExecutor")
+    private Executor auditExecutor;
+
+    @Value("${app.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.audit.max-queue:50000}")
+    private int maxQueue;
+
+    @Value("${app.audit.spill-file:data/audit-spill.jsonl}")
+    private String spillFile;
+
+    private final ConcurrentLinkedQueue<AuditEntry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Object spillLock = new Object();
+
+    // ================= METRICS =================
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final LatencySampler flushLatency = new LatencySampler(512);
 
     public void logAction(Integer userId, String action, String entityType, String entityId, String metadata) {
-        AuditLog log = new AuditLog();
-        log.setUserId(userId);
-        log.setAction(action);
-        log.setEntityType(entityType);
-        log.setEntityId(entityId);
-        log.setMetadata(metadata);
-        auditLogRepository.save(log);
+        queue.offer(new AuditEntry(userId, action, entityType, entityId, metadata, LocalDateTime.now()));
+        enqueued.incrementAndGet();
+        int depth = queueDepth.incrementAndGet();
+
+        if (depth >= maxQueue) {
+            // Writer cannot keep up; move a batch to disk rather than grow the heap
+            spill(drain(batchSize));
+        } else if (depth >= batchSize && !flushing.get() && flushScheduled.compareAndSet(false, true)) {
+            // At most one early flush pending; the executor discards rather than throws
+            auditExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.audit.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        if (flush() && queueDepth.get() == 0) {
+            replaySpill();
+        }
+    }
+
+    /**
+     * Writes queued entries in batches until the queue is empty.
+     *
+     * @return false if a batch failed and was spilled
+     */
+    public boolean flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return true;
+        }
+        try {
+            List<AuditEntry> batch;
+            while (!(batch = drain(batchSize)).isEmpty()) {
+                if (!write(batch)) {
+                    spill(batch);
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        List<AuditEntry> remaining = drain(Integer.MAX_VALUE);
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", queueDepth.get());
+        stats.put("enqueued", enqueued.get());
+        stats.put("written", written.get());
+        stats.put("batches", batches.get());
+        stats.put("failedBatches", failedBatches.get());
+        stats.put("spilled", spilled.get());
+        stats.put("replayed", replayed.get());
+        stats.put("spillFileBytes", spillFileSize());
+        stats.put("flushLatency", flushLatency.snapshot());
+        stats.put("store", auditStore.getStats());
+        return stats;
+    }
+
+    // ================= QUERIES =================
+    public List<AuditEntry> getEntityHistory(String entityType, String entityId, int limit) {
+        return auditStore.findByEntity(entityType, entityId, limit);
+    }
+
+    public List<AuditEntry> getUserHistory(Integer userId, int limit) {
+        return auditStore.findByUser(userId, limit);
+    }
+
+    private List<AuditEntry> drain(int max) {
+        List<AuditEntry> batch = new ArrayList<>(Math.min(max, batchSize));
+        AuditEntry entry;
+        while (batch.size() < max && (entry = queue.poll()) != null) {
+            batch.add(entry);
+        }
+        queueDepth.addAndGet(-batch.size());
+        return batch;
+    }
+
+    private boolean write(List<AuditEntry> batch) {
+        long start = System.currentTimeMillis();
+        try {
+            auditStore.append(batch);
+            flushLatency.record(System.currentTimeMillis() - start);
+            batches.incrementAndGet();
+            written.addAndGet(batch.size());
+            return true;
+        } catch (Exception e) {
+            failedBatches.incrementAndGet();
+            logger.warn("Audit batch of {} entries failed: {}", batch.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    // ================= SPILL FILE =================
+    private void spill(List<AuditEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        synchronized (spillLock) {
+            Path path = Paths.get(spillFile);
+            try {
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC)) {
+                    for (AuditEntry entry : entries) {
+                        writer.write(objectMapper.writeValueAsString(entry));
+                        writer.newLine();
+                    }
+                }
+                spilled.addAndGet(entries.size());
+            } catch (IOException e) {
+                logger.error("Failed to spill {} audit entries to {}", entries.size(), path, e);
+            }
+        }
+    }
+
+    private void replaySpill() {
+        synchronized (spillLock) {
+            Path path = Paths.get(spillFile);
+            // Move the file aside so entries spilled during the replay are not lost.
+            // A leftover .replaying file (crash mid-replay) is finished first.
+            Path replaying = Paths.get(spillFile + ".replaying");
+            List<String> lines;
+            try {
+                if (!Files.exists(replaying)) {
+                    if (!Files.exists(path)) {
+                        return;
+                    }
+                    Files.move(path, replaying, StandardCopyOption.ATOMIC_MOVE);
+                }
+                lines = Files.readAllLines(replaying, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                logger.warn("Could not read audit spill file {}: {}", path, e.getMessage());
+                return;
+            }
+
+            List<AuditEntry> pending = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    pending.add(objectMapper.readValue(line, AuditEntry.class));
+                } catch (IOException e) {
+                    logger.warn("Skipping unreadable audit spill line: {}", e.getMessage());
+                }
+            }
+
+            for (int from = 0; from < pending.size(); from += batchSize) {
+                List<AuditEntry> batch = pending.subList(from, Math.min(from + batchSize, pending.size()));
+                if (!write(batch)) {
+                    spill(new ArrayList<>(pending.subList(from, pending.size())));
+                    break;
+                }
+                replayed.addAndGet(batch.size());
+            }
+
+            try {
+                Files.deleteIfExists(replaying);
+            } catch (IOException e) {
+                logger.warn("Could not delete {}: {}", replaying, e.getMessage());
+            }
+        }
+    }
+
+    private long spillFileSize() {
+        try {
+            Path path = Paths.get(spillFile);
+            return Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            return -1;
+        }
     }
 }
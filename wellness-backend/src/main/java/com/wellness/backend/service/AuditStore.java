@@ -0,0 +1,27 @@
+package com.wellness.backend.service;
+
+import com.wellness.backend.model.AuditEntry;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage backend for audit entries written by {@link AuditLogService}.
+ * Selected with app.audit.store (jdbc or journal).
+ */
+public interface AuditStore {
+
+    void append(List<AuditEntry> entries);
+
+    /**
+     * @return the most recent {@code limit} entries for the entity, oldest first
+     */
+    List<AuditEntry> findByEntity(String entityType, String entityId, int limit);
+
+    /**
+     * @return the most recent {@code limit} entries for the user, oldest first
+     */
+    List<AuditEntry> findByUser(Integer userId, int limit);
+
+    Map<String, Object> getStats();
+}
@@ -0,0 +1,64 @@
+package com.wellness.backend.service;
+
+import com.wellness.backend.model.OutboundEmail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fake SMTP sink for local development and load tests: accepts every message,
+ * logs it and keeps the most recent ones in memory instead of sending mail.
+ */
+@Service
+@ConditionalOnProperty(name = "app.mail.sink", havingValue = "capture")
+public class CapturingMailSink implements MailSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(CapturingMailSink.class);
+    private static final int MAX_CAPTURED = 200;
+
+    private final Deque<Map<String, Object>> captured = new ArrayDeque<>();
+    private final AtomicLong accepted = new AtomicLong();
+
+    @Override
+    public Map<OutboundEmail, Exception> sendBatch(List<OutboundEmail> batch) {
+        synchronized (captured) {
+            for (OutboundEmail email : batch) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("id", email.getId());
+                entry.put("to", email.getRecipient());
+                entry.put("subject", email.getSubject());
+                entry.put("bodyLength", email.getHtmlBody().length());
+                entry.put("capturedAt", LocalDateTime.now().toString());
+                if (captured.size() == MAX_CAPTURED) {
+                    captured.removeFirst();
+                }
+                captured.addLast(entry);
+                logger.info("Captured email #{} to {}: {}", email.getId(), email.getRecipient(), email.getSubject());
+            }
+        }
+        accepted.addAndGet(batch.size());
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("type", "capture");
+        stats.put("accepted", accepted.get());
+        synchronized (captured) {
+            stats.put("recent", new ArrayList<>(captured));
+        }
+        return stats;
+    }
+}
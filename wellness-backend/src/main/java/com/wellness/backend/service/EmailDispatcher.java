@@ -0,0 +1,223 @@
+package com.wellness.backend.service;
+
+import com.wellness.backend.metrics.LatencySampler;
+import com.wellness.backend.metrics.RateMeter;
+import com.wellness.backend.model.OutboundEmail;
+import com.wellness.backend.repository.OutboundEmailRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the email_outbox table.
+ *
+ * Due rows are claimed in batches and handed to the {@link MailSink}, which
+ * sends a whole batch over one SMTP connection. Sending is throttled by a token
+ * bucket (app.mail.rate-per-second). Failed messages are retried with
+ * exponential backoff and jitter until app.mail.max-attempts, then marked
+ * FAILED. A claim is a lease on next_attempt_at, so rows from a crashed
+ * dispatcher become due again once the lease expires.
+ */
+@Service
+public class EmailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MailSink mailSink;
+
+    @Value("${app.mail.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.rate-per-second:5}")
+    private double ratePerSecond;
+
+    @Value("${app.mail.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.mail.backoff-base-seconds:30}")
+    private long backoffBaseSeconds;
+
+    @Value("${app.mail.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    @Value("${app.mail.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${app.mail.sent-retention-days:7}")
+    private int sentRetentionDays;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // Token bucket, only touched by the dispatching thread
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+
+    // ================= METRICS =================
+    private final RateMeter sent = new RateMeter(60);
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong permanentlyFailed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final LatencySampler batchLatency = new LatencySampler(256);
+    private final LatencySampler queueDelay = new LatencySampler(1024);
+
+    @Autowired
+    public EmailDispatcher(OutboundEmailRepository outboundEmailRepository, TransactionTemplate transactionTemplate,
+            MailSink mailSink) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.mailSink = mailSink;
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.poll-ms:2000}")
+    public void dispatch() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (true) {
+                int budget = availablePermits();
+                if (budget == 0) {
+                    throttled.incrementAndGet();
+                    return;
+                }
+                List<OutboundEmail> batch = claimBatch(budget);
+                if (batch.isEmpty()) {
+                    return;
+                }
+                tokens -= batch.size();
+                send(batch);
+                if (batch.size() < budget) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Email dispatch failed: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Removes delivered rows past the retention window.
+     */
+    @Scheduled(cron = "0 15 4 * * ?")
+    public void purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(sentRetentionDays);
+        Integer deleted = transactionTemplate.execute(status -> outboundEmailRepository.deleteSentBefore(cutoff));
+        if (deleted != null && deleted > 0) {
+            logger.info("Purged {} sent emails older than {}", deleted, cutoff);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", outboundEmailRepository.countByStatus(OutboundEmail.Status.PENDING));
+        stats.put("failed", outboundEmailRepository.countByStatus(OutboundEmail.Status.FAILED));
+        stats.put("sentTotal", sent.getTotal());
+        stats.put("sentPerSecond", sent.perSecond());
+        stats.put("failedAttempts", failedAttempts.get());
+        stats.put("permanentlyFailed", permanentlyFailed.get());
+        stats.put("batches", batches.get());
+        stats.put("throttledPolls", throttled.get());
+        stats.put("ratePerSecond", ratePerSecond);
+        stats.put("batchLatency", batchLatency.snapshot());
+        stats.put("queueDelay", queueDelay.snapshot());
+        stats.put("sink", mailSink.getStats());
+        return stats;
+    }
+
+    // ================= INTERNALS =================
+    private int availablePermits() {
+        long now = System.nanoTime();
+        double capacity = Math.max(batchSize, ratePerSecond);
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / 1e9 * ratePerSecond);
+        lastRefillNanos = now;
+        return (int) Math.min(batchSize, Math.floor(tokens));
+    }
+
+    private List<OutboundEmail> claimBatch(int limit) {
+        List<OutboundEmail> claimed = transactionTemplate.execute(status -> {
+            // DATETIME(6) keeps microseconds; truncate so the lease reads back equal
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            List<Long> ids = outboundEmailRepository.findDueIds(now, PageRequest.of(0, limit));
+            if (ids.isEmpty()) {
+                return Collections.<OutboundEmail>emptyList();
+            }
+            LocalDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+            outboundEmailRepository.claim(ids, now, leaseUntil);
+            return outboundEmailRepository.findByIdInAndNextAttemptAt(ids, leaseUntil);
+        });
+        return claimed != null ? claimed : Collections.emptyList();
+    }
+
+    private void send(List<OutboundEmail> batch) {
+        long start = System.currentTimeMillis();
+        Map<OutboundEmail, Exception> failures = mailSink.sendBatch(batch);
+        batchLatency.record(System.currentTimeMillis() - start);
+        batches.incrementAndGet();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        for (OutboundEmail email : batch) {
+            if (!failures.containsKey(email)) {
+                sentIds.add(email.getId());
+                queueDelay.record(ChronoUnit.MILLIS.between(email.getCreatedAt(), now));
+            }
+        }
+
+        for (Map.Entry<OutboundEmail, Exception> failure : failures.entrySet()) {
+            OutboundEmail email = failure.getKey();
+            int attempts = email.getAttempts() + 1;
+            email.setAttempts(attempts);
+            email.setLastError(truncate(String.valueOf(failure.getValue().getMessage()), 1000));
+            if (attempts >= maxAttempts) {
+                email.setStatus(OutboundEmail.Status.FAILED);
+                permanentlyFailed.incrementAndGet();
+                logger.error("Giving up on email #{} to {} after {} attempts: {}",
+                        email.getId(), email.getRecipient(), attempts, email.getLastError());
+            } else {
+                email.setNextAttemptAt(now.plusSeconds(backoffSeconds(attempts)));
+            }
+            failedAttempts.incrementAndGet();
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboundEmailRepository.markSent(sentIds, now);
+            }
+            if (!failures.isEmpty()) {
+                outboundEmailRepository.saveAll(failures.keySet());
+            }
+        });
+        sent.mark(sentIds.size());
+    }
+
+    private long backoffSeconds(int attempts) {
+        long backoff = Math.min(backoffMaxSeconds, backoffBaseSeconds << Math.min(attempts - 1, 20));
+        // Up to 20% jitter so a failed burst does not retry in lockstep
+        return backoff + ThreadLocalRandom.current().nextLong(backoff / 5 + 1);
+    }
+
+    private static String truncate(String value, int max) {
+        return value.length() <= max ? value : value.substring(0, max);
+    }
+}
@@ -1,31 +1,40 @@
 package com.wellness.backend.service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.wellness.backend.model.OutboundEmail;
+import com.wellness.backend.repository.OutboundEmailRepository;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.format.DateTimeFormatter;
+
+import static com.wellness.backend.service.EmailTemplate.slot;
 
 /**
  * Service for sending HTML emails via Gmail SMTP.
  * Handles welcome emails, practitioner registration confirmations,
  * and practitioner verification notifications.
+ *
+ * Messages are rendered here and queued in email_outbox; delivery, batching,
+ * rate limiting and retries are handled by EmailDispatcher.
  */
 @Service
 public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
-    private final JavaMailSender mailSender;
-
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final TransactionTemplate enqueueTransaction;
 
     @Value("${app.name}")
     private String appName;
@@ -36,9 +45,44 @@ public class EmailService {
     @Value("${app.login.url}")
     private String loginUrl;
 
+    // Parsed once at startup; see EmailTemplate
+    private EmailTemplate sessionReminderTemplate;
+    private EmailTemplate userWelcomeTemplate;
+    private EmailTemplate practitionerRegistrationTemplate;
+    private EmailTemplate practitionerVerifiedTemplate;
+    private EmailTemplate practitionerRejectionTemplate;
+    private EmailTemplate passwordResetTemplate;
+    private EmailTemplate otpEmailTemplate;
+    private EmailTemplate sessionCancellationTemplate;
+
     @Autowired
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public EmailService(OutboundEmailRepository outboundEmailRepository,
+            PlatformTransactionManager transactionManager) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.enqueueTransaction = new TransactionTemplate(transactionManager);
+        this.enqueueTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void compileTemplates() {
+        // Footer is identical in every email; render it once
+        String footer = FOOTER_HTML.formatted(appName, supportEmail, supportEmail);
+        sessionReminderTemplate = EmailTemplate.compile(SESSION_REMINDER_HTML,
+                slot(0), slot(1), loginUrl).append(footer);
+        userWelcomeTemplate = EmailTemplate.compile(USER_WELCOME_HTML,
+                appName, slot(0), appName, slot(0), slot(1)).append(footer);
+        practitionerRegistrationTemplate = EmailTemplate.compile(PRACTITIONER_REGISTRATION_HTML,
+                appName, slot(0), appName, slot(0), slot(1)).append(footer);
+        practitionerVerifiedTemplate = EmailTemplate.compile(PRACTITIONER_VERIFIED_HTML,
+                slot(0), appName, loginUrl).append(footer);
+        practitionerRejectionTemplate = EmailTemplate.compile(PRACTITIONER_REJECTION_HTML,
+                slot(0), appName, slot(1)).append(footer);
+        passwordResetTemplate = EmailTemplate.compile(PASSWORD_RESET_HTML,
+                slot(0), appName, slot(1), slot(1)).append(footer);
+        otpEmailTemplate = EmailTemplate.compile(OTP_EMAIL_HTML,
+                slot(0), appName, slot(1)).append(footer);
+        sessionCancellationTemplate = EmailTemplate.compile(SESSION_CANCELLATION_HTML,
+                slot(0), slot(1), slot(2)).append(footer);
     }
 
     // ================= USER WELCOME EMAIL =================
@@ -46,7 +90,6 @@ public class EmailService {
     /**
      * Sends a welcome email when a new PATIENT registers.
      */
-    @Async("taskExecutor")
     public void sendUserWelcomeEmail(String name, String email) {
         String subject = "Welcome to " + appName + "! 🎉";
         String htmlContent = buildUserWelcomeTemplate(name, email);
@@ -59,7 +102,6 @@ public class EmailService {
      * Sends a confirmation email when a new PRACTITIONER registers.
      * Informs them their account is pending verification.
      */
-    @Async("taskExecutor")
     public void sendPractitionerRegistrationEmail(String name, String email) {
         String subject = appName + " — Registration Received";
         String htmlContent = buildPractitionerRegistrationTemplate(name, email);
@@ -71,7 +113,6 @@ public class EmailService {
     /**
      * Sends an approval email when an ADMIN verifies a practitioner.
      */
-    @Async("taskExecutor")
     public void sendPractitionerVerifiedEmail(String name, String email) {
         String subject = "Congratulations! Your " + appName + " Account is Approved ✅";
         String htmlContent = buildPractitionerVerifiedTemplate(name);
@@ -84,7 +125,6 @@ public class EmailService {
      * Sends a rejection email when an ADMIN rejects a practitioner application.
      * Includes the reason for rejection.
      */
-    @Async("taskExecutor")
     public void sendPractitionerRejectionEmail(String name, String email, String reason) {
         String subject = appName + " — Application Update";
         String htmlContent = buildPractitionerRejectionTemplate(name, reason);
@@ -97,7 +137,6 @@ public class EmailService {
      * Sends a password reset email with a secure reset link.
      * Link expires after 30 minutes and is single-use.
      */
-    @Async("taskExecutor")
     public void sendPasswordResetEmail(String email, String name, String resetLink) {
         String subject = "Reset Your " + appName + " Password";
         String htmlContent = buildPasswordResetTemplate(name, resetLink);
@@ -109,7 +148,6 @@ public class EmailService {
     /**
      * Sends a 30-minute reminder email for an upcoming session.
      */
-    @Async("taskExecutor")
     public void sendSessionReminderEmail(String name, String email, java.time.LocalDateTime sessionTime) {
         String subject = "Reminder: Upcoming Session in 30 Minutes ⏳";
         String htmlContent = buildSessionReminderTemplate(name, sessionTime);
@@ -122,7 +160,6 @@ public class EmailService {
      * Sends a 6-digit OTP email for email address verification.
      * The plain OTP is shown in the email but never logged.
      */
-    @Async("taskExecutor")
     public void sendOtpVerificationEmail(String name, String email, String otp) {
         String subject = "Verify your " + appName + " account — OTP";
         String htmlContent = buildOtpEmailTemplate(name, otp);
@@ -134,7 +171,6 @@ public class EmailService {
     /**
      * Sends an email to the user when a practitioner cancels a session.
      */
-    @Async("taskExecutor")
     public void sendSessionCancellationEmail(String userName, String userEmail, String practitionerName,
             String reason) {
         String subject = "Important: Therapy Session Cancelled";
@@ -145,34 +181,87 @@ public class EmailService {
     // ================= CORE SEND METHOD =================
 
     /**
-     * Sends an HTML email. Catches exceptions gracefully so that
-     * email failures do not break registration/verification flows.
+     * Queues an HTML email in the email_outbox table; EmailDispatcher sends it.
+     * Inside a transaction the row is inserted only after the caller commits,
+     * in a transaction of its own, so a rolled-back flow sends nothing and a
+     * failed insert cannot roll back registration/verification flows.
      */
     private void sendHtmlEmail(String to, String subject, String htmlContent) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true); // true = HTML
-
-            mailSender.send(message);
-            logger.info("Email sent successfully to {}", to);
+        if (to == null || to.isBlank()) {
+            logger.warn("Skipping email '{}' with no recipient", subject);
+            return;
+        }
+        OutboundEmail email = new OutboundEmail(to, subject, htmlContent);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(email);
+            }
+        });
+    }
 
-        } catch (MessagingException | MailException e) {
-            logger.error("Failed to send email to {}: {}", to, e.getMessage());
+    private void enqueue(OutboundEmail email) {
+        try {
+            enqueueTransaction.executeWithoutResult(status -> outboundEmailRepository.save(email));
+            logger.debug("Email to {} queued", email.getRecipient());
+        } catch (DataAccessException | TransactionException e) {
+            logger.error("Failed to queue email to {}: {}", email.getRecipient(), e.getMessage());
         }
     }
 
     // ================= HTML TEMPLATES =================
 
     private String buildSessionReminderTemplate(String name, java.time.LocalDateTime sessionTime) {
-        java.time.format.DateTimeFormatter timeFormatter = java.time.format.DateTimeFormatter.ofPattern("hh:mm a");
-        String formattedTime = sessionTime.format(timeFormatter);
+        return sessionReminderTemplate.render(name, sessionTime.format(REMINDER_TIME_FORMAT));
+    }
+
+    private String buildUserWelcomeTemplate(String name, String email) {
+        return userWelcomeTemplate.render(name, email);
+    }
+
+    private String buildPractitionerRegistrationTemplate(String name, String email) {
+        return practitionerRegistrationTemplate.render(name, email);
+    }
+
+    private String buildPractitionerVerifiedTemplate(String name) {
+        return practitionerVerifiedTemplate.render(name);
+    }
+
+    private String buildPractitionerRejectionTemplate(String name, String reason) {
+        return practitionerRejectionTemplate.render(name, reason);
+    }
+
+    private String buildPasswordResetTemplate(String name, String resetLink) {
+        return passwordResetTemplate.render(name, resetLink);
+    }
 
-        return """
+    private String buildOtpEmailTemplate(String name, String otp) {
+        return otpEmailTemplate.render(name, otp);
+    }
+
+    private String buildSessionCancellationTemplate(String userName, String practitionerName, String reason) {
+        return sessionCancellationTemplate.render(userName, practitionerName, reason);
+    }
+
+    // ================= TEMPLATE SOURCES =================
+
+    private static final DateTimeFormatter REMINDER_TIME_FORMAT = DateTimeFormatter.ofPattern("hh:mm a");
+
+    private static final String FOOTER_HTML = """
+                        <div class="footer">
+                            <p>&copy; 2026 %s. All rights reserved.</p>
+                            <p>Need help? Contact us at <a href="mailto:%s">%s</a></p>
+                        </div>
+                    </div>
+                </body>
+                </html>
+                """;
+
+    private static final String SESSION_REMINDER_HTML = """
                 <!DOCTYPE html>
                 <html>
                 <head>
@@ -206,19 +295,9 @@ public class EmailService {
                                 <a href="%s" style="display: inline-block; background: linear-gradient(135deg, #1976D2, #0D47A1); color: #ffffff; padding: 14px 36px; border-radius: 8px; text-decoration: none; font-weight: bold; font-size: 16px;">Go to Dashboard →</a>
                             </div>
                         </div>
-                        <div class="footer">
-                            <p>&copy; 2026 %s. All rights reserved.</p>
-                            <p>Need help? Contact us at <a href="mailto:%s">%s</a></p>
-                        </div>
-                    </div>
-                </body>
-                </html>
-                """
-                .formatted(name, formattedTime, loginUrl, appName, supportEmail, supportEmail);
-    }
+                """;
 
-    private String buildUserWelcomeTemplate(String name, String email) {
-        return """
+    private static final String USER_WELCOME_HTML = """
                 <!DOCTYPE html>
                 <html>
                 <head>
@@ -253,19 +332,9 @@ public class EmailService {
                             <p>You can now explore our wellness services, book appointments with verified practitioners, and take charge of your well-being.</p>
                             <p>If you have any questions, feel free to reach out to our support team.</p>
                         </div>
-                        <div class="footer">
-                            <p>&copy; 2026 %s. All rights reserved.</p>
-                            <p>Need help? Contact us at <a href="mailto:%s">%s</a></p>
-                        </div>
-                    </div>
-                </body>
-                </html>
-                """
-                .formatted(appName, name, appName, name, email, appName, supportEmail, supportEmail);
-    }
+                """;
 
-    private String buildPractitionerRegistrationTemplate(String name, String email) {
-        return """
+    private static final String PRACTITIONER_REGISTRATION_HTML = """
                 <!DOCTYPE html>
                 <html>
                 <head>
@@ -306,19 +375,9 @@ public class EmailService {
                             <p>You will receive another email once your account has been verified and approved. This usually takes 1–2 business days.</p>
                             <p>In the meantime, if you have any questions, please contact our support team.</p>
                         </div>
-                        <div class="footer">
-                            <p>&copy; 2026 %s. All rights reserved.</p>
-                            <p>Need help? Contact us at <a href="mailto:%s">%s</a></p>
-                        </div>
-                    </div>
-                </body>
-                </html>
-                """
-                .formatted(appName, name, appName, name, email, appName, supportEmail, supportEmail);
-    }
+                """;
 
-    private String buildPractitionerVerifiedTemplate(String name) {
-        return """
+    private static final String PRACTITIONER_VERIFIED_HTML = """
                 <!DOCTYPE html>
                 <html>
                 <head>
@@ -356,19 +415,9 @@ public class EmailService {
                             </div>
                             <p>We're excited to have you as part of our practitioner network. If you need any assistance getting started, don't hesitate to reach out.</p>
                         </div>
-                        <div class="footer">
-                            <p>&copy; 2026 %s. All rights reserved.</p>
-                            <p>Need help? Contact us at <a href="mailto:%s">%s</a></p>
-                        </div>
-                    </div>
-                </body>
-                </html>
-                """
-                .formatted(name, appName, loginUrl, appName, supportEmail, supportEmail);
-    }
+                """;
 
-    private String buildPractitionerRejectionTemplate(String name, String reason) {
-        return """
+    private static final String PRACTITIONER_REJECTION_HTML = """
                 <!DOCTYPE html>
                 <html>
                 <head>
@@ -406,19 +455,9 @@ public class EmailService {
                             </div>
                             <p>If you believe this decision was made in error or have any questions, please don't hesitate to contact our support team.</p>
                         </div>
-                        <div class="footer">
-                            <p>&copy; 2026 %s. All rights reserved.</p>
-                            <p>Need help? Contact us at <a href="mailto:%s">%s</a></p>
-                        </div>
-                    </div>
-                </body>
-                </html>
-                """
-                .formatted(name, appName, reason, appName, supportEmail, supportEmail);
-    }
+                """;
 
-    private String buildPasswordResetTemplate(String name, String resetLink) {
-        return """
+    private static final String PASSWORD_RESET_HTML = """
                 <!DOCTYPE html>
                 <html>
                 <head>
@@ -478,19 +517,9 @@ public class EmailService {
                             <p>Once you reset your password, you'll be able to log in with your new credentials.</p>
                             <p><strong>Your password is never shared via email.</strong> We only send secure reset links.</p>
                         </div>
-                        <div class="footer">
-                            <p>&copy; 2026 %s. All rights reserved.</p>
-                            <p>Need help? Contact us at <a href="mailto:%s">%s</a></p>
-                        </div>
-                    </div>
-                </body>
-                </html>
-                """
-                .formatted(name, appName, resetLink, resetLink, appName, supportEmail, supportEmail);
-    }
+                """;
 
-    private String buildOtpEmailTemplate(String name, String otp) {
-        return """
+    private static final String OTP_EMAIL_HTML = """
                 <!DOCTYPE html>
                 <html>
                 <head>
@@ -528,19 +557,9 @@ public class EmailService {
                             <p>If you did not create an account, you can safely ignore this email.</p>
                             <p><strong>Do not share this OTP with anyone.</strong></p>
                         </div>
-                        <div class="footer">
-                            <p>&copy; 2026 %s. All rights reserved.</p>
-                            <p>Need help? Contact us at <a href="mailto:%s">%s</a></p>
-                        </div>
-                    </div>
-                </body>
-                </html>
-                """
-                .formatted(name, appName, otp, appName, supportEmail, supportEmail);
-    }
+                """;
 
-    private String buildSessionCancellationTemplate(String userName, String practitionerName, String reason) {
-        return """
+    private static final String SESSION_CANCELLATION_HTML = """
                 <!DOCTYPE html>
                 <html>
                 <head>
@@ -577,14 +596,5 @@ public class EmailService {
                             </div>
                             <p>We apologize for any inconvenience caused.</p>
                         </div>
-                        <div class="footer">
-                            <p>&copy; 2026 %s. All rights reserved.</p>
-                            <p>Need help? Contact us at <a href="mailto:%s">%s</a></p>
-                        </div>
-                    </div>
-                </body>
-                </html>
-                """
-                .formatted(userName, practitionerName, reason, appName, supportEmail, supportEmail);
-    }
+                """;
 }
@@ -0,0 +1,99 @@
+package com.wellness.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * HTML email template parsed once into literal segments and argument slots.
+ *
+ * {@link #compile} takes a {@code %s} text block plus one binding per
+ * placeholder: a {@link Slot} marks a per-message argument, anything else is a
+ * constant (app name, support address, ...) folded into the neighbouring
+ * literal at compile time. Rendering appends the segments into a per-thread
+ * pooled StringBuilder, so the only allocation per message is the result.
+ */
+public final class EmailTemplate {
+
+    private static final int POOLED_CAPACITY = 16 * 1024;
+    private static final int MAX_POOLED_CAPACITY = 256 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFERS =
+            ThreadLocal.withInitial(() -> new StringBuilder(POOLED_CAPACITY));
+
+    /** literals[i] precedes the argument in slots[i]; one trailing literal. */
+    private final String[] literals;
+    private final int[] slots;
+
+    private EmailTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    /**
+     * Per-message argument placeholder; {@code index} is the position in
+     * {@link #render(Object...)}'s arguments.
+     */
+    public record Slot(int index) {
+    }
+
+    public static Slot slot(int index) {
+        return new Slot(index);
+    }
+
+    public static EmailTemplate compile(String source, Object... bindings) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        StringBuilder current = new StringBuilder(source.length());
+
+        int binding = 0;
+        int from = 0;
+        int placeholder;
+        while ((placeholder = source.indexOf("%s", from)) >= 0) {
+            if (binding == bindings.length) {
+                throw new IllegalArgumentException("Template has more placeholders than bindings");
+            }
+            current.append(source, from, placeholder);
+            Object value = bindings[binding++];
+            if (value instanceof Slot slot) {
+                literals.add(current.toString());
+                current.setLength(0);
+                slots.add(slot.index());
+            } else {
+                current.append(value);
+            }
+            from = placeholder + 2;
+        }
+        if (binding != bindings.length) {
+            throw new IllegalArgumentException("Template has fewer placeholders than bindings");
+        }
+        current.append(source, from, source.length());
+        literals.add(current.toString());
+
+        return new EmailTemplate(literals.toArray(new String[0]), slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * @return a template with {@code fragment} (already rendered, e.g. a shared
+     *         footer) appended as a literal
+     */
+    public EmailTemplate append(String fragment) {
+        String[] extended = Arrays.copyOf(literals, literals.length);
+        extended[extended.length - 1] = extended[extended.length - 1] + fragment;
+        return new EmailTemplate(extended, slots);
+    }
+
+    public String render(Object... args) {
+        StringBuilder out = BUFFERS.get();
+        out.setLength(0);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]).append(args[slots[i]]);
+        }
+        out.append(literals[slots.length]);
+        String html = out.toString();
+        if (out.capacity() > MAX_POOLED_CAPACITY) {
+            // Don't pin an oversized buffer to the thread after an unusually large message
+            BUFFERS.set(new StringBuilder(POOLED_CAPACITY));
+        }
+        return html;
+    }
+}
@@ -1,27 +1,25 @@
 package com.wellness.backend.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellness.backend.ai.AiGateway;
+import com.wellness.backend.ai.AiOperation;
+import com.wellness.backend.ai.AiUnavailableException;
+import com.wellness.backend.ai.InlineImage;
 import com.wellness.backend.dto.MedicalAnalysisDTO;
 import com.wellness.backend.dto.TriageDTO;
 import com.wellness.backend.dto.TriageResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
-import org.springframework.http.HttpStatusCode;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import java.util.List;
 import java.util.Map;
 import java.time.Duration;
-import reactor.util.retry.Retry;
-import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import reactor.netty.http.client.HttpClient;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 @Service
 public class GeminiService {
@@ -31,29 +29,16 @@ public class GeminiService {
     @Autowired
     private LocalFallbackService localFallback;
 
-    @Value("${google.gemini.api.key:}")
-    private String rawApiKey;
-    private String apiKey;
+    @Autowired
+    private TriageCache triageCache;
 
-    @jakarta.annotation.PostConstruct
-    public void init() {
-        this.apiKey = (rawApiKey != null) ? rawApiKey.trim() : "";
-    }
+    @Autowired
+    private AiGateway aiGateway;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final String PRIMARY_MODEL = "gemini-2.5-flash";
     private final String FALLBACK_MODEL = "gemini-2.5-flash-lite";
-
-    // Configure durable HttpClient
-    private final HttpClient httpClient = HttpClient.create()
-            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000)
-            .doOnConnected(conn -> conn
-                    .addHandlerLast(new ReadTimeoutHandler(30))
-                    .addHandlerLast(new WriteTimeoutHandler(30)));
-
-    private final WebClient webClient = WebClient.builder()
-            .clientConnector(new ReactorClientHttpConnector(httpClient))
-            .build();
+    private static final Duration QUOTA_BACKOFF = Duration.ofMillis(500);
 
     private static final String SYSTEM_PROMPT = """
 Role: Prescription Analyst.
@@ -98,107 +83,91 @@ JSON Structure:
 }
 """;
 
-    public MedicalAnalysisDTO analyzeMedicalInput(String text, String base64Image, String mimeType) {
-        try {
-            return executeMedicalAnalysis(text, base64Image, mimeType, PRIMARY_MODEL);
-        } catch (WebClientResponseException.TooManyRequests e) {
-            logger.warn("Primary Model Quota Exhausted (429). Resource: {}", e.getResponseBodyAsString());
-            try { Thread.sleep(500); } catch (InterruptedException ignored) {}
-            try {
-                return executeMedicalAnalysis(text, base64Image, mimeType, FALLBACK_MODEL);
-            } catch (Exception ex) {
-                logger.error("AI Analysis fallback failed (Quota): {}", ex.getMessage());
-                return null;
-            }
-        } catch (Exception e) {
-            logger.error("AI Analysis critical failure: {}", e.getMessage(), e);
-            return null;
-        }
+    // ================= ANALYSIS =================
+    /**
+     * Extracts medicines from a prescription. Completes with null if both
+     * models fail or are unavailable; never blocks the caller.
+     */
+    public CompletableFuture<MedicalAnalysisDTO> analyzeMedicalInput(String text, InlineImage image) {
+        return withFallbackModel(model -> executeMedicalAnalysis(text, image, model))
+                .onErrorResume(e -> {
+                    logger.error("AI Analysis failure: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                // Continuations may hit the database; keep them off the Netty event loop
+                .publishOn(Schedulers.boundedElastic())
+                .toFuture();
     }
 
-    private MedicalAnalysisDTO executeMedicalAnalysis(String text, String base64Image, String mimeType, String model) throws Exception {
+    private Mono<MedicalAnalysisDTO> executeMedicalAnalysis(String text, InlineImage image, String model) {
         String inputStr = text != null ? text : "Analyze this input.";
         // Adding a clear boundary helps the Free API distinguish instructions from user data
         String combinedPrompt = SYSTEM_PROMPT + "\n\n--- USER QUERY ---\n" + inputStr;
         
         Map<String, Object> partText = Map.of("text", combinedPrompt);
         List<Map<String, Object>> partsList = new java.util.ArrayList<>(List.of(partText));
-        if (base64Image != null && mimeType != null) {
-            partsList.add(Map.of("inline_data", Map.of("mime_type", mimeType, "data", base64Image)));
+        if (image != null) {
+            // Serialized from the file while the request is written
+            partsList.add(Map.of("inline_data", image));
         }
 
-        String rawResponse = callGeminiApi(partsList, model);
-        return parseGeminiResponse(rawResponse);
+        return aiGateway.call(model, AiOperation.PRESCRIPTION_ANALYSIS, partsList)
+                .flatMap(rawResponse -> Mono.fromCallable(() -> parseGeminiResponse(rawResponse)));
     }
 
-    public TriageResult analyzeSymptomsForTriage(String symptoms) {
-        try {
-            return executeTriageRequest(symptoms, PRIMARY_MODEL);
-        } catch (WebClientResponseException.TooManyRequests e) {
-            logger.warn("Primary Model Triage Quota (429) Hit. Switching to Fallback...");
-            try { Thread.sleep(500); } catch (InterruptedException ignored) {}
-            try {
-                return executeTriageRequest(symptoms, FALLBACK_MODEL);
-            } catch (Exception ex) {
-                logger.error("All AI Models failed for triage. Using Local Fallback.");
-                return localFallback.getLocalTriage(symptoms);
-            }
-        } catch (Exception e) {
-            logger.error("AI Triage failure: {}. Using Local Fallback.", e.getMessage(), e);
-            return localFallback.getLocalTriage(symptoms);
-        }
+    // ================= TRIAGE =================
+    /**
+     * Triage for the symptoms, served from {@link TriageCache} when the same
+     * normalized text was triaged recently. Falls back to the local rules when
+     * both models fail or their circuits are open; never blocks the caller.
+     */
+    public CompletableFuture<TriageResult> analyzeSymptomsForTriage(String symptoms) {
+        return triageCache.get(symptoms, this::requestTriage);
+    }
+
+    private CompletableFuture<TriageResult> requestTriage(String symptoms) {
+        return withFallbackModel(model -> executeTriageRequest(symptoms, model))
+                .onErrorResume(e -> {
+                    logger.error("AI Triage failure: {}. Using Local Fallback.", e.getMessage());
+                    return Mono.fromSupplier(() -> localFallback.getLocalTriage(symptoms));
+                })
+                .publishOn(Schedulers.boundedElastic())
+                .toFuture();
     }
 
-    private TriageResult executeTriageRequest(String symptoms, String model) throws Exception {
+    private Mono<TriageResult> executeTriageRequest(String symptoms, String model) {
         // Adding a clear boundary helps the Free API distinguish instructions from user data
         String combinedPrompt = TRIAGE_PROMPT + "\n\n--- USER QUERY ---\n" + symptoms;
         Map<String, Object> partText = Map.of("text", combinedPrompt);
-        String rawResponse = callGeminiApi(List.of(partText), model);
-        TriageDTO dto = parseTriageResponse(rawResponse);
+        return aiGateway.call(model, AiOperation.TRIAGE, List.of(partText))
+                .flatMap(rawResponse -> Mono.fromCallable(() -> {
+                    TriageDTO dto = parseTriageResponse(rawResponse);
 
-        String specialty = dto.getSpecialist(); // Allow null to pass through for MedicalIntelligenceController to handle
-        String urgency = "LOW";
-        String advice = dto.getAdvice() != null ? dto.getAdvice() : "Based on your symptoms, a specialist is recommended.";
+                    String specialty = dto.getSpecialist(); // Allow null to pass through for MedicalIntelligenceController to handle
+                    String urgency = "LOW";
+                    String advice = dto.getAdvice() != null ? dto.getAdvice() : "Based on your symptoms, a specialist is recommended.";
 
-        return new TriageResult(urgency, advice, true, model, specialty, dto);
+                    return new TriageResult(urgency, advice, true, model, specialty, dto);
+                }));
     }
 
-    private String callGeminiApi(List<Map<String, Object>> parts, String model) throws Exception {
-        String uri = "https://generativelanguage.googleapis.com/v1beta/models/" + model + ":generateContent?key=" + apiKey;
-
-        Map<String, Object> requestMap = new java.util.HashMap<>();
-        requestMap.put("contents", List.of(Map.of("role", "user", "parts", parts)));
-        
-        // Output formatting config to force Gemini into strict JSON mode.
-        // It guarantees valid JSON based on the user's explicit Schema instructions above.
-        requestMap.put("generationConfig", Map.of("response_mime_type", "application/json"));
-
-        // Disable Safety Gating to prevent clinical censorship
-        List<Map<String, String>> safetySettings = List.of(
-            Map.of("category", "HARM_CATEGORY_HARASSMENT", "threshold", "BLOCK_NONE"),
-            Map.of("category", "HARM_CATEGORY_HATE_SPEECH", "threshold", "BLOCK_NONE"),
-            Map.of("category", "HARM_CATEGORY_SEXUALLY_EXPLICIT", "threshold", "BLOCK_NONE"),
-            Map.of("category", "HARM_CATEGORY_DANGEROUS_CONTENT", "threshold", "BLOCK_NONE")
-        );
-        requestMap.put("safetySettings", safetySettings);
-
-        String requestBody = objectMapper.writeValueAsString(requestMap);
-
-        return webClient.post()
-                .uri(uri)
-                .header("Content-Type", "application/json")
-                .bodyValue(requestBody)
-                .retrieve()
-                .onStatus(HttpStatusCode::isError, response -> response.bodyToMono(String.class).flatMap(body -> {
-                    logger.error("Gemini API Error ({}): {}", response.statusCode(), body);
-                    return Mono.error(new RuntimeException("Gemini API Error: " + body));
-                }))
-                .bodyToMono(String.class)
-                // Add this specific timeout to handle the "Thinking" delay
-                .timeout(Duration.ofSeconds(30)) 
-                .retryWhen(Retry.backoff(2, Duration.ofSeconds(1))
-                        .filter(t -> t instanceof org.springframework.web.reactive.function.client.WebClientRequestException || (t.getMessage() != null && t.getMessage().contains("Connection reset"))))
-                .block(Duration.ofSeconds(35));
+    // ================= INTERNALS =================
+    /**
+     * Calls the primary model and, if it is over quota (429) or refused by the
+     * gateway, the fallback model once. Errors of the fallback call are passed
+     * on, not retried.
+     */
+    private <T> Mono<T> withFallbackModel(Function<String, Mono<T>> call) {
+        return call.apply(PRIMARY_MODEL)
+                .onErrorResume(e -> e instanceof WebClientResponseException.TooManyRequests
+                        || e instanceof AiUnavailableException, e -> {
+                    if (e instanceof WebClientResponseException.TooManyRequests quota) {
+                        logger.warn("Primary Model Quota Exhausted (429). Resource: {}", quota.getResponseBodyAsString());
+                        return Mono.delay(QUOTA_BACKOFF).then(Mono.defer(() -> call.apply(FALLBACK_MODEL)));
+                    }
+                    logger.warn("{}. Switching to Fallback...", e.getMessage());
+                    return call.apply(FALLBACK_MODEL);
+                });
     }
 
     @SuppressWarnings("unchecked")
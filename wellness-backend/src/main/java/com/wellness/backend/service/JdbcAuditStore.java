@@ -0,0 +1,63 @@
+package com.wellness.backend.service;
+
+import com.wellness.backend.model.AuditEntry;
+import com.wellness.backend.model.AuditLog;
+import com.wellness.backend.repository.AuditLogBatchRepository;
+import com.wellness.backend.repository.AuditLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Default audit store: the audit_log table in MySQL.
+ */
+@Service
+@ConditionalOnProperty(name = "app.audit.store", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcAuditStore implements AuditStore {
+
+    @Autowired
+    private AuditLogBatchRepository auditLogBatchRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Override
+    public void append(List<AuditEntry> entries) {
+        auditLogBatchRepository.insertAll(entries);
+    }
+
+    @Override
+    public List<AuditEntry> findByEntity(String entityType, String entityId, int limit) {
+        return toEntries(auditLogRepository.findByEntityTypeAndEntityIdOrderByCreatedAtDescIdDesc(
+                entityType, entityId, PageRequest.of(0, limit)));
+    }
+
+    @Override
+    public List<AuditEntry> findByUser(Integer userId, int limit) {
+        return toEntries(auditLogRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, PageRequest.of(0, limit)));
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("type", "jdbc");
+        return stats;
+    }
+
+    private static List<AuditEntry> toEntries(List<AuditLog> newestFirst) {
+        List<AuditEntry> entries = new ArrayList<>(newestFirst.size());
+        for (AuditLog log : newestFirst) {
+            entries.add(new AuditEntry(log.getUserId(), log.getAction(), log.getEntityType(),
+                    log.getEntityId(), log.getMetadata(), log.getCreatedAt()));
+        }
+        Collections.reverse(entries);
+        return entries;
+    }
+}
@@ -0,0 +1,489 @@
+package com.wellness.backend.service;
+
+import com.wellness.backend.metrics.LatencySampler;
+import com.wellness.backend.model.AuditEntry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Audit store backed by an append-only journal of memory-mapped segment files.
+ *
+ * Each record is {@code [int length][int crc32][payload]}; a zero length marks
+ * the end of a segment. When the active segment is full it is sealed and a new
+ * one is created. On startup every segment is scanned to rebuild the in-memory
+ * index and to truncate a torn tail write.
+ *
+ * The index maps (entity type, entity id) and user id to packed record
+ * positions ({@code segmentId << 32 | offset}), appended in write order. Sealed
+ * segments older than the retention window are deleted oldest first, and the
+ * index lists are compacted by dropping the positions that pointed into them.
+ */
+@Service
+@ConditionalOnProperty(name = "app.audit.store", havingValue = "journal")
+public class JournalAuditStore implements AuditStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalAuditStore.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int NULL_USER = Integer.MIN_VALUE;
+
+    @Value("${app.audit.journal.dir:data/audit-journal}")
+    private String directory;
+
+    @Value("${app.audit.journal.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${app.audit.journal.retention-days:365}")
+    private int retentionDays;
+
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private final Map<String, PositionList> entityIndex = new HashMap<>();
+    private final Map<Integer, PositionList> userIndex = new HashMap<>();
+    private Segment active;
+    private long records;
+
+    // ================= METRICS =================
+    private final LatencySampler appendLatency = new LatencySampler(512);
+    private long rollovers;
+    private long segmentsDeleted;
+    private long oversizedDropped;
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+
+        for (Path file : files) {
+            Segment segment = Segment.open(file, parseSegmentId(file), (int) Math.max(Files.size(file), segmentBytes()));
+            recover(segment);
+            segments.put(segment.id, segment);
+        }
+
+        active = segments.isEmpty() ? createSegment(1) : segments.lastEntry().getValue();
+        logger.info("Audit journal opened: {} segments, {} records", segments.size(), records);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+    }
+
+    @Override
+    public synchronized void append(List<AuditEntry> entries) {
+        long start = System.currentTimeMillis();
+        int firstOffset = active.writePosition;
+        Segment firstSegment = active;
+
+        // Encode and size-check the whole batch before writing any of it. An entry that can
+        // never fit a segment is dropped on its own; failing the batch would make the caller
+        // spill and replay it, duplicating the entries already written.
+        List<byte[]> payloads = new ArrayList<>(entries.size());
+        for (AuditEntry entry : entries) {
+            byte[] payload = encode(entry);
+            int needed = RECORD_HEADER_BYTES + payload.length;
+            if (needed + RECORD_HEADER_BYTES > segmentBytes()) {
+                oversizedDropped++;
+                logger.warn("Dropping audit entry too large for a journal segment ({} bytes): {} {} {}",
+                        needed, entry.action(), entry.entityType(), entry.entityId());
+                payloads.add(null);
+            } else {
+                payloads.add(payload);
+            }
+        }
+
+        for (int i = 0; i < entries.size(); i++) {
+            AuditEntry entry = entries.get(i);
+            byte[] payload = payloads.get(i);
+            if (payload == null) {
+                continue;
+            }
+            int needed = RECORD_HEADER_BYTES + payload.length;
+            if (active.remaining() < needed + RECORD_HEADER_BYTES) {
+                // Keep a zeroed header after the last record as the end marker
+                roll();
+            }
+            int offset = active.write(payload, epochMillis(entry.createdAt()));
+            index(entry, position(active.id, offset));
+            records++;
+        }
+
+        // Make the batch durable before it is reported as written
+        if (firstSegment != active) {
+            firstSegment.force(0, firstSegment.writePosition);
+            firstOffset = 0;
+        }
+        active.force(firstOffset, active.writePosition - firstOffset);
+        appendLatency.record(System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public List<AuditEntry> findByEntity(String entityType, String entityId, int limit) {
+        long[] positions;
+        synchronized (this) {
+            PositionList list = entityIndex.get(entityKey(entityType, entityId));
+            positions = list != null ? list.tail(limit) : new long[0];
+        }
+        return read(positions);
+    }
+
+    @Override
+    public List<AuditEntry> findByUser(Integer userId, int limit) {
+        long[] positions;
+        synchronized (this) {
+            PositionList list = userIndex.get(userId);
+            positions = list != null ? list.tail(limit) : new long[0];
+        }
+        return read(positions);
+    }
+
+    /**
+     * Deletes sealed segments whose newest record is past the retention window,
+     * oldest first, then drops index positions that pointed into them.
+     */
+    @Scheduled(cron = "${app.audit.journal.retention-cron:0 30 3 * * *}")
+    public synchronized void applyRetention() {
+        long cutoff = System.currentTimeMillis() - retentionDays * 86_400_000L;
+        int deleted = 0;
+
+        Iterator<Segment> iterator = segments.values().iterator();
+        while (iterator.hasNext()) {
+            Segment segment = iterator.next();
+            if (segment == active || segment.maxTimestamp >= cutoff) {
+                break;
+            }
+            segment.close();
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                logger.warn("Could not delete audit segment {}: {}", segment.path, e.getMessage());
+            }
+            records -= segment.recordCount;
+            iterator.remove();
+            deleted++;
+        }
+
+        if (deleted > 0) {
+            long firstLive = position(segments.firstKey(), 0);
+            compactIndex(entityIndex, firstLive);
+            compactIndex(userIndex, firstLive);
+            segmentsDeleted += deleted;
+            logger.info("Audit journal retention removed {} segments.", deleted);
+        }
+    }
+
+    @Override
+    public synchronized Map<String, Object> getStats() {
+        long bytes = 0;
+        for (Segment segment : segments.values()) {
+            bytes += segment.writePosition;
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("type", "journal");
+        stats.put("directory", directory);
+        stats.put("segments", segments.size());
+        stats.put("activeSegment", active.id);
+        stats.put("activeSegmentUsedBytes", active.writePosition);
+        stats.put("journalBytes", bytes);
+        stats.put("records", records);
+        stats.put("indexedEntities", entityIndex.size());
+        stats.put("indexedUsers", userIndex.size());
+        stats.put("rollovers", rollovers);
+        stats.put("segmentsDeleted", segmentsDeleted);
+        stats.put("oversizedDropped", oversizedDropped);
+        stats.put("appendLatency", appendLatency.snapshot());
+        return stats;
+    }
+
+    // ================= SEGMENTS =================
+    private void roll() {
+        active.force(0, active.writePosition);
+        active = createSegment(active.id + 1);
+        rollovers++;
+    }
+
+    private Segment createSegment(int id) {
+        Path file = Paths.get(directory, String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        try {
+            Segment segment = Segment.open(file, id, segmentBytes());
+            segments.put(id, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create audit segment " + file, e);
+        }
+    }
+
+    private void recover(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + RECORD_HEADER_BYTES <= segment.capacity) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_BYTES + length > segment.capacity) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + RECORD_HEADER_BYTES, payload);
+            if (crc(payload) != buffer.getInt(position + 4)) {
+                logger.warn("Truncating audit segment {} at offset {} (checksum mismatch)", segment.path, position);
+                break;
+            }
+            AuditEntry entry = decode(payload);
+            index(entry, position(segment.id, position));
+            segment.maxTimestamp = Math.max(segment.maxTimestamp, epochMillis(entry.createdAt()));
+            segment.recordCount++;
+            records++;
+            position += RECORD_HEADER_BYTES + length;
+        }
+        segment.writePosition = position;
+        // Zero out anything after the last valid record so the end marker is intact
+        if (position + RECORD_HEADER_BYTES <= segment.capacity) {
+            buffer.putInt(position, 0);
+        }
+    }
+
+    private List<AuditEntry> read(long[] positions) {
+        List<AuditEntry> entries = new ArrayList<>(positions.length);
+        for (long position : positions) {
+            Segment segment;
+            synchronized (this) {
+                segment = segments.get((int) (position >>> 32));
+            }
+            if (segment == null) {
+                continue;
+            }
+            int offset = (int) position;
+            ByteBuffer buffer = segment.buffer.duplicate();
+            byte[] payload = new byte[buffer.getInt(offset)];
+            buffer.get(offset + RECORD_HEADER_BYTES, payload);
+            entries.add(decode(payload));
+        }
+        return entries;
+    }
+
+    // ================= INDEX =================
+    private void index(AuditEntry entry, long position) {
+        if (entry.entityType() != null && entry.entityId() != null) {
+            entityIndex.computeIfAbsent(entityKey(entry.entityType(), entry.entityId()), k -> new PositionList())
+                    .add(position);
+        }
+        if (entry.userId() != null) {
+            userIndex.computeIfAbsent(entry.userId(), k -> new PositionList()).add(position);
+        }
+    }
+
+    private static <K> void compactIndex(Map<K, PositionList> index, long firstLivePosition) {
+        index.values().removeIf(list -> list.dropBefore(firstLivePosition) == 0);
+    }
+
+    private static String entityKey(String entityType, String entityId) {
+        return entityType + '\u0000' + entityId;
+    }
+
+    private static long position(int segmentId, int offset) {
+        return ((long) segmentId << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    // ================= ENCODING =================
+    private static byte[] encode(AuditEntry entry) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(epochMillis(entry.createdAt()));
+            out.writeInt(entry.userId() != null ? entry.userId() : NULL_USER);
+            writeString(out, entry.action());
+            writeString(out, entry.entityType());
+            writeString(out, entry.entityId());
+            writeString(out, entry.metadata());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static AuditEntry decode(byte[] payload) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        LocalDateTime createdAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(in.getLong()), ZoneOffset.UTC);
+        int userId = in.getInt();
+        return new AuditEntry(
+                userId == NULL_USER ? null : userId,
+                readString(in),
+                readString(in),
+                readString(in),
+                readString(in),
+                createdAt);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return (time != null ? time : LocalDateTime.now()).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private int segmentBytes() {
+        return segmentSizeMb * 1024 * 1024;
+    }
+
+    private static int parseSegmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static final class Segment {
+        private final int id;
+        private final Path path;
+        private final int capacity;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+        private long maxTimestamp;
+        private int recordCount;
+
+        private Segment(int id, Path path, int capacity, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.capacity = capacity;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private static Segment open(Path path, int id, int capacity) throws IOException {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new Segment(id, path, capacity, channel, buffer);
+        }
+
+        private int remaining() {
+            return capacity - writePosition;
+        }
+
+        /**
+         * @return the offset the record was written at
+         */
+        private int write(byte[] payload, long timestamp) {
+            int offset = writePosition;
+            // Payload and checksum first, length last: a torn write leaves a zero length
+            buffer.put(offset + RECORD_HEADER_BYTES, payload);
+            buffer.putInt(offset + 4, crc(payload));
+            buffer.putInt(offset + RECORD_HEADER_BYTES + payload.length, 0);
+            buffer.putInt(offset, payload.length);
+            writePosition = offset + RECORD_HEADER_BYTES + payload.length;
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            recordCount++;
+            return offset;
+        }
+
+        private void force(int from, int length) {
+            if (length > 0) {
+                buffer.force(from, length);
+            }
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close audit segment {}", path, e);
+            }
+        }
+    }
+
+    /**
+     * Growable array of packed positions, ascending in write order.
+     */
+    private static final class PositionList {
+        private long[] positions = new long[4];
+        private int size;
+
+        private void add(long position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        private long[] tail(int limit) {
+            int from = Math.max(0, size - limit);
+            return Arrays.copyOfRange(positions, from, size);
+        }
+
+        /**
+         * Removes positions below {@code firstLive}.
+         *
+         * @return the remaining size
+         */
+        private int dropBefore(long firstLive) {
+            int index = Arrays.binarySearch(positions, 0, size, firstLive);
+            int drop = index >= 0 ? index : -index - 1;
+            if (drop > 0) {
+                System.arraycopy(positions, drop, positions, 0, size - drop);
+                size -= drop;
+            }
+            return size;
+        }
+    }
+}
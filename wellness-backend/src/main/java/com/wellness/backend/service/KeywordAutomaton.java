@@ -0,0 +1,190 @@
+package com.wellness.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Aho–Corasick matcher for the symptom keyword tables of the fallback triage
+ * rules. Built once; {@link #matchAll} finds every keyword in one pass over
+ * the text, whatever the number of keywords.
+ *
+ * Keywords are lower case and match whole words only: "ear" does not match
+ * "heart" or "year". A trailing {@code *} makes a keyword a word prefix, so
+ * "breath*" matches "breath", "breathing" and "breathless".
+ *
+ * Each keyword carries a priority (lower wins) and a value; matches are
+ * returned best first, earlier in the text first on ties.
+ *
+ * @param <T> the value attached to each keyword
+ */
+public final class KeywordAutomaton<T> {
+
+    public record Match<T>(String keyword, int priority, int position, T value) {
+    }
+
+    private record Keyword<T>(String text, boolean prefix, int priority, T value) {
+    }
+
+    private final List<Keyword<T>> keywords;
+    // Keyword characters mapped to columns of the transition table; other characters reset the scan
+    private final Map<Character, Integer> alphabet;
+    private final int[] asciiColumns = new int[128];
+    private final int[][] transitions;
+    private final int[][] outputs;
+
+    private KeywordAutomaton(List<Keyword<T>> keywords) {
+        this.keywords = List.copyOf(keywords);
+        this.alphabet = new HashMap<>();
+        for (Keyword<T> keyword : keywords) {
+            for (char c : keyword.text().toCharArray()) {
+                alphabet.putIfAbsent(c, alphabet.size());
+            }
+        }
+        Arrays.fill(asciiColumns, -1);
+        alphabet.forEach((c, column) -> {
+            if (c < asciiColumns.length) {
+                asciiColumns[c] = column;
+            }
+        });
+
+        // Trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(newRow());
+        ends.add(new ArrayList<>());
+        for (int k = 0; k < keywords.size(); k++) {
+            int state = 0;
+            for (char c : keywords.get(k).text().toCharArray()) {
+                int column = alphabet.get(c);
+                if (trie.get(state)[column] < 0) {
+                    trie.get(state)[column] = trie.size();
+                    trie.add(newRow());
+                    ends.add(new ArrayList<>());
+                }
+                state = trie.get(state)[column];
+            }
+            ends.get(state).add(k);
+        }
+
+        // Failure links, breadth first, folded into a complete transition table
+        int[] fail = new int[trie.size()];
+        Deque<Integer> queue = new ArrayDeque<>();
+        int[] root = trie.get(0);
+        for (int column = 0; column < root.length; column++) {
+            if (root[column] < 0) {
+                root[column] = 0;
+            } else {
+                queue.add(root[column]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            ends.get(state).addAll(ends.get(fail[state]));
+            int[] row = trie.get(state);
+            for (int column = 0; column < row.length; column++) {
+                int fallback = trie.get(fail[state])[column];
+                if (row[column] < 0) {
+                    row[column] = fallback;
+                } else {
+                    fail[row[column]] = fallback;
+                    queue.add(row[column]);
+                }
+            }
+        }
+
+        this.transitions = trie.toArray(new int[0][]);
+        this.outputs = new int[ends.size()][];
+        for (int state = 0; state < ends.size(); state++) {
+            outputs[state] = ends.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Every keyword occurrence in the text, best priority first.
+     */
+    public List<Match<T>> matchAll(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<Match<T>> matches = new ArrayList<>();
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int column = column(Character.toLowerCase(text.charAt(i)));
+            state = column >= 0 ? transitions[state][column] : 0;
+            for (int k : outputs[state]) {
+                Keyword<T> keyword = keywords.get(k);
+                int start = i - keyword.text().length() + 1;
+                boolean startsWord = start == 0 || !isWordChar(text.charAt(start - 1));
+                boolean endsWord = keyword.prefix() || i + 1 == text.length() || !isWordChar(text.charAt(i + 1));
+                if (startsWord && endsWord) {
+                    matches.add(new Match<>(keyword.text(), keyword.priority(), start, keyword.value()));
+                }
+            }
+        }
+        matches.sort(Comparator.comparingInt((Match<T> m) -> m.priority()).thenComparingInt(Match::position));
+        return matches;
+    }
+
+    /**
+     * The best match in the text, or null.
+     */
+    public Match<T> best(String text) {
+        List<Match<T>> matches = matchAll(text);
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    private int column(char c) {
+        if (c < asciiColumns.length) {
+            return asciiColumns[c];
+        }
+        Integer column = alphabet.get(c);
+        return column != null ? column : -1;
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabet.size()];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    public static final class Builder<T> {
+        private final List<Keyword<T>> keywords = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds keywords sharing a priority and value.
+         */
+        public Builder<T> add(int priority, T value, String... words) {
+            for (String word : words) {
+                boolean prefix = word.endsWith("*");
+                String text = (prefix ? word.substring(0, word.length() - 1) : word).toLowerCase(Locale.ROOT);
+                if (text.isEmpty()) {
+                    throw new IllegalArgumentException("Empty keyword");
+                }
+                keywords.add(new Keyword<>(text, prefix, priority, value));
+            }
+            return this;
+        }
+
+        public KeywordAutomaton<T> build() {
+            return new KeywordAutomaton<>(keywords);
+        }
+    }
+}
@@ -3,43 +3,41 @@ package com.wellness.backend.service;
 import com.wellness.backend.dto.TriageResult;
 import com.wellness.backend.dto.TriageDTO;
 import org.springframework.stereotype.Service;
-import java.util.Map;
 import java.util.List;
 
 @Service
 public class LocalFallbackService {
-    // A simple map for keyword-based triage when AI is offline
-    private static final List<String> EMERGENCY_KEYWORDS = List.of("breath", "chest pain", "unconscious", "bleeding");
+    // Keyword-based triage when AI is offline. Emergency keywords set the urgency;
+    // the best-ranked specialty keyword picks the specialist
+    private record Hint(String specialty, boolean emergency) {
+    }
 
-    private static final Map<String, String> KEYWORD_MAP = Map.ofEntries(
-        Map.entry("chest", "Cardiology"),
-        Map.entry("heart", "Cardiology"),
-        Map.entry("stomach", "Gastroenterology"),
-        Map.entry("digestion", "Gastroenterology"),
-        Map.entry("headache", "Neurology"),
-        Map.entry("seizure", "Neurology"),
-        Map.entry("skin", "Dermatology"),
-        Map.entry("bone", "Orthopedics"),
-        Map.entry("joint", "Orthopedics"),
-        Map.entry("ear", "ENT"),
-        Map.entry("ringing", "ENT")
-    );
+    private static final KeywordAutomaton<Hint> KEYWORDS = KeywordAutomaton.<Hint>builder()
+        .add(0, new Hint(null, true), "breath*", "chest pain", "unconscious", "bleeding")
+        .add(1, new Hint("Cardiology", false), "chest", "heart")
+        .add(2, new Hint("Gastroenterology", false), "stomach*", "digestion")
+        .add(3, new Hint("Neurology", false), "headache*", "seizure*")
+        .add(4, new Hint("Dermatology", false), "skin")
+        .add(5, new Hint("Orthopedics", false), "bone*", "joint*")
+        .add(6, new Hint("ENT", false), "ear", "ears", "earache", "ringing")
+        .build();
 
     public TriageResult getLocalTriage(String symptoms) {
         if (symptoms == null) {
             return new TriageResult("LOW", "Symptoms not provided.", false, "LOCAL_FALLBACK", "Primary Care", null);
         }
         
-        String input = symptoms.toLowerCase();
-        boolean isEmergency = EMERGENCY_KEYWORDS.stream().anyMatch(input::contains);
-        String specialty = "Primary Care"; // Default
-
-        for (Map.Entry<String, String> entry : KEYWORD_MAP.entrySet()) {
-            if (input.contains(entry.getKey())) {
-                specialty = entry.getValue();
-                break;
+        boolean isEmergency = false;
+        String specialty = null;
+        for (KeywordAutomaton.Match<Hint> match : KEYWORDS.matchAll(symptoms)) {
+            isEmergency |= match.value().emergency();
+            if (specialty == null) {
+                specialty = match.value().specialty();
             }
         }
+        if (specialty == null) {
+            specialty = "Primary Care"; // Default
+        }
 
         String urgency = isEmergency ? "EMERGENCY" : "MEDIUM";
         String message = isEmergency 
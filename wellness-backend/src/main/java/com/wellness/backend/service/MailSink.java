@@ -0,0 +1,21 @@
+package com.wellness.backend.service;
+
+import com.wellness.backend.model.OutboundEmail;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers a batch of queued emails. Selected with app.mail.sink
+ * (smtp or capture).
+ */
+public interface MailSink {
+
+    /**
+     * @return the emails that could not be delivered, with the cause; empty when
+     *         the whole batch was accepted
+     */
+    Map<OutboundEmail, Exception> sendBatch(List<OutboundEmail> batch);
+
+    Map<String, Object> getStats();
+}
@@ -1,58 +1,115 @@
 package com.wellness.backend.service;
 
+import com.wellness.backend.ai.InlineImage;
+import com.wellness.backend.catalog.IngredientMatcher;
 import com.wellness.backend.dto.MedicalAnalysisDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class MedicalIntelligenceService {
 
+    private static final Logger logger = LoggerFactory.getLogger(MedicalIntelligenceService.class);
+
     @Autowired
     private GeminiService geminiService;
 
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private PrescriptionImageService prescriptionImageService;
+
     private static final String DEFAULT_DISCLAIMER = "Always consult a registered medical practitioner for professional medical advice, diagnosis, or treatment.";
 
-    public Map<String, Object> analyzeAndMatch(String text, String base64Image, String mimeType) {
-        Map<String, Object> result = new HashMap<>();
+    /**
+     * Extracts medicines and matches them to the catalog. Completes on the AI
+     * client's pool; the calling thread is not held while Gemini answers.
+     */
+    public CompletableFuture<Map<String, Object>> analyzeAndMatch(String text, String base64Image, String mimeType) {
+        InlineImage image = (base64Image != null && mimeType != null)
+                ? prescriptionImageService.fromBase64(base64Image, mimeType)
+                : null;
+        return analyze(text, image);
+    }
 
+    public CompletableFuture<Map<String, Object>> analyzeAndMatch(String text, MultipartFile file) {
+        InlineImage image = (file != null && !file.isEmpty()) ? prescriptionImageService.fromUpload(file) : null;
+        return analyze(text, image);
+    }
+
+    private CompletableFuture<Map<String, Object>> analyze(String text, InlineImage image) {
+        CompletableFuture<MedicalAnalysisDTO> analysis;
         try {
-            // Phase 1: AI Extraction
-            MedicalAnalysisDTO analysis = geminiService.analyzeMedicalInput(text, base64Image, mimeType);
-
-            // Handle Safety Blocks or Empty Responses gracefully
-            if (analysis == null) {
-                return createFallbackResponse("We couldn't analyze the input due to safety filters or technical issues.");
-            }
-
-            result.put("analysis", analysis);
-            result.put("status", "SUCCESS");
-
-            // Build the Alert Message
-            String advice = (analysis.getAdvice() != null && !analysis.getAdvice().isBlank()) 
-                            ? analysis.getAdvice() 
-                            : DEFAULT_DISCLAIMER;
-            
-            result.put("alert", "RED_ALERT: " + advice);
-            
-            // Optional: Ensure the legal disclaimer is ALWAYS appended
-            if (!advice.toLowerCase().contains("consult")) {
-                result.put("alert", result.get("alert") + " " + DEFAULT_DISCLAIMER);
-            }
+            analysis = geminiService.analyzeMedicalInput(text, image);
+        } catch (RuntimeException e) {
+            prescriptionImageService.release(image);
+            throw e;
+        }
+        // Retries re-read the image, so keep it until the analysis is done
+        analysis.whenComplete((result, error) -> prescriptionImageService.release(image));
+        return analysis
+                .thenApply(this::buildResponse)
+                .exceptionally(e -> {
+                    logger.error("Medical analysis failed: {}", e.getMessage());
+                    return createFallbackResponse("AI analysis service is currently experiencing high traffic.");
+                });
+    }
 
-        } catch (Exception e) {
-            // Log the actual exception for debugging
-            return createFallbackResponse("AI analysis service is currently experiencing high traffic.");
+    private Map<String, Object> buildResponse(MedicalAnalysisDTO analysis) {
+        // Handle Safety Blocks or Empty Responses gracefully
+        if (analysis == null) {
+            return createFallbackResponse("We couldn't analyze the input due to safety filters or technical issues.");
         }
 
+        Map<String, Object> result = new HashMap<>();
+        result.put("analysis", analysis);
+        result.put("matches", matchProducts(analysis));
+        result.put("status", "SUCCESS");
+
+        // Build the Alert Message
+        String advice = (analysis.getAdvice() != null && !analysis.getAdvice().isBlank()) 
+                        ? analysis.getAdvice() 
+                        : DEFAULT_DISCLAIMER;
+        
+        result.put("alert", "RED_ALERT: " + advice);
+        
+        // Optional: Ensure the legal disclaimer is ALWAYS appended
+        if (!advice.toLowerCase().contains("consult")) {
+            result.put("alert", result.get("alert") + " " + DEFAULT_DISCLAIMER);
+        }
         return result;
     }
 
+    /**
+     * Catalog products per extracted medicine, in extraction order. Matching
+     * is best effort and never fails the analysis.
+     */
+    private List<IngredientMatcher.MedicineMatch> matchProducts(MedicalAnalysisDTO analysis) {
+        if (analysis.getExtractedMedicines() == null || analysis.getExtractedMedicines().isEmpty()) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>(analysis.getExtractedMedicines().size());
+        for (MedicalAnalysisDTO.ExtractedMedicine medicine : analysis.getExtractedMedicines()) {
+            names.add(medicine != null ? medicine.getName() : null);
+        }
+        try {
+            return productService.matchMedicines(names);
+        } catch (Exception e) {
+            logger.warn("Product matching failed: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
     private Map<String, Object> createFallbackResponse(String message) {
         Map<String, Object> fallback = new HashMap<>();
         fallback.put("status", "PARTIAL_SUCCESS"); // Use PARTIAL so frontend still shows the disclaimer
@@ -1,45 +1,222 @@
 package com.wellness.backend.service;
 
-import com.wellness.backend.repository.NotificationRepository;
+import com.wellness.backend.repository.NotificationArchiveRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class NotificationCleanupService {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationCleanupService.class);
 
-    private final NotificationRepository notificationRepository;
+    private final NotificationArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.notification.retention.days:30}")
+    private int retentionDays;
+
+    @Value("${app.notification.retention.archive-enabled:true}")
+    private boolean archiveEnabled;
+
+    @Value("${app.notification.retention.archive-months:12}")
+    private int archiveMonths;
+
+    @Value("${app.notification.retention.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.notification.retention.max-chunks-per-run:500}")
+    private int maxChunksPerRun;
+
+    @Value("${app.notification.retention.pause-ms:200}")
+    private long pauseMs;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile boolean archiveReady = false;
+
+    // ================= METRICS =================
+    private final AtomicLong totalArchived = new AtomicLong();
+    private final AtomicLong totalDeleted = new AtomicLong();
+    private final AtomicLong totalPartitionsDropped = new AtomicLong();
+    private final AtomicLong currentRunRows = new AtomicLong();
+    private final AtomicLong currentRunChunks = new AtomicLong();
+    private volatile LocalDateTime lastRunStartedAt;
+    private volatile long lastRunDurationMs;
+    private volatile long lastRunRows;
+    private volatile String lastRunOutcome = "NEVER_RUN";
 
     @Autowired
-    public NotificationCleanupService(NotificationRepository notificationRepository) {
-        this.notificationRepository = notificationRepository;
+    public NotificationCleanupService(NotificationArchiveRepository archiveRepository,
+            TransactionTemplate transactionTemplate) {
+        this.archiveRepository = archiveRepository;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
      * Scheduled job to run once per day at 2:00 AM (server time).
-     * Deletes notifications where:
+     * Moves notifications where:
      * - is_read = true
-     * - created_at < NOW() - 30 days
+     * - created_at < NOW() - retention days
+     * into the month-partitioned archive, then drops archive partitions older
+     * than the archive retention.
      *
-     * Unread notifications are never deleted automatically.
+     * Rows are moved in bounded chunks, each in its own short transaction with a
+     * pause in between, so live notification inserts are never blocked for long.
+     * Unread notifications are never touched.
      */
     @Scheduled(cron = "0 0 2 * * ?")
-    @Transactional
     public void cleanupOldNotifications() {
-        logger.info("Starting scheduled cleanup of read notifications older than 30 days.");
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Notification retention run already in progress, skipping.");
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        lastRunStartedAt = LocalDateTime.now();
+        currentRunRows.set(0);
+        currentRunChunks.set(0);
+        String outcome = "COMPLETED";
+
         try {
-            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(30);
-            int deletedCount = notificationRepository.deleteByIsReadTrueAndCreatedAtBefore(cutoffDate);
-            logger.info("Successfully deleted {} old read notifications.", deletedCount);
+            boolean archive = archiveEnabled && prepareArchive();
+            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
+            logger.info("Starting notification retention for read notifications before {} (archive={}).",
+                    cutoffDate, archive);
+
+            if (purgeInChunks(cutoffDate, archive)) {
+                outcome = "PARTIAL";
+                logger.warn("Notification retention stopped after {} chunks; remaining rows continue next run.",
+                        maxChunksPerRun);
+            }
+            if (archive) {
+                dropExpiredPartitions();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "INTERRUPTED";
         } catch (Exception e) {
+            outcome = "FAILED";
             logger.error("Failed to cleanup old notifications: ", e);
+        } finally {
+            lastRunDurationMs = (System.nanoTime() - startNanos) / 1_000_000;
+            lastRunRows = currentRunRows.get();
+            lastRunOutcome = outcome;
+            running.set(false);
+            logger.info("Notification retention {}: {} rows in {} chunks, {} ms.",
+                    outcome, lastRunRows, currentRunChunks.get(), lastRunDurationMs);
         }
     }
+
+    /**
+     * Runs the retention job off the caller's thread (admin trigger).
+     */
+    @Async("taskExecutor")
+    public void triggerCleanup() {
+        cleanupOldNotifications();
+    }
+
+    /**
+     * @return true when the run hit the chunk cap before draining all rows.
+     */
+    private boolean purgeInChunks(LocalDateTime cutoffDate, boolean archive) throws InterruptedException {
+        long lastId = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<Long> ids = archiveRepository.findReadNotificationIdsBefore(cutoffDate, lastId, chunkSize);
+            if (ids.isEmpty()) {
+                return false;
+            }
+
+            Integer deleted = transactionTemplate.execute(status -> {
+                if (archive) {
+                    totalArchived.addAndGet(archiveRepository.copyToArchive(ids));
+                }
+                return archiveRepository.deleteLiveNotifications(ids);
+            });
+
+            int count = deleted != null ? deleted : 0;
+            totalDeleted.addAndGet(count);
+            currentRunRows.addAndGet(count);
+            currentRunChunks.incrementAndGet();
+            lastId = ids.get(ids.size() - 1);
+
+            if (ids.size() < chunkSize) {
+                return false;
+            }
+            if (pauseMs > 0) {
+                Thread.sleep(pauseMs);
+            }
+        }
+        return true;
+    }
+
+    private boolean prepareArchive() {
+        try {
+            if (!archiveReady) {
+                archiveRepository.createTableIfMissing();
+                archiveReady = true;
+            }
+            YearMonth current = YearMonth.now();
+            ensurePartitions(current.minusMonths(archiveMonths), current);
+            return true;
+        } catch (Exception e) {
+            logger.warn("Notification archive unavailable, purging without archiving: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void ensurePartitions(YearMonth from, YearMonth to) {
+        List<Integer> bounds = archiveRepository.findPartitionBounds();
+        int highest = bounds.isEmpty() ? 0 : bounds.get(bounds.size() - 1);
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            int upperBound = NotificationArchiveRepository.toArchiveMonth(month.plusMonths(1));
+            if (upperBound > highest) {
+                archiveRepository.addMonthPartition(month);
+                highest = upperBound;
+            }
+        }
+    }
+
+    private void dropExpiredPartitions() {
+        int expiry = NotificationArchiveRepository.toArchiveMonth(YearMonth.now().minusMonths(archiveMonths));
+        for (Integer bound : archiveRepository.findPartitionBounds()) {
+            if (bound <= expiry) {
+                archiveRepository.dropPartitionWithBound(bound);
+                totalPartitionsDropped.incrementAndGet();
+                logger.info("Dropped notification archive partition below {}.", bound);
+            }
+        }
+    }
+
+    public Map<String, Object> getRetentionStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("archiveEnabled", archiveEnabled);
+        status.put("archiveReady", archiveReady);
+        status.put("retentionDays", retentionDays);
+        status.put("archiveMonths", archiveMonths);
+        status.put("chunkSize", chunkSize);
+        status.put("currentRunRows", currentRunRows.get());
+        status.put("currentRunChunks", currentRunChunks.get());
+        status.put("lastRunStartedAt", lastRunStartedAt != null ? lastRunStartedAt.toString() : null);
+        status.put("lastRunDurationMs", lastRunDurationMs);
+        status.put("lastRunRows", lastRunRows);
+        status.put("lastRunOutcome", lastRunOutcome);
+        status.put("totalArchived", totalArchived.get());
+        status.put("totalDeleted", totalDeleted.get());
+        status.put("totalPartitionsDropped", totalPartitionsDropped.get());
+        return status;
+    }
 }
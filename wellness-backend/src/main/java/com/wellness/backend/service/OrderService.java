@@ -5,6 +5,11 @@ import com.wellness.backend.dto.OrderItemDTO;
 import com.wellness.backend.dto.OrderSummaryDTO;
 import com.wellness.backend.dto.CreateOrderDTO;
 import com.wellness.backend.enums.PaymentStatus;
+import com.wellness.backend.event.DomainEventPublisher;
+import com.wellness.backend.event.OrderPaidEvent;
+import com.wellness.backend.event.OrderStatusChangedEvent;
+import com.wellness.backend.event.ProductChangedEvent;
+import com.wellness.backend.event.RefundProcessedEvent;
 import com.wellness.backend.model.CartItem;
 import com.wellness.backend.model.Order;
 import com.wellness.backend.model.OrderItem;
@@ -25,7 +30,10 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -61,7 +69,7 @@ public class OrderService {
     private AuditLogService auditLogService;
 
     @Autowired
-    private SessionNotificationService notificationService;
+    private DomainEventPublisher eventPublisher;
 
     @Autowired
     private CartItemRepository cartItemRepository;
@@ -72,6 +80,9 @@ public class OrderService {
     @Autowired
     private com.wellness.backend.repository.SellerEarningRepository sellerEarningRepository;
 
+    @Autowired
+    private SellerPayoutService sellerPayoutService;
+
     // ================= CREATE ORDER =================
     @Transactional
     public OrderDTO createOrder(CreateOrderDTO dto, String userEmail) {
@@ -110,6 +121,7 @@ public class OrderService {
             // Decrement Stock
             product.setStock(product.getStock() - itemDTO.getQuantity());
             productRepository.save(product);
+            eventPublisher.publish(new ProductChangedEvent(product.getId()));
 
             OrderItem orderItem = new OrderItem();
             orderItem.setProduct(product);
@@ -138,11 +150,11 @@ public class OrderService {
 
         Order saved = orderRepository.save(order);
         
-        notificationService.notifyOrderStatusChanged(
-                saved.getUser().getId(), 
-                saved.getId().toString(), 
-                "PLACED"
-        );
+        eventPublisher.publish(new OrderStatusChangedEvent(
+                saved.getId(),
+                saved.getUser().getId(),
+                "PLACED",
+                null));
         
         return mapToDTO(saved);
     }
@@ -179,18 +191,11 @@ public class OrderService {
         order.setStatus(Order.OrderStatus.valueOf(status.toUpperCase()));
         Order saved = orderRepository.save(order);
 
-        auditLogService.logAction(
-                order.getUser().getId(),
-                "ORDER_STATUS_UPDATE",
-                "Order",
-                order.getId().toString(),
-                "Status: " + status);
-
-        notificationService.notifyOrderStatusChanged(
-                saved.getUser().getId(), 
-                saved.getId().toString(), 
-                saved.getStatus().name()
-        );
+        eventPublisher.publish(new OrderStatusChangedEvent(
+                saved.getId(),
+                saved.getUser().getId(),
+                saved.getStatus().name(),
+                null));
 
         return mapToDTO(saved);
     }
@@ -212,6 +217,7 @@ public class OrderService {
                         int currentStock = product.getStock() != null ? product.getStock() : 0;
                         product.setStock(currentStock + item.getQuantity());
                         productRepository.save(product);
+                        eventPublisher.publish(new ProductChangedEvent(product.getId()));
                     }
                 }
             }
@@ -247,21 +253,14 @@ public class OrderService {
             order.setPaymentStatus(PaymentStatus.REFUNDED);
             saved = orderRepository.save(order);
 
-            notificationService.notifyRefundProcessed(order.getUser().getId(), refundAmount);
+            eventPublisher.publish(new RefundProcessedEvent(null, order.getUser().getId(), refundAmount));
         }
 
-        auditLogService.logAction(
-                order.getUser().getId(),
-                "ORDER_CANCELLED",
-                "Order",
-                order.getId().toString(),
-                "Reason: " + reason);
-
-        notificationService.notifyOrderStatusChanged(
-                saved.getUser().getId(), 
-                saved.getId().toString(), 
-                "CANCELLED"
-        );
+        eventPublisher.publish(new OrderStatusChangedEvent(
+                saved.getId(),
+                saved.getUser().getId(),
+                "CANCELLED",
+                reason));
 
         return mapToDTO(saved);
     }
@@ -276,6 +275,8 @@ public class OrderService {
 
         // Record Seller Earnings (20% Platform Fee)
         if (saved.getOrderItems() != null) {
+            Map<Integer, BigDecimal> netBySeller = new LinkedHashMap<>();
+            Map<Integer, Integer> itemsBySeller = new HashMap<>();
             for (com.wellness.backend.model.OrderItem item : saved.getOrderItems()) {
                 if (item.getProduct() != null && item.getProduct().getSeller() != null) {
                     BigDecimal itemTotal = item.getPrice().multiply(new java.math.BigDecimal(item.getQuantity()));
@@ -290,16 +291,17 @@ public class OrderService {
                     earning.setNetAmount(netAmount);
                     earning.setPayoutStatus(com.wellness.backend.model.SellerEarning.PayoutStatus.PENDING);
                     sellerEarningRepository.save(earning);
+
+                    Integer sellerId = item.getProduct().getSeller().getId();
+                    netBySeller.merge(sellerId, netAmount, BigDecimal::add);
+                    itemsBySeller.merge(sellerId, 1, Integer::sum);
                 }
             }
+            netBySeller.forEach((sellerId, net) ->
+                    sellerPayoutService.creditEarnings(sellerId, net, itemsBySeller.get(sellerId)));
         }
 
-        auditLogService.logAction(
-                order.getUser().getId(),
-                "ORDER_PAYMENT_UPDATE",
-                "Order",
-                order.getId().toString(),
-                "Status: PAID");
+        eventPublisher.publish(new OrderPaidEvent(saved.getId(), saved.getUser().getId()));
 
         return mapToDTO(saved);
     }
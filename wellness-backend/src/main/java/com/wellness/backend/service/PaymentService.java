@@ -3,6 +3,9 @@ package com.wellness.backend.service;
 import com.wellness.backend.enums.PaymentStatus;
 import com.wellness.backend.enums.ReferenceType;
 import com.wellness.backend.enums.SessionStatus;
+import com.wellness.backend.event.DomainEventPublisher;
+import com.wellness.backend.event.PaymentSucceededEvent;
+import com.wellness.backend.event.SessionBookedEvent;
 import com.wellness.backend.model.PaymentTransaction;
 import com.wellness.backend.model.TherapySession;
 import com.wellness.backend.model.User;
@@ -38,10 +41,7 @@ public class PaymentService {
     private OrderRepository orderRepository;
 
     @Autowired
-    private AuditLogService auditLogService;
-
-    @Autowired
-    private SessionNotificationService notificationService;
+    private DomainEventPublisher eventPublisher;
 
     @Autowired
     private OrderService orderService;
@@ -111,11 +111,12 @@ public class PaymentService {
                 session.setPaymentStatus(PaymentStatus.PAID);
                 therapySessionRepository.save(session);
 
-                notificationService.notifySessionBooked(
+                eventPublisher.publish(new SessionBookedEvent(
+                        session.getId(),
                         session.getUser().getId(),
                         session.getPractitioner().getUser().getId(),
                         session.getPractitioner().getUser().getName(),
-                        java.time.LocalDateTime.of(session.getSessionDate(), session.getStartTime()));
+                        java.time.LocalDateTime.of(session.getSessionDate(), session.getStartTime())));
 
                 // Record in wallet ledger for traceability
                 walletService.addTransactionOnly(transaction.getUser(), transaction.getAmount(),
@@ -133,12 +134,12 @@ public class PaymentService {
                         order.getId().toString(), ReferenceType.ORDER);
             }
 
-            auditLogService.logAction(
+            eventPublisher.publish(new PaymentSucceededEvent(
+                    transaction.getId(),
                     transaction.getUser().getId(),
-                    "PAYMENT_SUCCESS",
-                    "PaymentTransaction",
-                    transaction.getId().toString(),
-                    "Amount: " + transaction.getAmount() + " " + transaction.getCurrency());
+                    transaction.getAmount(),
+                    transaction.getCurrency(),
+                    false));
 
             return true;
         } else {
@@ -202,21 +203,22 @@ public class PaymentService {
             session.setPaymentStatus(PaymentStatus.PAID);
             therapySessionRepository.save(session);
 
-            notificationService.notifySessionBooked(
+            eventPublisher.publish(new SessionBookedEvent(
+                    session.getId(),
                     session.getUser().getId(),
                     session.getPractitioner().getUser().getId(),
                     session.getPractitioner().getUser().getName(),
-                    java.time.LocalDateTime.of(session.getSessionDate(), session.getStartTime()));
+                    java.time.LocalDateTime.of(session.getSessionDate(), session.getStartTime())));
         } else if (order != null) {
             orderService.markOrderAsPaid(order.getId());
         }
 
-        auditLogService.logAction(
+        eventPublisher.publish(new PaymentSucceededEvent(
+                transaction.getId(),
                 user.getId(),
-                "PAYMENT_SUCCESS_WALLET",
-                "PaymentTransaction",
-                transaction.getId().toString(),
-                "Amount: " + amount + " INR");
+                amount,
+                "INR",
+                true));
 
         return true;
     }
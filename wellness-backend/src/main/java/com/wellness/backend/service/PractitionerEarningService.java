@@ -0,0 +1,171 @@
+package com.wellness.backend.service;
+
+import com.wellness.backend.model.DoctorEarning;
+import com.wellness.backend.model.PractitionerEarningSummary;
+import com.wellness.backend.model.PractitionerProfile;
+import com.wellness.backend.model.TherapySession;
+import com.wellness.backend.model.User;
+import com.wellness.backend.repository.DoctorEarningRepository;
+import com.wellness.backend.repository.PayoutBatchRepository;
+import com.wellness.backend.repository.PayoutBatchRepository.PayeeTotal;
+import com.wellness.backend.repository.PractitionerEarningSummaryRepository;
+import com.wellness.backend.repository.PractitionerProfileRepository;
+import com.wellness.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Practitioner earnings: recording, the dashboard summary and on-demand withdrawal.
+ *
+ * Pending totals come from the practitioner_earning_summary running summary;
+ * only a withdrawal aggregates doctor_earning, over the practitioner's pending rows.
+ */
+@Service
+public class PractitionerEarningService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PractitionerEarningService.class);
+
+    private static final BigDecimal PLATFORM_COMMISSION_RATE = new BigDecimal("0.20");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PractitionerProfileRepository profileRepository;
+
+    @Autowired
+    private DoctorEarningRepository earningRepository;
+
+    @Autowired
+    private PractitionerEarningSummaryRepository summaryRepository;
+
+    @Autowired
+    private PayoutBatchRepository payoutBatchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.earnings.recent-pending-limit:20}")
+    private int recentPendingLimit;
+
+    /**
+     * Records the earning of a completed session (20% platform fee) and credits
+     * the practitioner's summary, both in the caller's transaction.
+     */
+    public DoctorEarning recordEarning(TherapySession session) {
+        BigDecimal fee = session.getFeeAmount();
+        if (fee == null) {
+            fee = session.getPractitioner().getConsultationFee() != null
+                    ? session.getPractitioner().getConsultationFee()
+                    : BigDecimal.ZERO;
+        }
+        BigDecimal platformCommission = fee.multiply(PLATFORM_COMMISSION_RATE);
+        BigDecimal netAmount = fee.subtract(platformCommission);
+
+        DoctorEarning earning = new DoctorEarning();
+        earning.setPractitioner(session.getPractitioner());
+        earning.setSession(session);
+        earning.setAmount(fee);
+        earning.setPlatformFee(platformCommission);
+        earning.setNetAmount(netAmount);
+        earning.setPayoutStatus(DoctorEarning.PayoutStatus.PENDING);
+        DoctorEarning saved = earningRepository.save(earning);
+
+        summaryRepository.credit(session.getPractitioner().getId(), netAmount, fee, 1, LocalDateTime.now());
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getPendingSummary(String userEmail) {
+        PractitionerProfile profile = resolvePractitioner(userEmail);
+        PractitionerEarningSummary summary = summaryRepository.findById(profile.getId())
+                .orElseGet(PractitionerEarningSummary::new);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totalPending", summary.getPendingAmount());
+        result.put("sessionCount", summary.getPendingCount());
+        result.put("totalCompletedSessions", summary.getLifetimeSessions());
+        result.put("lifetimeEarned", summary.getLifetimeEarned());
+        result.put("paidOut", summary.getPaidOut());
+        result.put("updatedAt", summary.getUpdatedAt());
+        result.put("earnings", summary.getPendingCount() == 0 ? List.of()
+                : earningRepository.findRecentPending(profile.getId(), PageRequest.of(0, recentPendingLimit)));
+        return result;
+    }
+
+    /**
+     * Moves all pending earnings of the practitioner into a payout for this month.
+     */
+    @Transactional
+    public Map<String, Object> withdraw(String userEmail) {
+        PractitionerProfile profile = resolvePractitioner(userEmail);
+        // Serializes concurrent withdrawals of the same practitioner
+        summaryRepository.findForUpdate(profile.getId());
+
+        List<PayeeTotal> totals = PayeeTotal.fromRows(earningRepository.sumPendingForPractitioner(profile.getId()));
+        if (totals.isEmpty()) {
+            throw new IllegalArgumentException("No pending earnings to withdraw");
+        }
+        PayeeTotal total = totals.get(0);
+        LocalDateTime now = LocalDateTime.now();
+
+        payoutBatchRepository.insertPractitionerPayouts(YearMonth.now().toString(), totals, now);
+        int marked = earningRepository.markAllPaidForPractitioner(profile.getId());
+        if (marked != total.earnings()) {
+            throw new IllegalStateException("Pending earnings changed during withdrawal, please retry");
+        }
+        payoutBatchRepository.debitPractitionerSummaries(totals, now);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("message", "Withdrawal requested successfully");
+        result.put("amountRequested", total.amount());
+        result.put("sessionCount", total.earnings());
+        return result;
+    }
+
+    // ================= SUMMARY MAINTENANCE =================
+    /**
+     * Backfills practitioner_earning_summary the first time the application starts with it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSummaries() {
+        try {
+            if (summaryRepository.count() == 0 && earningRepository.count() > 0) {
+                int practitioners = rebuildSummaries();
+                logger.info("Backfilled earning summaries for {} practitioners", practitioners);
+            }
+        } catch (Exception e) {
+            logger.warn("Practitioner earning summary backfill failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recomputes every practitioner summary from doctor_earning.
+     */
+    public int rebuildSummaries() {
+        Integer rows = transactionTemplate.execute(status -> summaryRepository.rebuildAll(LocalDateTime.now()));
+        return rows != null ? rows : 0;
+    }
+
+    private PractitionerProfile resolvePractitioner(String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return profileRepository.findByUser_Id(user.getId())
+                .orElseThrow(() -> new RuntimeException("Practitioner profile not found"));
+    }
+}
@@ -16,6 +16,7 @@ import com.wellness.backend.repository.TherapySessionRepository;
 import com.wellness.backend.dto.SessionHistoryDTO;
 import com.wellness.backend.model.TherapySession;
 import com.wellness.backend.enums.SessionStatus;
+import com.wellness.backend.storage.ContentStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,11 +26,8 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -43,6 +41,7 @@ public class PractitionerService {
     private final EmailService emailService;
     private final UserRepository userRepository;
     private final TherapySessionRepository sessionRepository;
+    private final ContentStore contentStore;
 
     @Autowired
     public PractitionerService(PractitionerProfileRepository practitionerRepository,
@@ -50,13 +49,15 @@ public class PractitionerService {
             UserService userService,
             EmailService emailService,
             UserRepository userRepository,
-            TherapySessionRepository sessionRepository) {
+            TherapySessionRepository sessionRepository,
+            ContentStore contentStore) {
         this.practitionerRepository = practitionerRepository;
         this.documentRepository = documentRepository;
         this.userService = userService;
         this.emailService = emailService;
         this.userRepository = userRepository;
         this.sessionRepository = sessionRepository;
+        this.contentStore = contentStore;
     }
 
     // ================= GET ALL PRACTITIONERS =================
@@ -288,31 +289,18 @@ public class PractitionerService {
 
         List<PractitionerDocumentDTO> uploadedDocs = new java.util.ArrayList<>();
 
-        // Create upload directory if it doesn't exist
-        String uploadDir = "uploads/practitioner_documents/" + practitionerId;
-        try {
-            Files.createDirectories(Paths.get(uploadDir));
-        } catch (IOException e) {
-            logger.error("Failed to create upload directory: {}", e.getMessage());
-            throw new RuntimeException("Failed to create upload directory");
-        }
-
         for (MultipartFile file : files) {
             if (!file.isEmpty() && "application/pdf".equals(file.getContentType())) {
                 try {
-                    // Generate unique filename
-                    String uniqueFileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-                    String filePath = uploadDir + "/" + uniqueFileName;
-
-                    // Save file
-                    Files.write(Paths.get(filePath), file.getBytes());
+                    // Streamed into content-addressed storage; identical PDFs share one file
+                    ContentStore.StoredFile stored = contentStore.store(file);
 
                     // Save document record in database
                     PractitionerDocument document = new PractitionerDocument(
                             practitioner,
                             file.getOriginalFilename(),
-                            filePath,
-                            file.getSize(),
+                            stored.path(),
+                            stored.size(),
                             file.getContentType());
 
                     PractitionerDocument savedDoc = documentRepository.save(document);
@@ -364,12 +352,8 @@ public class PractitionerService {
             throw new AccessDeniedException("You are not allowed to delete this document");
         }
 
-        try {
-            // Delete file from filesystem
-            Files.deleteIfExists(Paths.get(document.getFilePath()));
-        } catch (IOException e) {
-            logger.warn("Failed to delete file from filesystem: {}", e.getMessage());
-        }
+        // Drop this document's reference; the file goes once nothing else points at it
+        contentStore.release(document.getFilePath());
 
         // Delete from database
         documentRepository.delete(document);
@@ -0,0 +1,153 @@
+package com.wellness.backend.service;
+
+import com.wellness.backend.ai.InlineImage;
+import com.wellness.backend.storage.ImageScaler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prepares prescription images for analysis. Uploads are size-checked,
+ * decoded with subsampling and re-encoded as a JPEG no larger than
+ * app.medical.image.max-edge on either side, in a temp file that the AI
+ * request streams from. Inputs ImageIO cannot decode (PDF, HEIC, ...) are
+ * passed through unchanged.
+ */
+@Service
+public class PrescriptionImageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrescriptionImageService.class);
+
+    @Value("${app.medical.image.max-bytes:10485760}")
+    private long maxBytes;
+
+    // Prescriptions need legible handwriting; keep more pixels than product thumbnails
+    @Value("${app.medical.image.max-edge:1600}")
+    private int maxEdge;
+
+    @Value("${app.medical.image.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${app.images.max-source-pixels:40000000}")
+    private long maxSourcePixels;
+
+    // ================= METRICS =================
+    private final AtomicLong prepared = new AtomicLong();
+    private final AtomicLong downscaled = new AtomicLong();
+    private final AtomicLong passedThrough = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong bytesOut = new AtomicLong();
+
+    public InlineImage fromUpload(MultipartFile file) {
+        return prepare(file, file.getSize(), file.getContentType());
+    }
+
+    public InlineImage fromBase64(String base64, String mimeType) {
+        // Reject before decoding: 4 base64 characters carry 3 bytes
+        checkSize(base64.length() / 4L * 3);
+        byte[] bytes = Base64.getMimeDecoder().decode(base64);
+        return prepare(new ByteArrayResource(bytes), bytes.length, mimeType);
+    }
+
+    /**
+     * Deletes the temp file once the analysis is done with it.
+     */
+    public void release(InlineImage image) {
+        if (image == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(image.file());
+        } catch (IOException e) {
+            logger.warn("Could not delete {}: {}", image.file(), e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxBytes", maxBytes);
+        stats.put("maxEdge", maxEdge);
+        stats.put("prepared", prepared.get());
+        stats.put("downscaled", downscaled.get());
+        stats.put("passedThrough", passedThrough.get());
+        stats.put("rejected", rejected.get());
+        stats.put("bytesIn", bytesIn.get());
+        stats.put("bytesOut", bytesOut.get());
+        return stats;
+    }
+
+    // ================= INTERNALS =================
+    private InlineImage prepare(InputStreamSource source, long size, String mimeType) {
+        checkSize(size);
+        if (mimeType == null || !(mimeType.startsWith("image/") || mimeType.equals("application/pdf"))) {
+            rejected.incrementAndGet();
+            throw new IllegalArgumentException("Unsupported prescription file type: " + mimeType);
+        }
+
+        Path temp = null;
+        try {
+            temp = Files.createTempFile("prescription-", ".upload");
+            InlineImage image = downscale(source, temp);
+            if (image == null || image.size() >= size) {
+                // Not decodable, or already smaller than a re-encode
+                try (InputStream in = source.getInputStream()) {
+                    Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                image = new InlineImage(temp, mimeType, size);
+                passedThrough.incrementAndGet();
+            } else {
+                downscaled.incrementAndGet();
+            }
+            prepared.incrementAndGet();
+            bytesIn.addAndGet(size);
+            bytesOut.addAndGet(image.size());
+            return image;
+        } catch (IOException e) {
+            if (temp != null) {
+                release(new InlineImage(temp, mimeType, 0));
+            }
+            throw new UncheckedIOException("Could not read prescription image", e);
+        }
+    }
+
+    private InlineImage downscale(InputStreamSource source, Path target) throws IOException {
+        BufferedImage image;
+        try (InputStream in = source.getInputStream()) {
+            // Subsample by the whole factor: at this size the text stays legible, and a
+            // 12 MP photo decodes to about 2000x1500 instead of in full
+            image = ImageScaler.read(in, maxEdge, maxEdge, maxSourcePixels, 1);
+        } catch (IOException e) {
+            logger.debug("Passing prescription image through: {}", e.getMessage());
+            return null;
+        }
+        if (image == null) {
+            return null;
+        }
+        ImageScaler.writeJpeg(ImageScaler.fit(image, maxEdge, maxEdge), target, jpegQuality);
+        return new InlineImage(target, "image/jpeg", Files.size(target));
+    }
+
+    private void checkSize(long size) {
+        if (size > maxBytes) {
+            rejected.incrementAndGet();
+            throw new IllegalArgumentException("Prescription image exceeds " + (maxBytes / (1024 * 1024)) + " MB");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.wellness.backend.service;
+
+import com.wellness.backend.dto.ProductDTO;
+import com.wellness.backend.model.Product;
+import com.wellness.backend.storage.ImageDerivatives;
+import com.wellness.backend.storage.ImageDerivatives.Variant;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps products to the DTO shared by the REST API and the catalog index.
+ */
+@Component
+public class ProductMapper {
+
+    @Autowired
+    private ImageDerivatives imageDerivatives;
+
+    public ProductDTO toDTO(Product product) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        dto.setPrice(product.getPrice());
+        dto.setCategory(product.getCategory());
+        dto.setStock(product.getStock());
+        dto.setAvailable(product.getStock() > 0);
+        dto.setImageUrl(product.getImageUrl());
+        dto.setImageUrl2(product.getImageUrl2());
+        dto.setThumbnailUrl(imageDerivatives.urlFor(product.getImageUrl(), Variant.THUMB));
+        dto.setMediumImageUrl(imageDerivatives.urlFor(product.getImageUrl(), Variant.MEDIUM));
+        dto.setThumbnailUrl2(imageDerivatives.urlFor(product.getImageUrl2(), Variant.THUMB));
+        dto.setMediumImageUrl2(imageDerivatives.urlFor(product.getImageUrl2(), Variant.MEDIUM));
+        dto.setActiveIngredient(product.getActiveIngredient());
+        dto.setModerationStatus(product.getModerationStatus() != null ? product.getModerationStatus().name() : null);
+        if (product.getSeller() != null) {
+            dto.setSellerId(product.getSeller().getId());
+        }
+        return dto;
+    }
+}
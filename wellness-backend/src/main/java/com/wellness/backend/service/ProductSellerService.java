@@ -4,22 +4,22 @@ import com.wellness.backend.dto.ProductDTO;
 import com.wellness.backend.dto.SellerApplicationDTO;
 import com.wellness.backend.enums.ProductModerationStatus;
 import com.wellness.backend.enums.SellerVerificationStatus;
+import com.wellness.backend.event.DomainEventPublisher;
+import com.wellness.backend.event.ProductChangedEvent;
 import com.wellness.backend.model.Product;
 import com.wellness.backend.model.ProductSellerProfile;
 import com.wellness.backend.model.User;
 import com.wellness.backend.repository.ProductRepository;
 import com.wellness.backend.repository.ProductSellerRepository;
 import com.wellness.backend.repository.UserRepository;
+import com.wellness.backend.storage.ContentStore;
+import com.wellness.backend.storage.ImageDerivatives;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,8 +34,14 @@ public class ProductSellerService {
     @Autowired
     private UserRepository userRepository;
 
-    private final String UPLOAD_DIR = "uploads/seller_docs/";
-    private final String PRODUCT_IMG_DIR = "uploads/products/";
+    @Autowired
+    private ContentStore contentStore;
+
+    @Autowired
+    private DomainEventPublisher eventPublisher;
+
+    @Autowired
+    private ImageDerivatives imageDerivatives;
 
     @Transactional
     public ProductSellerProfile applyForSellerRole(SellerApplicationDTO dto, 
@@ -59,9 +65,19 @@ public class ProductSellerService {
         profile.setIecCode(dto.getIecCode());
         profile.setVerificationStatus(SellerVerificationStatus.PENDING_VERIFICATION);
 
-        if (gmp != null && !gmp.isEmpty()) profile.setGmpCertificationUrl(saveFile(gmp));
-        if (copp != null && !copp.isEmpty()) profile.setCoppUrl(saveFile(copp));
-        if (smf != null && !smf.isEmpty()) profile.setSmfUrl(saveFile(smf));
+        // A re-application replaces the earlier documents; drop their blob references
+        if (gmp != null && !gmp.isEmpty()) {
+            contentStore.release(profile.getGmpCertificationUrl());
+            profile.setGmpCertificationUrl(saveFile(gmp));
+        }
+        if (copp != null && !copp.isEmpty()) {
+            contentStore.release(profile.getCoppUrl());
+            profile.setCoppUrl(saveFile(copp));
+        }
+        if (smf != null && !smf.isEmpty()) {
+            contentStore.release(profile.getSmfUrl());
+            profile.setSmfUrl(saveFile(smf));
+        }
 
         return sellerRepository.save(profile);
     }
@@ -79,7 +95,9 @@ public class ProductSellerService {
         if (img1 != null && !img1.isEmpty()) product.setImageUrl(saveProductImage(img1));
         if (img2 != null && !img2.isEmpty()) product.setImageUrl2(saveProductImage(img2));
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publish(new ProductChangedEvent(saved.getId()));
+        return saved;
     }
 
     public List<Product> getSellerProducts(String userEmail) {
@@ -92,19 +110,13 @@ public class ProductSellerService {
     }
 
     private String saveProductImage(MultipartFile file) throws IOException {
-        Files.createDirectories(Paths.get(PRODUCT_IMG_DIR));
-        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        Path path = Paths.get(PRODUCT_IMG_DIR + fileName);
-        Files.copy(file.getInputStream(), path);
-        return path.toString();
+        ContentStore.StoredFile stored = contentStore.store(file);
+        imageDerivatives.renderAfterCommit(stored);
+        return stored.path();
     }
 
     private String saveFile(MultipartFile file) throws IOException {
-        Files.createDirectories(Paths.get(UPLOAD_DIR));
-        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        Path path = Paths.get(UPLOAD_DIR + fileName);
-        Files.copy(file.getInputStream(), path);
-        return path.toString();
+        return contentStore.store(file).path();
     }
 
     @Transactional
@@ -137,6 +149,7 @@ public class ProductSellerService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         product.setModerationStatus(status);
+        eventPublisher.publish(new ProductChangedEvent(productId));
         return productRepository.save(product);
     }
 
@@ -145,6 +158,7 @@ public class ProductSellerService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         product.setStock(stock);
+        eventPublisher.publish(new ProductChangedEvent(productId));
         return productRepository.save(product);
     }
 }
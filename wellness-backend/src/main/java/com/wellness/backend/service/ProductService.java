@@ -1,15 +1,21 @@
 package com.wellness.backend.service;
 
+import com.wellness.backend.catalog.IngredientMatcher;
+import com.wellness.backend.catalog.ProductCatalogIndex;
+import com.wellness.backend.catalog.ProductCatalogIndex.Query;
+import com.wellness.backend.catalog.ProductCatalogIndex.Sort;
 import com.wellness.backend.dto.ProductDTO;
 import com.wellness.backend.enums.ProductModerationStatus;
+import com.wellness.backend.event.DomainEventPublisher;
+import com.wellness.backend.event.ProductChangedEvent;
 import com.wellness.backend.model.Product;
 import com.wellness.backend.repository.ProductRepository;
+import com.wellness.backend.storage.ContentStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
@@ -17,13 +23,29 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ProductCatalogIndex catalogIndex;
+
+    @Autowired
+    private IngredientMatcher ingredientMatcher;
+
+    @Autowired
+    private DomainEventPublisher eventPublisher;
+
+    @Autowired
+    private ContentStore contentStore;
+
     // ================= GET ALL ACTIVE PRODUCTS =================
-    @Transactional(readOnly = true)
     public List<ProductDTO> getAllProducts() {
-        return productRepository.findByModerationStatus(ProductModerationStatus.ACTIVE)
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return catalogIndex.list(Query.all(Sort.ID));
+    }
+
+    // ================= CATALOG =================
+    public ProductCatalogIndex.Page browseCatalog(Query query, int page, int size) {
+        return catalogIndex.query(query, page, size);
     }
 
     // ================= GET PRODUCT BY ID =================
@@ -35,41 +57,23 @@ public class ProductService {
     }
 
     // ================= GET PRODUCTS BY CATEGORY =================
-    @Transactional(readOnly = true)
     public List<ProductDTO> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category)
-                .stream()
-                .filter(p -> p.getModerationStatus() == ProductModerationStatus.ACTIVE)
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return catalogIndex.list(new Query(null, category, null, null, null, null, Sort.ID));
     }
 
     // ================= SEARCH PRODUCTS =================
-    @Transactional(readOnly = true)
     public List<ProductDTO> searchProducts(String query) {
-        return productRepository.searchByName(query)
-                .stream()
-                .filter(p -> p.getModerationStatus() == ProductModerationStatus.ACTIVE)
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return catalogIndex.list(new Query(query, null, null, null, null, null, Sort.ID));
     }
 
-    // ================= SEARCH BY GENERIC SYNONYMS =================
-    @Transactional(readOnly = true)
-    public List<ProductDTO> findGenericMatches(List<String> synonyms, String primaryQuery) {
-        return productRepository.findBySynonyms(synonyms, primaryQuery)
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+    // ================= MATCH EXTRACTED MEDICINES =================
+    public List<IngredientMatcher.MedicineMatch> matchMedicines(List<String> names) {
+        return ingredientMatcher.matchAll(names);
     }
 
     // ================= GET AVAILABLE PRODUCTS =================
-    @Transactional(readOnly = true)
     public List<ProductDTO> getAvailableProducts() {
-        return productRepository.findByStockGreaterThan(0)
-                .stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return catalogIndex.list(new Query(null, null, null, null, null, true, Sort.ID));
     }
 
     // ================= CREATE PRODUCT (Admin only) =================
@@ -85,8 +89,12 @@ public class ProductService {
         product.setImageUrl2(dto.getImageUrl2());
         product.setActiveIngredient(dto.getActiveIngredient());
         product.setModerationStatus(ProductModerationStatus.ACTIVE);
+        // Admin-entered paths may point at blobs another product already holds
+        contentStore.retain(product.getImageUrl());
+        contentStore.retain(product.getImageUrl2());
 
         Product saved = productRepository.save(product);
+        eventPublisher.publish(new ProductChangedEvent(saved.getId()));
         return mapToDTO(saved);
     }
 
@@ -101,41 +109,41 @@ public class ProductService {
         if (dto.getPrice() != null) product.setPrice(dto.getPrice());
         if (dto.getCategory() != null) product.setCategory(dto.getCategory());
         if (dto.getStock() != null) product.setStock(dto.getStock());
-        if (dto.getImageUrl() != null) product.setImageUrl(dto.getImageUrl());
-        if (dto.getImageUrl2() != null) product.setImageUrl2(dto.getImageUrl2());
+        if (dto.getImageUrl() != null) product.setImageUrl(replaceImage(product.getImageUrl(), dto.getImageUrl()));
+        if (dto.getImageUrl2() != null) product.setImageUrl2(replaceImage(product.getImageUrl2(), dto.getImageUrl2()));
         if (dto.getActiveIngredient() != null) product.setActiveIngredient(dto.getActiveIngredient());
         product.setModerationStatus(ProductModerationStatus.ACTIVE);
 
         Product updated = productRepository.save(product);
+        eventPublisher.publish(new ProductChangedEvent(updated.getId()));
         return mapToDTO(updated);
     }
 
     // ================= DELETE PRODUCT (Admin only) =================
     @Transactional
     public void deleteProduct(Integer id) {
-        if (!productRepository.existsById(id)) {
-            throw new RuntimeException("Product not found");
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        productRepository.delete(product);
+        contentStore.release(product.getImageUrl());
+        contentStore.release(product.getImageUrl2());
+        eventPublisher.publish(new ProductChangedEvent(id));
+    }
+
+    /**
+     * Moves the product's blob reference from the old image to the new one;
+     * the old blob is deleted after commit if nothing else uses it.
+     */
+    private String replaceImage(String current, String replacement) {
+        if (!replacement.equals(current)) {
+            contentStore.retain(replacement);
+            contentStore.release(current);
         }
-        productRepository.deleteById(id);
+        return replacement;
     }
 
     // ================= MAP TO DTO =================
     private ProductDTO mapToDTO(Product product) {
-        ProductDTO dto = new ProductDTO();
-        dto.setId(product.getId());
-        dto.setName(product.getName());
-        dto.setDescription(product.getDescription());
-        dto.setPrice(product.getPrice());
-        dto.setCategory(product.getCategory());
-        dto.setStock(product.getStock());
-        dto.setAvailable(product.getStock() > 0);
-        dto.setImageUrl(product.getImageUrl());
-        dto.setImageUrl2(product.getImageUrl2());
-        dto.setActiveIngredient(product.getActiveIngredient());
-        dto.setModerationStatus(product.getModerationStatus() != null ? product.getModerationStatus().name() : null);
-        if (product.getSeller() != null) {
-            dto.setSellerId(product.getSeller().getId());
-        }
-        return dto;
+        return productMapper.toDTO(product);
     }
 }
@@ -1,6 +1,8 @@
 package com.wellness.backend.service;
 
 import com.wellness.backend.enums.PaymentStatus;
+import com.wellness.backend.event.DomainEventPublisher;
+import com.wellness.backend.event.RefundProcessedEvent;
 import com.wellness.backend.model.*;
 import com.wellness.backend.repository.PaymentTransactionRepository;
 import com.wellness.backend.repository.RefundTransactionRepository;
@@ -27,10 +29,7 @@ public class RefundService {
     private WalletService walletService;
 
     @Autowired
-    private SessionNotificationService notificationService;
-
-    @Autowired
-    private AuditLogService auditLogService;
+    private DomainEventPublisher eventPublisher;
 
     @Transactional
     public void initiateRefund(TherapySession session, TherapySession.CancelledBy cancelledBy, String reason) {
@@ -83,15 +82,11 @@ public class RefundService {
             refundTx.setProcessedAt(LocalDateTime.now());
             refundTransactionRepository.save(refundTx);
 
-            // 5. Notify
-            notificationService.notifyRefundProcessed(refundTx.getUser().getId(), refundTx.getAmount());
-
-            auditLogService.logAction(
+            // 5. Notify + audit after commit
+            eventPublisher.publish(new RefundProcessedEvent(
+                    refundTx.getId(),
                     refundTx.getUser().getId(),
-                    "REFUND_PROCESSED",
-                    "RefundTransaction",
-                    refundTx.getId().toString(),
-                    "Amount: " + refundTx.getAmount());
+                    refundTx.getAmount()));
 
         } catch (Exception e) {
             refundTx.setStatus(RefundTransaction.RefundStatus.FAILED);
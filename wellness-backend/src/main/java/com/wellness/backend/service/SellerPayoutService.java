@@ -0,0 +1,148 @@
+package com.wellness.backend.service;
+
+import com.wellness.backend.model.ProductSellerProfile;
+import com.wellness.backend.model.SellerBalance;
+import com.wellness.backend.model.SellerPayout;
+import com.wellness.backend.model.User;
+import com.wellness.backend.repository.PayoutBatchRepository;
+import com.wellness.backend.repository.PayoutBatchRepository.PayeeTotal;
+import com.wellness.backend.repository.ProductSellerRepository;
+import com.wellness.backend.repository.SellerBalanceRepository;
+import com.wellness.backend.repository.SellerEarningRepository;
+import com.wellness.backend.repository.SellerPayoutRepository;
+import com.wellness.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Seller earnings balance, payout history and on-demand withdrawal.
+ *
+ * Pending totals come from the seller_balance running balance; only a
+ * withdrawal aggregates seller_earning, over the seller's pending rows.
+ */
+@Service
+public class SellerPayoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SellerPayoutService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductSellerRepository sellerRepository;
+
+    @Autowired
+    private SellerEarningRepository earningRepository;
+
+    @Autowired
+    private SellerBalanceRepository balanceRepository;
+
+    @Autowired
+    private SellerPayoutRepository payoutRepository;
+
+    @Autowired
+    private PayoutBatchRepository payoutBatchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Credits the running balance for earnings recorded in the caller's transaction.
+     */
+    public void creditEarnings(Integer sellerId, BigDecimal netAmount, int count) {
+        balanceRepository.credit(sellerId, netAmount, count, LocalDateTime.now());
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getBalance(String userEmail) {
+        ProductSellerProfile seller = resolveSeller(userEmail);
+        SellerBalance balance = balanceRepository.findById(seller.getId()).orElseGet(SellerBalance::new);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totalPending", balance.getPendingAmount());
+        result.put("itemCount", balance.getPendingCount());
+        result.put("lifetimeEarned", balance.getLifetimeEarned());
+        result.put("paidOut", balance.getPaidOut());
+        result.put("updatedAt", balance.getUpdatedAt());
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public List<SellerPayout> getPayouts(String userEmail) {
+        return payoutRepository.findBySeller_IdOrderByMonthYearDesc(resolveSeller(userEmail).getId());
+    }
+
+    /**
+     * Moves all pending earnings of the seller into this month's payout.
+     */
+    @Transactional
+    public Map<String, Object> withdraw(String userEmail) {
+        ProductSellerProfile seller = resolveSeller(userEmail);
+        // Serializes concurrent withdrawals of the same seller
+        balanceRepository.findForUpdate(seller.getId());
+
+        List<PayeeTotal> totals = PayeeTotal.fromRows(earningRepository.sumPendingForSeller(seller.getId()));
+        if (totals.isEmpty()) {
+            throw new IllegalArgumentException("No pending earnings to withdraw");
+        }
+        PayeeTotal total = totals.get(0);
+        LocalDateTime now = LocalDateTime.now();
+
+        payoutBatchRepository.upsertSellerPayouts(YearMonth.now().toString(), totals, now);
+        int marked = earningRepository.markAllPaidForSeller(seller.getId());
+        if (marked != total.earnings()) {
+            throw new IllegalStateException("Pending earnings changed during withdrawal, please retry");
+        }
+        payoutBatchRepository.debitSellerBalances(totals, now);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("message", "Withdrawal requested successfully");
+        result.put("amountRequested", total.amount());
+        result.put("itemCount", total.earnings());
+        return result;
+    }
+
+    // ================= BALANCE MAINTENANCE =================
+    /**
+     * Backfills seller_balance the first time the application starts with it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillBalances() {
+        try {
+            if (balanceRepository.count() == 0 && earningRepository.count() > 0) {
+                int sellers = rebuildBalances();
+                logger.info("Backfilled seller balances for {} sellers", sellers);
+            }
+        } catch (Exception e) {
+            logger.warn("Seller balance backfill failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recomputes every seller balance from seller_earning.
+     */
+    public int rebuildBalances() {
+        Integer rows = transactionTemplate.execute(status -> balanceRepository.rebuildAll(LocalDateTime.now()));
+        return rows != null ? rows : 0;
+    }
+
+    private ProductSellerProfile resolveSeller(String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return sellerRepository.findByUser_Id(user.getId())
+                .orElseThrow(() -> new RuntimeException("Seller profile not found"));
+    }
+}
@@ -3,7 +3,6 @@ package com.wellness.backend.service;
 import com.wellness.backend.model.Notification;
 import com.wellness.backend.repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -14,7 +13,7 @@ import java.util.Map;
 public class SessionNotificationService {
 
         @Autowired
-        private SimpMessagingTemplate messagingTemplate;
+        private WebSocketPublisher webSocketPublisher;
 
         @Autowired
         private NotificationRepository notificationRepository;
@@ -60,19 +59,18 @@ public class SessionNotificationService {
                         notification.putAll(data);
                 }
 
-                messagingTemplate.convertAndSend(
-                                "/topic/user/" + userId,
-                                notification);
+                webSocketPublisher.sendToUser(userId, notification);
 
                 return savedNotification;
         }
 
-        public Notification sendNotificationToPractitioner(Integer practitionerId, NotificationType type,
+        // Practitioner notifications are addressed by the practitioner's User id, not the profile id
+        public Notification sendNotificationToPractitioner(Integer practitionerUserId, NotificationType type,
                         String message,
                         Map<String, Object> data) {
                 // 1. Save to DB
                 Notification notificationEntity = new Notification(
-                                Long.valueOf(practitionerId),
+                                Long.valueOf(practitionerUserId),
                                 Notification.ReceiverRole.PRACTITIONER,
                                 type,
                                 message);
@@ -92,15 +90,13 @@ public class SessionNotificationService {
                         notification.putAll(data);
                 }
 
-                messagingTemplate.convertAndSend(
-                                "/topic/practitioner/" + practitionerId,
-                                notification);
+                webSocketPublisher.sendToPractitioner(practitionerUserId, notification);
 
                 return savedNotification;
         }
 
         // ================= SPECIFIC NOTIFICATION METHODS =================
-        public void notifySessionBooked(Integer userId, Integer practitionerId, String practitionerName,
+        public void notifySessionBooked(Integer userId, Integer practitionerUserId, String practitionerName,
                         LocalDateTime sessionDateTime) {
                 Map<String, Object> data = new HashMap<>();
                 data.put("eventType", "SESSION_BOOKED");
@@ -112,12 +108,12 @@ public class SessionNotificationService {
                                                 + sessionDateTime.toLocalDate(),
                                 data);
 
-                sendNotificationToPractitioner(practitionerId, NotificationType.SESSION_BOOKED,
+                sendNotificationToPractitioner(practitionerUserId, NotificationType.SESSION_BOOKED,
                                 "New session booking from user",
                                 data);
         }
 
-        public void notifySessionCancelled(Integer userId, String userName, String userEmail, Integer practitionerId,
+        public void notifySessionCancelled(Integer userId, String userName, String userEmail, Integer practitionerUserId,
                         String practitionerName, String reason, String cancelledByRole) {
                 Map<String, Object> data = new HashMap<>();
                 data.put("eventType", "SESSION_CANCELLED");
@@ -127,7 +123,7 @@ public class SessionNotificationService {
                                 "Your session has been cancelled. Reason: " + reason,
                                 data);
 
-                sendNotificationToPractitioner(practitionerId, NotificationType.SESSION_CANCELLED,
+                sendNotificationToPractitioner(practitionerUserId, NotificationType.SESSION_CANCELLED,
                                 "Session has been cancelled",
                                 data);
 
@@ -141,7 +137,7 @@ public class SessionNotificationService {
                 }
         }
 
-        public void notifySessionRescheduled(Integer userId, Integer practitionerId, LocalDateTime newDateTime) {
+        public void notifySessionRescheduled(Integer userId, Integer practitionerUserId, LocalDateTime newDateTime) {
                 Map<String, Object> data = new HashMap<>();
                 data.put("eventType", "SESSION_RESCHEDULED");
                 data.put("newSessionDateTime", newDateTime.toString());
@@ -150,12 +146,12 @@ public class SessionNotificationService {
                                 "Your session has been rescheduled to " + newDateTime.toLocalDate(),
                                 data);
 
-                sendNotificationToPractitioner(practitionerId, NotificationType.SESSION_RESCHEDULED,
+                sendNotificationToPractitioner(practitionerUserId, NotificationType.SESSION_RESCHEDULED,
                                 "Session has been rescheduled",
                                 data);
         }
 
-        public void notifySessionReminder(Integer userId, Integer practitionerId, LocalDateTime sessionDateTime) {
+        public void notifySessionReminder(Integer userId, Integer practitionerUserId, LocalDateTime sessionDateTime) {
                 Map<String, Object> data = new HashMap<>();
                 data.put("eventType", "SESSION_REMINDER");
                 data.put("sessionDateTime", sessionDateTime.toString());
@@ -164,13 +160,13 @@ public class SessionNotificationService {
                                 "Your session is coming up at " + sessionDateTime.toLocalTime(),
                                 data);
 
-                sendNotificationToPractitioner(practitionerId, NotificationType.SESSION_REMINDER,
+                sendNotificationToPractitioner(practitionerUserId, NotificationType.SESSION_REMINDER,
                                 "Upcoming session reminder",
                                 data);
         }
 
         public void notifySessionReminder30Min(Integer userId, String userEmail, String userName,
-                        Integer practitionerId,
+                        Integer practitionerUserId,
                         LocalDateTime sessionDateTime) {
                 Map<String, Object> data = new HashMap<>();
                 data.put("eventType", "REMINDER_30_MIN");
@@ -188,7 +184,7 @@ public class SessionNotificationService {
                         // Log but don't fail if DB isn't updated
                 }
 
-                sendNotificationToPractitioner(practitionerId, NotificationType.REMINDER_30_MIN,
+                sendNotificationToPractitioner(practitionerUserId, NotificationType.REMINDER_30_MIN,
                                 "Upcoming session reminder in 30 mins",
                                 data);
         }
@@ -207,7 +203,7 @@ public class SessionNotificationService {
                                 data);
         }
 
-        public void notifySessionCompleted(Integer userId, Integer practitionerId) {
+        public void notifySessionCompleted(Integer userId, Integer practitionerUserId) {
                 Map<String, Object> data = new HashMap<>();
                 data.put("eventType", "SESSION_COMPLETED");
 
@@ -215,7 +211,7 @@ public class SessionNotificationService {
                                 "Your session has been completed. Please leave a review!",
                                 data);
 
-                sendNotificationToPractitioner(practitionerId, NotificationType.SESSION_COMPLETED,
+                sendNotificationToPractitioner(practitionerUserId, NotificationType.SESSION_COMPLETED,
                                 "A session has been marked as completed.",
                                 data);
         }
@@ -258,8 +254,8 @@ public class SessionNotificationService {
 
         // ================= LEGACY METHODS (For backward compatibility)
         // =================
-        public void notifyPractitioner(Integer practitionerId, String message) {
-                sendNotificationToPractitioner(practitionerId, NotificationType.GENERAL, message, null);
+        public void notifyPractitioner(Integer practitionerUserId, String message) {
+                sendNotificationToPractitioner(practitionerUserId, NotificationType.GENERAL, message, null);
         }
 
         public void notifyUser(Integer userId, String message) {
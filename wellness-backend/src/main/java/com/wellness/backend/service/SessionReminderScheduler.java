@@ -1,32 +1,75 @@
 package com.wellness.backend.service;
 
 import com.wellness.backend.enums.SessionStatus;
+import com.wellness.backend.event.SessionAcceptedEvent;
+import com.wellness.backend.event.SessionBookedEvent;
+import com.wellness.backend.metrics.LatencySampler;
+import com.wellness.backend.metrics.RateMeter;
 import com.wellness.backend.model.TherapySession;
 import com.wellness.backend.repository.TherapySessionRepository;
+import com.wellness.backend.scheduler.TimingWheel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Session reminders driven by an in-memory hierarchical timing wheel.
+ *
+ * Reminders are scheduled when a session becomes BOOKED (payment or
+ * practitioner acceptance) and rebuilt from therapy_session on startup, so the
+ * database is only read when a reminder is actually due. Due reminders are
+ * re-checked against the session in one query per batch and their flags are set
+ * with one bulk UPDATE. Deadlines are full date-times, so a session just after
+ * midnight is reminded the evening before.
+ */
 @Service
 public class SessionReminderScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(SessionReminderScheduler.class);
 
+    private static final long WHEEL_TICK_MS = 1000;
+    private static final int WHEEL_SIZE = 60;
+    private static final int ONE_HOUR_LEAD_MINUTES = 60;
+    // Below this lead time the one-hour reminder is skipped; the short reminder follows soon enough
+    private static final int ONE_HOUR_MIN_LEAD_MINUTES = 45;
+
+    enum Kind {
+        UPCOMING, ONE_HOUR
+    }
+
+    private record Reminder(Integer sessionId, Kind kind, LocalDateTime startsAt, long fireAtMs) {
+    }
+
+    // What a reminder needs once the session is no longer attached
+    private record Notice(Kind kind, Integer sessionId, Integer userId, String userEmail, String userName,
+            Integer practitionerUserId, LocalDateTime startsAt) {
+    }
+
     @Autowired
     private TherapySessionRepository therapySessionRepository;
 
     @Autowired
     private SessionNotificationService notificationService;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Value("${app.session.reminder.enabled:true}")
     private boolean reminderEnabled;
 
@@ -36,105 +79,234 @@ public class SessionReminderScheduler {
     @Value("${app.session.reminder.one-hour-enabled:true}")
     private boolean oneHourReminderEnabled;
 
-    @Scheduled(fixedRate = 60000)
-    @Transactional
-    public void sendSessionReminders() {
+    @Value("${app.session.reminder.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.session.reminder.retry-seconds:30}")
+    private long retrySeconds;
+
+    private final TimingWheel<Reminder> wheel = new TimingWheel<>(WHEEL_TICK_MS, WHEEL_SIZE,
+            System.currentTimeMillis());
+
+    // ================= METRICS =================
+    private final AtomicLong scheduled = new AtomicLong();
+    private final RateMeter fired = new RateMeter(60);
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final LatencySampler fireLag = new LatencySampler(512);
+    private final LatencySampler batchLatency = new LatencySampler(256);
+    private volatile int lastRebuildCount;
+    private volatile long lastRebuildMs;
+
+    // ================= SCHEDULING =================
+    @EventListener
+    public void onSessionBooked(SessionBookedEvent event) {
+        schedule(event.sessionId(), event.startsAt(), true, true);
+    }
+
+    @EventListener
+    public void onSessionAccepted(SessionAcceptedEvent event) {
+        schedule(event.sessionId(), LocalDateTime.of(event.sessionDate(), event.startTime()), true, true);
+    }
+
+    /**
+     * Loads every upcoming BOOKED session with an unsent reminder into the wheel.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFromDatabase() {
         if (!reminderEnabled) {
-            logger.debug("Session reminders are disabled");
             return;
         }
-
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now(ZoneId.systemDefault());
+        int count = 0;
         try {
-            LocalDateTime now = LocalDateTime.now(ZoneId.systemDefault());
-            LocalDateTime reminderWindow = now.plusMinutes(reminderIntervalMinutes);
+            for (Object[] row : therapySessionRepository.findUpcomingWithPendingReminders(now.toLocalDate())) {
+                LocalDateTime startsAt = LocalDateTime.of((LocalDate) row[1], (LocalTime) row[2]);
+                if (!startsAt.isAfter(now)) {
+                    continue;
+                }
+                count += schedule((Integer) row[0], startsAt,
+                        !Boolean.TRUE.equals(row[3]), !Boolean.TRUE.equals(row[4]));
+            }
+        } catch (Exception e) {
+            logger.error("Failed to rebuild session reminder wheel", e);
+        }
+        lastRebuildCount = count;
+        lastRebuildMs = System.currentTimeMillis() - start;
+        logger.info("Scheduled {} session reminders from the database in {} ms", count, lastRebuildMs);
+    }
 
-            List<TherapySession> sessionsNeedingReminder = therapySessionRepository
-                    .findSessionsForReminder(now.toLocalTime(), reminderWindow.toLocalTime());
+    private int schedule(Integer sessionId, LocalDateTime startsAt, boolean upcoming, boolean oneHour) {
+        if (!reminderEnabled) {
+            return 0;
+        }
+        int added = 0;
+        if (upcoming) {
+            add(new Reminder(sessionId, Kind.UPCOMING, startsAt,
+                    toEpochMillis(startsAt.minusMinutes(reminderIntervalMinutes))));
+            added++;
+        }
+        if (oneHour && oneHourReminderEnabled) {
+            add(new Reminder(sessionId, Kind.ONE_HOUR, startsAt,
+                    toEpochMillis(startsAt.minusMinutes(ONE_HOUR_LEAD_MINUTES))));
+            added++;
+        }
+        return added;
+    }
 
-            if (sessionsNeedingReminder.isEmpty()) {
-                return;
-            }
+    private void add(Reminder reminder) {
+        wheel.add(reminder.fireAtMs(), reminder);
+        scheduled.incrementAndGet();
+    }
 
-            for (TherapySession session : sessionsNeedingReminder) {
-                try {
-                    sendReminderForSession(session);
-                } catch (Exception e) {
-                    logger.error("Error sending reminder for session ID: {}", session.getId(), e);
+    // ================= FIRING =================
+    @Scheduled(fixedRate = WHEEL_TICK_MS)
+    public void tick() {
+        List<Reminder> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty() || !reminderEnabled) {
+            return;
+        }
+        for (Kind kind : Kind.values()) {
+            List<Reminder> batch = new ArrayList<>();
+            for (Reminder reminder : due) {
+                if (reminder.kind() != kind) {
+                    continue;
+                }
+                batch.add(reminder);
+                if (batch.size() == batchSize) {
+                    fire(kind, batch);
+                    batch = new ArrayList<>();
                 }
             }
-        } catch (Exception e) {
-            logger.error("Fatal error in session reminder scheduler", e);
+            if (!batch.isEmpty()) {
+                fire(kind, batch);
+            }
         }
     }
 
-    @Scheduled(fixedRate = 60000)
-    @Transactional
-    public void sendOneHourSessionReminders() {
-        if (!reminderEnabled || !oneHourReminderEnabled) {
-            return;
+    private void fire(Kind kind, List<Reminder> batch) {
+        long start = System.currentTimeMillis();
+        Map<Integer, Reminder> bySession = new LinkedHashMap<>();
+        for (Reminder reminder : batch) {
+            bySession.putIfAbsent(reminder.sessionId(), reminder);
         }
 
         try {
-            LocalDateTime now = LocalDateTime.now(ZoneId.systemDefault());
-            LocalDateTime windowStart = now.plusMinutes(45);
-            LocalDateTime windowEnd = now.plusMinutes(60);
-
-            List<TherapySession> sessionsNeedingOneHourReminder = therapySessionRepository
-                    .findSessionsForOneHourReminder(windowStart.toLocalTime(), windowEnd.toLocalTime());
-
-            for (TherapySession session : sessionsNeedingOneHourReminder) {
-                try {
-                    sendOneHourReminderForSession(session);
-                } catch (Exception e) {
-                    logger.error("Error sending 1-hour reminder for session ID: {}", session.getId(), e);
+            // Flags are set in the transaction; notifications go out only once it has committed,
+            // so a rolled-back batch is retried without anyone having been reminded twice
+            List<Notice> notices = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now(ZoneId.systemDefault());
+                List<Notice> due = new ArrayList<>(bySession.size());
+                for (TherapySession session : therapySessionRepository.findWithParticipantsByIdIn(bySession.keySet())) {
+                    Reminder reminder = bySession.get(session.getId());
+                    if (!isStillDue(session, reminder, now)) {
+                        skipped.incrementAndGet();
+                        continue;
+                    }
+                    due.add(noticeFor(kind, session));
+                    fireLag.record(Math.max(0, start - reminder.fireAtMs()));
+                }
+                if (!due.isEmpty()) {
+                    List<Integer> sentIds = due.stream().map(Notice::sessionId).toList();
+                    if (kind == Kind.UPCOMING) {
+                        therapySessionRepository.markRemindersSent(sentIds);
+                    } else {
+                        therapySessionRepository.markOneHourRemindersSent(sentIds);
+                    }
                 }
+                return due;
+            });
+            if (notices != null) {
+                notices.forEach(this::send);
+                fired.mark(notices.size());
             }
         } catch (Exception e) {
-            logger.error("Fatal error in 1-hour reminder scheduler", e);
+            failedBatches.incrementAndGet();
+            logger.error("Failed to send batch of {} {} reminders, retrying in {}s",
+                    bySession.size(), kind, retrySeconds, e);
+            retry(bySession.values());
+        } finally {
+            batchLatency.record(System.currentTimeMillis() - start);
         }
     }
 
-    private void sendReminderForSession(TherapySession session) throws Exception {
-        Integer userId = session.getUser().getId();
-        Integer practitionerUserId = session.getPractitioner().getUser().getId();
-        LocalDateTime sessionDateTime = LocalDateTime.of(session.getSessionDate(), session.getStartTime());
+    private void retry(Iterable<Reminder> reminders) {
+        long retryAt = System.currentTimeMillis() + retrySeconds * 1000;
+        for (Reminder reminder : reminders) {
+            if (toEpochMillis(reminder.startsAt()) > retryAt) {
+                wheel.add(retryAt, reminder);
+                retried.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean isStillDue(TherapySession session, Reminder reminder, LocalDateTime now) {
+        if (session.getStatus() != SessionStatus.BOOKED) {
+            return false;
+        }
+        LocalDateTime startsAt = LocalDateTime.of(session.getSessionDate(), session.getStartTime());
+        if (!startsAt.equals(reminder.startsAt()) || !startsAt.isAfter(now)) {
+            return false;
+        }
+        if (reminder.kind() == Kind.UPCOMING) {
+            return !Boolean.TRUE.equals(session.getReminderSent());
+        }
+        return !Boolean.TRUE.equals(session.getOneHourReminderSent())
+                && !startsAt.isBefore(now.plusMinutes(ONE_HOUR_MIN_LEAD_MINUTES));
+    }
 
-        notificationService.notifySessionReminder30Min(
-                userId,
+    private Notice noticeFor(Kind kind, TherapySession session) {
+        return new Notice(kind, session.getId(),
+                session.getUser().getId(),
                 session.getUser().getEmail(),
                 session.getUser().getName(),
-                practitionerUserId,
-                sessionDateTime);
-
-        session.setReminderSent(true);
-        therapySessionRepository.save(session);
+                session.getPractitioner().getUser().getId(),
+                LocalDateTime.of(session.getSessionDate(), session.getStartTime()));
     }
 
-    private void sendOneHourReminderForSession(TherapySession session) throws Exception {
-        Integer userId = session.getUser().getId();
-        Integer practitionerUserId = session.getPractitioner().getUser().getId();
-        LocalDateTime sessionDateTime = LocalDateTime.of(session.getSessionDate(), session.getStartTime());
-
-        notificationService.notifySessionReminder(
-                userId,
-                practitionerUserId,
-                sessionDateTime);
-
-        session.setOneHourReminderSent(true);
-        therapySessionRepository.save(session);
+    /**
+     * Sends one reminder. The flag is already committed, so a failure here is
+     * logged and not retried.
+     */
+    private void send(Notice notice) {
+        try {
+            if (notice.kind() == Kind.UPCOMING) {
+                notificationService.notifySessionReminder30Min(
+                        notice.userId(),
+                        notice.userEmail(),
+                        notice.userName(),
+                        notice.practitionerUserId(),
+                        notice.startsAt());
+            } else {
+                notificationService.notifySessionReminder(
+                        notice.userId(),
+                        notice.practitionerUserId(),
+                        notice.startsAt());
+            }
+        } catch (Exception e) {
+            logger.error("Error sending {} reminder for session ID: {}", notice.kind(), notice.sessionId(), e);
+        }
     }
 
-    @Transactional
     public boolean triggerReminderForSession(Integer sessionId) {
         try {
-            TherapySession session = therapySessionRepository.findById(sessionId)
-                    .orElseThrow(() -> new IllegalArgumentException("Session not found: " + sessionId));
+            Notice notice = transactionTemplate.execute(status -> {
+                TherapySession session = therapySessionRepository.findById(sessionId)
+                        .orElseThrow(() -> new IllegalArgumentException("Session not found: " + sessionId));
 
-            if (!session.getStatus().equals(SessionStatus.BOOKED)) {
+                if (!session.getStatus().equals(SessionStatus.BOOKED)) {
+                    return null;
+                }
+
+                therapySessionRepository.markRemindersSent(List.of(sessionId));
+                return noticeFor(Kind.UPCOMING, session);
+            });
+            if (notice == null) {
                 return false;
             }
-
-            sendReminderForSession(session);
+            send(notice);
             return true;
         } catch (Exception e) {
             logger.error("Error in manual reminder trigger for session ID: {}", sessionId, e);
@@ -145,4 +317,28 @@ public class SessionReminderScheduler {
     public String getSchedulerStatus() {
         return "Reminders Enabled: " + reminderEnabled + ", Interval: " + reminderIntervalMinutes;
     }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", reminderEnabled);
+        stats.put("intervalMinutes", reminderIntervalMinutes);
+        stats.put("oneHourEnabled", oneHourReminderEnabled);
+        stats.put("pending", wheel.size());
+        stats.put("wheelLevels", wheel.levels());
+        stats.put("scheduled", scheduled.get());
+        stats.put("firedTotal", fired.getTotal());
+        stats.put("firedPerSecond", fired.perSecond());
+        stats.put("skipped", skipped.get());
+        stats.put("failedBatches", failedBatches.get());
+        stats.put("retried", retried.get());
+        stats.put("lastRebuildCount", lastRebuildCount);
+        stats.put("lastRebuildMs", lastRebuildMs);
+        stats.put("fireLag", fireLag.snapshot());
+        stats.put("batchLatency", batchLatency.snapshot());
+        return stats;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
 }
@@ -0,0 +1,92 @@
+package com.wellness.backend.service;
+
+import com.wellness.backend.model.OutboundEmail;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends batches over SMTP. {@link JavaMailSender#send(MimeMessage...)} connects
+ * and authenticates one Transport for the whole array and reports per-message
+ * failures, so a batch costs a single SMTP login.
+ */
+@Service
+@ConditionalOnProperty(name = "app.mail.sink", havingValue = "smtp", matchIfMissing = true)
+public class SmtpMailSink implements MailSink {
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    private final AtomicLong connections = new AtomicLong();
+
+    @Override
+    public Map<OutboundEmail, Exception> sendBatch(List<OutboundEmail> batch) {
+        Map<OutboundEmail, Exception> failures = new LinkedHashMap<>();
+        Map<MimeMessage, OutboundEmail> byMessage = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+
+        for (OutboundEmail email : batch) {
+            try {
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+                helper.setFrom(fromEmail);
+                helper.setTo(email.getRecipient());
+                helper.setSubject(email.getSubject());
+                helper.setText(email.getHtmlBody(), true); // true = HTML
+                messages.add(message);
+                byMessage.put(message, email);
+            } catch (MessagingException e) {
+                failures.put(email, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
+
+        connections.incrementAndGet();
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                // Connection or authentication failure: nothing was sent
+                byMessage.values().forEach(email -> failures.put(email, e));
+            } else {
+                failed.forEach((message, cause) -> {
+                    OutboundEmail email = byMessage.get(message);
+                    if (email != null) {
+                        failures.put(email, cause);
+                    }
+                });
+            }
+        } catch (MailException e) {
+            byMessage.values().forEach(email -> failures.put(email, e));
+        }
+        return failures;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("type", "smtp");
+        stats.put("transportConnections", connections.get());
+        return stats;
+    }
+}
@@ -6,8 +6,14 @@ import com.wellness.backend.dto.BookSessionDTO;
 import com.wellness.backend.enums.PaymentStatus;
 import com.wellness.backend.enums.SessionStatus;
 import com.wellness.backend.enums.SessionType;
+import com.wellness.backend.event.DomainEventPublisher;
+import com.wellness.backend.event.SessionAcceptedEvent;
+import com.wellness.backend.event.SessionCancelledEvent;
+import com.wellness.backend.event.SessionCompletedEvent;
 import com.wellness.backend.model.*;
 import com.wellness.backend.repository.*;
+import com.wellness.backend.storage.ContentStore;
+import com.wellness.backend.storage.FileServer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,17 +25,13 @@ import java.util.*;
 import java.util.stream.Collectors;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.net.MalformedURLException;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.ResponseEntity;
 
 @Service
 public class TherapySessionService {
+    // Prescriptions uploaded before content-addressed storage are bare file names in this directory
+    private static final String LEGACY_PRESCRIPTION_DIR = "uploads/prescriptions";
+
     @Autowired
     private TherapySessionRepository sessionRepository;
     @Autowired
@@ -39,15 +41,15 @@ public class TherapySessionService {
     @Autowired
     private UserRepository userRepository;
     @Autowired
-    private SessionNotificationService notificationService;
+    private DomainEventPublisher eventPublisher;
     @Autowired
     private RefundService refundService;
     @Autowired
-    private AuditLogService auditLogService;
-    @Autowired
-    private DoctorEarningRepository doctorEarningRepository;
+    private PractitionerEarningService practitionerEarningService;
     @Autowired
     private ReviewRepository reviewRepository;
+    @Autowired
+    private ContentStore contentStore;
 
     // ================= BOOK SESSION =================
     @Transactional
@@ -150,22 +152,16 @@ public class TherapySessionService {
         session.setCancelledBy(cancelledByEnum);
         TherapySession saved = sessionRepository.save(session);
 
-        // Notify
-        notificationService.notifySessionCancelled(
+        // Notify + audit after commit
+        eventPublisher.publish(new SessionCancelledEvent(
+                session.getId(),
                 session.getUser().getId(),
                 session.getUser().getName(),
                 session.getUser().getEmail(),
-                session.getPractitioner().getId(),
+                session.getPractitioner().getUser().getId(),
                 session.getPractitioner().getUser().getName(),
                 reason,
-                cancelledBy);
-
-        auditLogService.logAction(
-                session.getUser().getId(),
-                "SESSION_CANCELLED",
-                "TherapySession",
-                session.getId().toString(),
-                "Reason: " + reason);
+                cancelledBy));
 
         return mapToDTO(saved);
     }
@@ -187,11 +183,12 @@ public class TherapySessionService {
         session.setStatus(SessionStatus.BOOKED);
         TherapySession saved = sessionRepository.save(session);
 
-        notificationService.notifySessionAccepted(
+        eventPublisher.publish(new SessionAcceptedEvent(
+                session.getId(),
                 session.getUser().getId(),
                 session.getPractitioner().getUser().getName(),
                 session.getSessionDate(),
-                session.getStartTime());
+                session.getStartTime()));
 
         return mapToDTO(saved);
     }
@@ -213,14 +210,10 @@ public class TherapySessionService {
         // Handle file upload if provided
         if (file != null && !file.isEmpty()) {
             try {
-                String fileName = "prescription_" + sessionId + "_" + System.currentTimeMillis() + "_" + file.getOriginalFilename();
-                Path uploadPath = Paths.get("uploads/prescriptions");
-                if (!Files.exists(uploadPath)) {
-                    Files.createDirectories(uploadPath);
-                }
-                Path filePath = uploadPath.resolve(fileName);
-                Files.copy(file.getInputStream(), filePath);
-                session.setPrescriptionPath(fileName);
+                String previous = session.getPrescriptionPath();
+                session.setPrescriptionPath(contentStore.store(file).path());
+                session.setPrescribedDocumentName(file.getOriginalFilename());
+                contentStore.release(previous, LEGACY_PRESCRIPTION_DIR);
             } catch (IOException e) {
                 throw new RuntimeException("Failed to upload prescription file", e);
             }
@@ -229,40 +222,17 @@ public class TherapySessionService {
         session.setStatus(SessionStatus.BOOKED);
         session.setStatus(SessionStatus.COMPLETED);
         
-        // Calculate and Record Earnings (20% Platform Fee)
-        BigDecimal fee = session.getFeeAmount();
-        if (fee == null) {
-            fee = session.getPractitioner().getConsultationFee() != null 
-                ? session.getPractitioner().getConsultationFee() 
-                : BigDecimal.ZERO;
-        }
-        
-        BigDecimal platformCommission = fee.multiply(new BigDecimal("0.20"));
-        BigDecimal netAmount = fee.subtract(platformCommission);
-
-        com.wellness.backend.model.DoctorEarning earning = new com.wellness.backend.model.DoctorEarning();
-        earning.setPractitioner(session.getPractitioner());
-        earning.setSession(session);
-        earning.setAmount(fee);
-        earning.setPlatformFee(platformCommission);
-        earning.setNetAmount(netAmount);
-        earning.setPayoutStatus(com.wellness.backend.model.DoctorEarning.PayoutStatus.PENDING);
-        doctorEarningRepository.save(earning);
+        // Record earnings (20% platform fee) and credit the practitioner's summary
+        practitionerEarningService.recordEarning(session);
 
         TherapySession saved = sessionRepository.save(session);
 
-        // Notify
-        notificationService.notifySessionCompleted(
+        // Notify + audit after commit
+        eventPublisher.publish(new SessionCompletedEvent(
+                session.getId(),
                 session.getUser().getId(),
-                session.getPractitioner().getId()
-        );
-
-        auditLogService.logAction(
-                session.getPractitioner().getUser().getId(),
-                "SESSION_COMPLETED",
-                "TherapySession",
-                session.getId().toString(),
-                "Session marked as completed");
+                session.getPractitioner().getId(),
+                session.getPractitioner().getUser().getId()));
 
         return mapToDTO(saved);
     }
@@ -357,7 +327,7 @@ public class TherapySessionService {
     }
 
     // ================= DOWNLOAD SESSION DOCUMENT =================
-    public ResponseEntity<Resource> downloadSessionDocument(Integer sessionId) {
+    public FileServer.ServedFile downloadSessionDocument(Integer sessionId) {
         TherapySession session = sessionRepository.findById(sessionId)
                 .orElseThrow(() -> new RuntimeException("Session not found"));
 
@@ -365,16 +335,8 @@ public class TherapySessionService {
             throw new RuntimeException("No document found for this session");
         }
 
-        try {
-            Path filePath = Paths.get("uploads/prescriptions").resolve(session.getPrescribedDocumentUrl());
-            Resource resource = new UrlResource(filePath.toUri());
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                    .body(resource);
-        } catch (MalformedURLException e) {
-            throw new RuntimeException("Error loading file", e);
-        }
+        Path filePath = contentStore.resolve(session.getPrescribedDocumentUrl(), LEGACY_PRESCRIPTION_DIR);
+        return new FileServer.ServedFile(filePath, downloadName(session, filePath), null, true);
     }
 
     // ================= GET USER SESSIONS (by email — legacy) =================
@@ -440,20 +402,15 @@ public class TherapySessionService {
             throw new RuntimeException("Not authorized");
         }
 
-        String fileName = "prescription_" + sessionId + "_" + System.currentTimeMillis() + "_" + file.getOriginalFilename();
-        Path uploadPath = Paths.get("uploads/prescriptions");
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        Path filePath = uploadPath.resolve(fileName);
-        Files.copy(file.getInputStream(), filePath);
-
-        session.setPrescriptionPath(fileName);
+        String previous = session.getPrescriptionPath();
+        session.setPrescriptionPath(contentStore.store(file).path());
+        session.setPrescribedDocumentName(file.getOriginalFilename());
+        // A re-upload replaces the earlier prescription
+        contentStore.release(previous, LEGACY_PRESCRIPTION_DIR);
         sessionRepository.save(session);
     }
 
-    public ResponseEntity<Resource> downloadPrescription(Integer sessionId, String userEmail) throws MalformedURLException {
+    public FileServer.ServedFile downloadPrescription(Integer sessionId, String userEmail) {
         TherapySession session = sessionRepository.findById(sessionId)
                 .orElseThrow(() -> new RuntimeException("Session not found"));
 
@@ -466,11 +423,13 @@ public class TherapySessionService {
             throw new RuntimeException("No prescription found for this session");
         }
 
-        Path filePath = Paths.get("uploads/prescriptions").resolve(session.getPrescriptionPath());
-        Resource resource = new UrlResource(filePath.toUri());
+        Path filePath = contentStore.resolve(session.getPrescriptionPath(), LEGACY_PRESCRIPTION_DIR);
+        return new FileServer.ServedFile(filePath, downloadName(session, filePath), null, true);
+    }
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                .body(resource);
+    // Uploads from before the name was recorded fall back to the stored file name
+    private static String downloadName(TherapySession session, Path filePath) {
+        String name = session.getPrescribedDocumentName();
+        return name != null && !name.isBlank() ? name : filePath.getFileName().toString();
     }
 }
@@ -0,0 +1,229 @@
+package com.wellness.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellness.backend.dto.TriageResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache for AI triage results, keyed by normalized symptom text.
+ *
+ * Entries expire after a TTL and the least recently used entry is evicted
+ * once the cache is full. Concurrent misses for the same key share one
+ * upstream call. Only AI-generated results are cached, so a local fallback
+ * served during an outage is retried on the next request.
+ *
+ * Results are stored as JSON and deserialized per hit, because callers
+ * mutate the returned objects.
+ */
+@Component
+public class TriageCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TriageCache.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.ai.triage-cache.ttl-seconds:21600}")
+    private long ttlSeconds;
+
+    @Value("${app.ai.triage-cache.max-entries:5000}")
+    private int maxEntries;
+
+    // Long free-text descriptions rarely repeat; do not let them churn the cache
+    @Value("${app.ai.triage-cache.max-key-chars:300}")
+    private int maxKeyChars;
+
+    private final Map<String, CachedResult> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+            if (size() > maxEntries) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+    private final Map<String, CompletableFuture<TriageResult>> inFlight = new ConcurrentHashMap<>();
+
+    // ================= METRICS =================
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong uncacheable = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    private record CachedResult(byte[] json, long expiresAt) {
+    }
+
+    /**
+     * Returns the cached result for the symptoms or loads it, joining a load
+     * already in flight for the same key. Each caller gets its own copy.
+     */
+    public CompletableFuture<TriageResult> get(String symptoms,
+            Function<String, CompletableFuture<TriageResult>> loader) {
+        String key = normalize(symptoms);
+        if (key.isEmpty() || key.length() > maxKeyChars) {
+            uncacheable.incrementAndGet();
+            return loader.apply(symptoms);
+        }
+
+        TriageResult cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(cached);
+        }
+        misses.incrementAndGet();
+
+        CompletableFuture<TriageResult> mine = new CompletableFuture<>();
+        CompletableFuture<TriageResult> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return running.thenApply(this::copyOf);
+        }
+        // A load that finished between the lookup above and putIfAbsent has cached its result
+        TriageResult stored = lookup(key);
+        if (stored != null) {
+            inFlight.remove(key, mine);
+            mine.complete(stored);
+            return CompletableFuture.completedFuture(copyOf(stored));
+        }
+        loads.incrementAndGet();
+        CompletableFuture<TriageResult> load;
+        try {
+            load = loader.apply(symptoms);
+        } catch (RuntimeException e) {
+            load = CompletableFuture.failedFuture(e);
+        }
+        load.whenComplete((result, error) -> {
+            if (error == null && result != null && result.isSuccess()) {
+                store(key, result);
+            }
+            // Leave the in-flight slot before completing, so a new miss starts a fresh load
+            inFlight.remove(key, mine);
+            if (error != null) {
+                mine.completeExceptionally(error);
+            } else {
+                mine.complete(result);
+            }
+        });
+        // Waiting callers copy the same instance, so hand this caller its own copy too
+        return mine.thenApply(this::copyOf);
+    }
+
+    @Scheduled(fixedRate = 60000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        int before;
+        int after;
+        synchronized (entries) {
+            before = entries.size();
+            entries.values().removeIf(e -> e.expiresAt() <= now);
+            after = entries.size();
+        }
+        expirations.addAndGet(before - after);
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.get());
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        stats.put("coalesced", coalesced.get());
+        stats.put("upstreamLoads", loads.get());
+        stats.put("inFlight", inFlight.size());
+        stats.put("uncacheable", uncacheable.get());
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        return stats;
+    }
+
+    // ================= INTERNALS =================
+    /**
+     * Case, accents, punctuation and spacing do not change the key.
+     */
+    static String normalize(String symptoms) {
+        if (symptoms == null) {
+            return "";
+        }
+        return Normalizer.normalize(symptoms, Normalizer.Form.NFKD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+
+    private TriageResult lookup(String key) {
+        CachedResult cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+            if (cached != null && cached.expiresAt() <= System.currentTimeMillis()) {
+                entries.remove(key);
+                expirations.incrementAndGet();
+                cached = null;
+            }
+        }
+        return cached != null ? read(cached.json()) : null;
+    }
+
+    private void store(String key, TriageResult result) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(result);
+            CachedResult entry = new CachedResult(json, System.currentTimeMillis() + ttlSeconds * 1000);
+            synchronized (entries) {
+                entries.put(key, entry);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not cache triage result: {}", e.getMessage());
+        }
+    }
+
+    private TriageResult copyOf(TriageResult result) {
+        if (result == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(objectMapper.writeValueAsBytes(result), TriageResult.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not copy triage result", e);
+        }
+    }
+
+    private TriageResult read(byte[] json) {
+        try {
+            return objectMapper.readValue(json, TriageResult.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read cached triage result", e);
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.wellness.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the last inbound activity (any STOMP frame, including heart-beats) of
+ * every open socket and closes sockets that stay silent past the idle timeout.
+ *
+ * The broker already enforces negotiated STOMP heart-beats; this sweep covers
+ * clients that connected without heart-beats or stopped reading. One sweep per
+ * interval keeps keep-alive cost linear in the number of connected clients.
+ */
+@Service
+public class WebSocketLivenessService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketLivenessService.class);
+
+    private final Map<String, TrackedSession> sessions = new ConcurrentHashMap<>();
+
+    @Value("${app.websocket.idle-timeout-seconds:120}")
+    private long idleTimeoutSeconds;
+
+    // ================= METRICS =================
+    private final AtomicLong heartbeatsReceived = new AtomicLong();
+    private final AtomicLong heartbeatsSent = new AtomicLong();
+    private final AtomicLong pingsAnswered = new AtomicLong();
+    private final AtomicLong reapedIdle = new AtomicLong();
+    private volatile long lastSweepDurationMs;
+
+    public void register(WebSocketSession session) {
+        sessions.put(session.getId(), new TrackedSession(session));
+    }
+
+    public void unregister(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public void touch(String sessionId) {
+        TrackedSession tracked = sessions.get(sessionId);
+        if (tracked != null) {
+            tracked.lastSeenAt = System.currentTimeMillis();
+        }
+    }
+
+    public void recordHeartbeatReceived() {
+        heartbeatsReceived.incrementAndGet();
+    }
+
+    public void recordHeartbeatSent() {
+        heartbeatsSent.incrementAndGet();
+    }
+
+    public void recordPing() {
+        pingsAnswered.incrementAndGet();
+    }
+
+    @Scheduled(fixedRateString = "${app.websocket.idle-sweep-ms:30000}")
+    public void reapIdleSessions() {
+        long start = System.currentTimeMillis();
+        long cutoff = start - idleTimeoutSeconds * 1000;
+        int reaped = 0;
+
+        for (TrackedSession tracked : sessions.values()) {
+            if (tracked.lastSeenAt >= cutoff) {
+                continue;
+            }
+            try {
+                if (tracked.session.isOpen()) {
+                    tracked.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+                }
+            } catch (IOException e) {
+                logger.debug("Failed to close idle WebSocket session {}", tracked.session.getId(), e);
+            }
+            sessions.remove(tracked.session.getId());
+            reaped++;
+        }
+
+        lastSweepDurationMs = System.currentTimeMillis() - start;
+        if (reaped > 0) {
+            reapedIdle.addAndGet(reaped);
+            logger.info("Closed {} idle WebSocket sessions.", reaped);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedSessions", sessions.size());
+        stats.put("idleTimeoutSeconds", idleTimeoutSeconds);
+        stats.put("heartbeatsReceived", heartbeatsReceived.get());
+        stats.put("heartbeatsSent", heartbeatsSent.get());
+        stats.put("pingsAnswered", pingsAnswered.get());
+        stats.put("reapedIdle", reapedIdle.get());
+        stats.put("lastSweepDurationMs", lastSweepDurationMs);
+        return stats;
+    }
+
+    private static final class TrackedSession {
+        private final WebSocketSession session;
+        private volatile long lastSeenAt = System.currentTimeMillis();
+
+        private TrackedSession(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.wellness.backend.service;
+
+import com.wellness.backend.config.IndexedSubscriptionRegistry;
+import com.wellness.backend.metrics.LatencySampler;
+import com.wellness.backend.metrics.RateMeter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput, fan-out and latency counters for the STOMP messaging layer.
+ */
+@Service
+public class WebSocketMetricsService {
+
+    private final RateMeter published = new RateMeter(60);
+    private final RateMeter delivered = new RateMeter(60);
+    private final LatencySampler fanOutLatency = new LatencySampler(2048);
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicLong totalConnects = new AtomicLong();
+    private final AtomicLong totalDisconnects = new AtomicLong();
+
+    @Autowired
+    private ObjectProvider<SimpleBrokerMessageHandler> simpleBroker;
+
+    @Value("${app.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${app.websocket.destination-mode:user}")
+    private String destinationMode;
+
+    public void recordPublished() {
+        published.mark();
+    }
+
+    /**
+     * Called once per outbound MESSAGE frame, i.e. once per receiving session.
+     */
+    public void recordDelivery(long latencyMs) {
+        delivered.mark();
+        fanOutLatency.record(latencyMs);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        activeSessions.incrementAndGet();
+        totalConnects.incrementAndGet();
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        activeSessions.updateAndGet(n -> Math.max(0, n - 1));
+        totalDisconnects.incrementAndGet();
+    }
+
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("brokerMode", brokerMode);
+        stats.put("destinationMode", destinationMode);
+        stats.put("activeSessions", activeSessions.get());
+        stats.put("totalConnects", totalConnects.get());
+        stats.put("totalDisconnects", totalDisconnects.get());
+        stats.put("publishedTotal", published.getTotal());
+        stats.put("publishedPerSecond", published.perSecond());
+        stats.put("deliveredTotal", delivered.getTotal());
+        stats.put("deliveredPerSecond", delivered.perSecond());
+        stats.put("avgFanOut", published.getTotal() == 0 ? 0.0
+                : (double) delivered.getTotal() / published.getTotal());
+        stats.put("fanOutLatency", fanOutLatency.snapshot());
+
+        SimpleBrokerMessageHandler handler = simpleBroker.getIfAvailable();
+        if (handler != null && handler.getSubscriptionRegistry() instanceof IndexedSubscriptionRegistry registry) {
+            Map<String, Object> registryStats = new LinkedHashMap<>();
+            registryStats.put("sessions", registry.getSessionCount());
+            registryStats.put("subscriptions", registry.getSubscriptionCount());
+            registryStats.put("destinations", registry.getDestinationCount());
+            registryStats.put("patternDestinations", registry.getPatternDestinationCount());
+            stats.put("subscriptionRegistry", registryStats);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,68 @@
+package com.wellness.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Single entry point for server-initiated WebSocket pushes.
+ *
+ * In "user" destination mode messages go through convertAndSendToUser, so the
+ * broker resolves them to the recipient's own sessions. In "topic" mode the
+ * legacy /topic/user/{id} and /topic/practitioner/{id} broadcast topics are used.
+ */
+@Service
+public class WebSocketPublisher {
+
+    /** Publish time in epoch millis, read back on the outbound channel for latency metrics. */
+    public static final String PUBLISHED_AT_HEADER = "x-published-at";
+
+    public static final String USER_NOTIFICATION_QUEUE = "/queue/notifications";
+    public static final String PRACTITIONER_NOTIFICATION_QUEUE = "/queue/practitioner";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private WebSocketMetricsService metricsService;
+
+    @Value("${app.websocket.destination-mode:user}")
+    private String destinationMode;
+
+    public void sendToUser(Integer userId, Object payload) {
+        publish(userId, "/topic/user/", USER_NOTIFICATION_QUEUE, payload);
+    }
+
+    /**
+     * @param practitionerUserId the practitioner's User id, not the profile id:
+     *                           user destinations resolve by the authenticated principal
+     */
+    public void sendToPractitioner(Integer practitionerUserId, Object payload) {
+        publish(practitionerUserId, "/topic/practitioner/", PRACTITIONER_NOTIFICATION_QUEUE, payload);
+    }
+
+    /**
+     * Sends to one user queue regardless of destination mode (used for replies
+     * that only make sense as user destinations).
+     */
+    public void sendToUserQueue(Integer userId, String queue, Object payload) {
+        messagingTemplate.convertAndSendToUser(userId.toString(), queue, payload, publishHeaders());
+        metricsService.recordPublished();
+    }
+
+    private void publish(Integer recipientId, String topicPrefix, String userQueue, Object payload) {
+        if ("user".equalsIgnoreCase(destinationMode)) {
+            messagingTemplate.convertAndSendToUser(recipientId.toString(), userQueue, payload, publishHeaders());
+        } else {
+            messagingTemplate.convertAndSend(topicPrefix + recipientId, payload, publishHeaders());
+        }
+        metricsService.recordPublished();
+    }
+
+    private static Map<String, Object> publishHeaders() {
+        return Map.of(PUBLISHED_AT_HEADER, String.valueOf(System.currentTimeMillis()));
+    }
+}
@@ -0,0 +1,360 @@
+package com.wellness.backend.storage;
+
+import com.wellness.backend.model.StoredBlob;
+import com.wellness.backend.repository.StoredBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed file storage for uploads.
+ *
+ * An upload is streamed to a temp file under the storage root (Tomcat's spooled
+ * part is moved there when possible), hashed with SHA-256 through a direct
+ * buffer and then renamed to {@code <root>/sha256/ab/cd/<hash><.ext>}. A file
+ * whose hash is already indexed in stored_blob is not written again; its index
+ * entry just gains a reference. Nothing is ever read fully onto the heap.
+ *
+ * Callers store the returned path string exactly like the relative
+ * {@code uploads/...} paths used before, so existing readers keep working.
+ */
+@Component
+public class ContentStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentStore.class);
+
+    private static final String BLOB_DIR = "sha256";
+    private static final String TEMP_DIR = "tmp";
+    private static final int HASH_BUFFER_BYTES = 64 * 1024;
+
+    @Autowired
+    private StoredBlobRepository blobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Path root;
+
+    // ================= METRICS =================
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong reaped = new AtomicLong();
+
+    public ContentStore(@Value("${app.storage.root:uploads}") String root) {
+        this.root = Paths.get(root).normalize();
+    }
+
+    /**
+     * Result of storing one upload. {@code path} is the reference to persist.
+     */
+    public record StoredFile(String sha256, String path, long size, String contentType, boolean deduplicated) {
+    }
+
+    /**
+     * Stores the upload and adds a reference to its blob, in the caller's
+     * transaction. If that transaction rolls back, a blob left without
+     * references is removed again.
+     */
+    @Transactional
+    public StoredFile store(MultipartFile file) throws IOException {
+        Path tempDir = Files.createDirectories(root.resolve(TEMP_DIR)).toAbsolutePath();
+        Path temp = tempDir.resolve(UUID.randomUUID() + ".part");
+        try {
+            // Moves the container's spooled file when it is on the same file system
+            file.transferTo(temp.toFile());
+
+            long size = Files.size(temp);
+            String sha256 = sha256(temp);
+            String candidate = blobPath(sha256, extensionOf(file.getOriginalFilename())).toString();
+
+            blobRepository.acquire(sha256, candidate, size, file.getContentType(), LocalDateTime.now());
+            StoredBlob blob = blobRepository.findById(sha256)
+                    .orElseThrow(() -> new IllegalStateException("Stored blob vanished: " + sha256));
+            Path target = Paths.get(blob.getStoragePath());
+            boolean duplicate = placeBlob(temp, target);
+
+            stored.incrementAndGet();
+            if (duplicate) {
+                deduplicated.incrementAndGet();
+                bytesSaved.addAndGet(size);
+            } else {
+                bytesWritten.addAndGet(size);
+            }
+            reapOnRollback(sha256, target);
+            return new StoredFile(sha256, blob.getStoragePath(), size, blob.getContentType(), duplicate);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Adds a reference to an already stored blob, for a second owner of the
+     * same path. Returns false for references that are not content-addressed
+     * (legacy files, external URLs), which are not counted.
+     */
+    @Transactional
+    public boolean retain(String reference) {
+        String sha256 = reference != null ? sha256Of(reference) : null;
+        if (sha256 == null) {
+            return false;
+        }
+        return blobRepository.findForUpdate(sha256).map(blob -> {
+            blob.setRefCount(blob.getRefCount() + 1);
+            return true;
+        }).orElse(false);
+    }
+
+    /**
+     * Drops one reference to the stored file. The blob is deleted after commit
+     * once nothing references it. Files written before content addressing are
+     * deleted after commit too; references outside the storage root (external
+     * URLs) are left alone.
+     */
+    @Transactional
+    public void release(String reference) {
+        release(reference, null);
+    }
+
+    /**
+     * As {@link #release(String)}, resolving bare legacy file names against
+     * {@code legacyDir} like {@link #resolve}.
+     */
+    @Transactional
+    public void release(String reference, String legacyDir) {
+        if (reference == null || reference.isBlank()) {
+            return;
+        }
+        String sha256 = sha256Of(reference);
+        if (sha256 == null) {
+            Path legacy = resolve(reference, legacyDir);
+            if (isStored(legacy)) {
+                released.incrementAndGet();
+                afterCommit(() -> {
+                    try {
+                        Files.deleteIfExists(legacy);
+                    } catch (IOException e) {
+                        logger.warn("Failed to delete file {}: {}", legacy, e.getMessage());
+                    }
+                });
+            }
+            return;
+        }
+
+        blobRepository.findForUpdate(sha256).ifPresent(blob -> {
+            released.incrementAndGet();
+            if (blob.getRefCount() > 1) {
+                blob.setRefCount(blob.getRefCount() - 1);
+                return;
+            }
+            blobRepository.delete(blob);
+            Path path = Paths.get(blob.getStoragePath());
+            afterCommit(() -> reapIfUnreferenced(sha256, path));
+        });
+    }
+
+    /**
+     * Resolves a stored reference. Bare file names from before content
+     * addressing are resolved against {@code legacyDir}.
+     */
+    public Path resolve(String reference, String legacyDir) {
+        Path path = Paths.get(reference);
+        if (path.getNameCount() == 1 && legacyDir != null) {
+            path = Paths.get(legacyDir).resolve(path);
+        }
+        return path.normalize();
+    }
+
+    /**
+     * SHA-256 of a content-addressed file, taken from its name; empty for
+     * files stored before content addressing.
+     */
+    public Optional<String> contentHash(Path path) {
+        Path normalized = path.toAbsolutePath().normalize();
+        if (!normalized.startsWith(root.resolve(BLOB_DIR).toAbsolutePath())) {
+            return Optional.empty();
+        }
+        String name = normalized.getFileName().toString();
+        int dot = name.indexOf('.');
+        return Optional.of(dot < 0 ? name : name.substring(0, dot));
+    }
+
+    /**
+     * Path of a file derived from a blob (e.g. a thumbnail), kept next to it
+     * as {@code <hash>-<suffix>} and removed together with the blob.
+     */
+    public Path derivativePath(String sha256, String suffix) {
+        return blobPath(sha256, "-" + suffix);
+    }
+
+    /**
+     * True if the path lies under the storage root.
+     */
+    public boolean isStored(Path path) {
+        return path.toAbsolutePath().normalize().startsWith(root.toAbsolutePath());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("root", root.toAbsolutePath().toString());
+        stats.put("stored", stored.get());
+        stats.put("deduplicated", deduplicated.get());
+        stats.put("bytesWritten", bytesWritten.get());
+        stats.put("bytesSaved", bytesSaved.get());
+        stats.put("released", released.get());
+        stats.put("reaped", reaped.get());
+        return stats;
+    }
+
+    // ================= INTERNALS =================
+    private Path blobPath(String sha256, String extension) {
+        return root.resolve(BLOB_DIR)
+                .resolve(sha256.substring(0, 2))
+                .resolve(sha256.substring(2, 4))
+                .resolve(sha256 + extension);
+    }
+
+    /**
+     * Moves the temp file into place unless the blob already exists. Returns
+     * true for a duplicate.
+     */
+    private boolean placeBlob(Path temp, Path target) throws IOException {
+        if (Files.exists(target)) {
+            return true;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            return false;
+        } catch (FileAlreadyExistsException e) {
+            // A concurrent upload of the same content won the rename
+            return true;
+        }
+    }
+
+    private void reapOnRollback(String sha256, Path path) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    reapIfUnreferenced(sha256, path);
+                }
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Deletes the blob file if its index entry is gone. The row lock makes a
+     * concurrent store of the same content either wait or win.
+     */
+    private void reapIfUnreferenced(String sha256, Path path) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (blobRepository.findForUpdate(sha256).isEmpty()) {
+                    try {
+                        if (Files.deleteIfExists(path)) {
+                            reaped.incrementAndGet();
+                        }
+                        deleteDerivatives(sha256, path.getParent());
+                    } catch (IOException e) {
+                        logger.warn("Failed to delete blob {}: {}", path, e.getMessage());
+                    }
+                }
+            });
+        } catch (Exception e) {
+            logger.warn("Blob cleanup for {} failed: {}", sha256, e.getMessage());
+        }
+    }
+
+    private static void deleteDerivatives(String sha256, Path dir) throws IOException {
+        if (dir == null || !Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> derivatives = Files.newDirectoryStream(dir, sha256 + "-*")) {
+            for (Path derivative : derivatives) {
+                Files.deleteIfExists(derivative);
+            }
+        }
+    }
+
+    private String sha256Of(String reference) {
+        return contentHash(Paths.get(reference)).orElse(null);
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_BYTES);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String extensionOf(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0 || dot == fileName.length() - 1) {
+            return "";
+        }
+        String extension = fileName.substring(dot + 1).toLowerCase();
+        return extension.length() <= 10 && extension.chars().allMatch(c -> c < 128 && Character.isLetterOrDigit(c))
+                ? "." + extension
+                : "";
+    }
+}
@@ -0,0 +1,256 @@
+package com.wellness.backend.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves stored files with single-range requests, ETag / Last-Modified
+ * validators and conditional GET.
+ *
+ * Content-addressed files get a strong ETag from their SHA-256; older files a
+ * weak one from size and mtime. Bodies are handed to Tomcat's sendfile when the
+ * connector supports it and otherwise streamed with FileChannel.transferTo, so
+ * file bytes never pass through the heap.
+ */
+@Component
+public class FileServer {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // Same cut-over as Tomcat's DefaultServlet; smaller bodies are cheaper to copy
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    @Autowired
+    private ContentStore contentStore;
+
+    // ================= METRICS =================
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong partial = new AtomicLong();
+    private final AtomicLong sendfile = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+
+    /**
+     * A file to serve. {@code attachment} selects the Content-Disposition type;
+     * {@code cacheControl} overrides the default revalidating policy.
+     */
+    public record ServedFile(Path path, String fileName, String contentType, boolean attachment,
+            String cacheControl) {
+
+        public ServedFile(Path path, String fileName, String contentType, boolean attachment) {
+            this(path, fileName, contentType, attachment, null);
+        }
+    }
+
+    public void serve(ServedFile file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path path = file.path();
+        if (!Files.isRegularFile(path) || !Files.isReadable(path)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long length = attributes.size();
+        // HTTP dates have second precision
+        long lastModified = attributes.lastModifiedTime().toMillis() / 1000 * 1000;
+        String etag = contentStore.contentHash(path)
+                .map(hash -> "\"" + hash + "\"")
+                .orElseGet(() -> "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"");
+
+        served.incrementAndGet();
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Same URL can point at new content later, so always revalidate (a 304 is cheap)
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                file.cacheControl() != null ? file.cacheControl() : "private, no-cache");
+
+        if (isNotModified(request, etag, lastModified)) {
+            notModified.incrementAndGet();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, etag, lastModified)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == UNSATISFIABLE) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                partial.incrementAndGet();
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(contentTypeOf(file));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, (file.attachment()
+                ? ContentDisposition.attachment() : ContentDisposition.inline())
+                .filename(file.fileName() != null ? file.fileName() : path.getFileName().toString(),
+                        StandardCharsets.UTF_8)
+                .build().toString());
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (count >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the range with FileChannel.transferTo once the handler returns
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            sendfile.incrementAndGet();
+            bytesSent.addAndGet(count);
+            return;
+        }
+
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+            bytesSent.addAndGet(count - remaining);
+        }
+        out.flush();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("served", served.get());
+        stats.put("notModified", notModified.get());
+        stats.put("partial", partial.get());
+        stats.put("sendfile", sendfile.get());
+        stats.put("bytesSent", bytesSent.get());
+        return stats;
+    }
+
+    // ================= INTERNALS =================
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            // Weak comparison, as required for If-None-Match
+            String opaque = stripWeak(etag);
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || stripWeak(tag).equals(opaque)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
+
+    /**
+     * A Range is honoured only if If-Range is absent or still matches; If-Range
+     * needs a strong ETag or an exact date.
+     */
+    private boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        String value = ifRange.trim();
+        if (value.startsWith("\"") || value.startsWith("W/")) {
+            return !etag.startsWith("W/") && value.equals(etag);
+        }
+        return dateHeader(request, HttpHeaders.IF_RANGE) == lastModified;
+    }
+
+    /**
+     * Parses a single byte range. Returns null to ignore the header (malformed
+     * or multi-range, answered with the full file) or {@link #UNSATISFIABLE}.
+     */
+    private static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=")) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+        String from = spec.substring(0, dash).trim();
+        String to = spec.substring(dash + 1).trim();
+        try {
+            if (from.isEmpty()) {
+                if (to.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(to);
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new long[] { Math.max(0, length - suffix), length - 1 };
+            }
+            long start = Long.parseLong(from);
+            if (start >= length) {
+                return UNSATISFIABLE;
+            }
+            long end = to.isEmpty() ? length - 1 : Math.min(Long.parseLong(to), length - 1);
+            return end < start ? null : new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static String contentTypeOf(ServedFile file) {
+        if (file.contentType() != null && !file.contentType().isBlank()) {
+            return file.contentType();
+        }
+        String name = file.fileName() != null ? file.fileName() : file.path().getFileName().toString();
+        return MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+    }
+}
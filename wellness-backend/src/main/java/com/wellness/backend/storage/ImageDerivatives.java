@@ -0,0 +1,244 @@
+package com.wellness.backend.storage;
+
+import com.wellness.backend.model.StoredBlob;
+import com.wellness.backend.repository.ProductRepository;
+import com.wellness.backend.repository.StoredBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Resized JPEG derivatives of product images.
+ *
+ * Derivatives are rendered with ImageIO on the "imageExecutor" pool once the
+ * upload commits and stored next to the original blob as
+ * {@code <hash>-w<width>.jpg}. Because the blob is content-addressed, a
+ * derivative URL never changes meaning and can be cached as immutable. A
+ * derivative that is missing (older uploads, dropped jobs) is rendered on its
+ * first request; concurrent requests for it share one render.
+ */
+@Component
+public class ImageDerivatives {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivatives.class);
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+    private static final String URL_PREFIX = "/api/products/images/";
+    // Thumbnails are small; decode at about twice their width so the final downscale stays smooth
+    private static final int OVERSAMPLE = 2;
+
+    public enum Variant {
+        THUMB(320), MEDIUM(800);
+
+        private final int width;
+
+        Variant(int width) {
+            this.width = width;
+        }
+
+        public int width() {
+            return width;
+        }
+
+        public String suffix() {
+            return "w" + width + ".jpg";
+        }
+
+        public String pathSegment() {
+            return name().toLowerCase();
+        }
+
+        public static Optional<Variant> fromPathSegment(String segment) {
+            for (Variant variant : values()) {
+                if (variant.pathSegment().equals(segment)) {
+                    return Optional.of(variant);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Autowired
+    private ContentStore contentStore;
+
+    @Autowired
+    private StoredBlobRepository blobRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    @Qualifier("imageExecutor")
+    private ThreadPoolTaskExecutor imageExecutor;
+
+    @Value("${app.images.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    // Larger sources are not decoded at all
+    @Value("${app.images.max-source-pixels:40000000}")
+    private long maxSourcePixels;
+
+    private final Map<Path, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    // ================= METRICS =================
+    private final AtomicLong scheduled = new AtomicLong();
+    private final AtomicLong rendered = new AtomicLong();
+    private final AtomicLong renderedOnDemand = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong bytesOriginal = new AtomicLong();
+    private final AtomicLong bytesDerived = new AtomicLong();
+
+    /**
+     * Renders all variants of a stored product image after the current
+     * transaction commits.
+     */
+    public void renderAfterCommit(ContentStore.StoredFile file) {
+        Path source = Paths.get(file.path());
+        Runnable job = () -> imageExecutor.execute(() -> {
+            for (Variant variant : Variant.values()) {
+                render(file.sha256(), source, variant);
+            }
+        });
+        scheduled.incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            job.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                job.run();
+            }
+        });
+    }
+
+    /**
+     * URL of a variant of a stored image reference, or null if the reference
+     * is not a content-addressed upload (e.g. an external image URL).
+     */
+    public String urlFor(String reference, Variant variant) {
+        if (reference == null || reference.isBlank() || reference.contains("://")) {
+            return null;
+        }
+        try {
+            return contentStore.contentHash(Paths.get(reference))
+                    .filter(hash -> SHA256.matcher(hash).matches())
+                    .map(hash -> URL_PREFIX + hash + "/" + variant.pathSegment())
+                    .orElse(null);
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the derivative file, rendering it first if needed. Empty if the
+     * hash is not a product image or the image cannot be decoded.
+     */
+    public Optional<Path> resolve(String sha256, Variant variant) {
+        if (!SHA256.matcher(sha256).matches()) {
+            return Optional.empty();
+        }
+        Path target = contentStore.derivativePath(sha256, variant.suffix());
+        if (Files.exists(target)) {
+            return Optional.of(target);
+        }
+
+        Optional<String> source = blobRepository.findById(sha256).map(StoredBlob::getStoragePath);
+        // Only product images are public; other uploads must not be reachable by hash
+        if (source.isEmpty() || !productRepository.existsByImageUrlOrImageUrl2(source.get(), source.get())) {
+            return Optional.empty();
+        }
+        if (render(sha256, Paths.get(source.get()), variant)) {
+            renderedOnDemand.incrementAndGet();
+            return Optional.of(target);
+        }
+        return Optional.empty();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("scheduled", scheduled.get());
+        stats.put("rendered", rendered.get());
+        stats.put("renderedOnDemand", renderedOnDemand.get());
+        stats.put("failed", failed.get());
+        stats.put("inFlight", inFlight.size());
+        stats.put("queueDepth", imageExecutor.getThreadPoolExecutor().getQueue().size());
+        stats.put("bytesOriginal", bytesOriginal.get());
+        stats.put("bytesDerived", bytesDerived.get());
+        return stats;
+    }
+
+    // ================= INTERNALS =================
+    /**
+     * Renders one derivative unless it exists. Concurrent calls for the same
+     * target wait for the first one.
+     */
+    private boolean render(String sha256, Path source, Variant variant) {
+        Path target = contentStore.derivativePath(sha256, variant.suffix());
+        if (Files.exists(target)) {
+            return true;
+        }
+        CompletableFuture<Boolean> mine = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = inFlight.putIfAbsent(target, mine);
+        if (running != null) {
+            return running.join();
+        }
+        boolean ok = false;
+        try {
+            ok = writeDerivative(source, target, variant.width());
+            if (ok) {
+                rendered.incrementAndGet();
+                bytesOriginal.addAndGet(Files.size(source));
+                bytesDerived.addAndGet(Files.size(target));
+            } else {
+                failed.incrementAndGet();
+            }
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            logger.warn("Failed to render {} of {}: {}", variant, sha256, e.getMessage());
+        } finally {
+            mine.complete(ok);
+            inFlight.remove(target, mine);
+        }
+        return ok;
+    }
+
+    private boolean writeDerivative(Path source, Path target, int width) throws IOException {
+        BufferedImage image = ImageScaler.read(source, width, Integer.MAX_VALUE, maxSourcePixels, OVERSAMPLE);
+        if (image == null) {
+            return false;
+        }
+        BufferedImage scaled = ImageScaler.fit(image, width, Integer.MAX_VALUE);
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".part");
+        Files.createDirectories(target.getParent());
+        try {
+            ImageScaler.writeJpeg(scaled, temp, jpegQuality);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return true;
+    }
+}
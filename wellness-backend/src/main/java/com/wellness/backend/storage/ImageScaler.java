@@ -0,0 +1,115 @@
+package com.wellness.backend.storage;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * ImageIO decoding with subsampling, bounded scaling and JPEG encoding,
+ * shared by product image derivatives and prescription uploads.
+ */
+public final class ImageScaler {
+
+    private ImageScaler() {
+    }
+
+    /**
+     * Decodes an image that will be shown at most {@code maxWidth} x
+     * {@code maxHeight}, subsampled while decoding down to about
+     * {@code oversample} times that size (at least 1). Returns null if no
+     * ImageIO reader recognizes it.
+     *
+     * @throws IOException if the source is larger than {@code maxSourcePixels}
+     */
+    public static BufferedImage read(Path source, int maxWidth, int maxHeight, long maxSourcePixels, int oversample)
+            throws IOException {
+        if (!Files.isRegularFile(source)) {
+            return null;
+        }
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            return read(in, maxWidth, maxHeight, maxSourcePixels, oversample);
+        }
+    }
+
+    public static BufferedImage read(InputStream source, int maxWidth, int maxHeight, long maxSourcePixels,
+            int oversample) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source)) {
+            return read(in, maxWidth, maxHeight, maxSourcePixels, oversample);
+        }
+    }
+
+    /**
+     * Scales down to fit within the bounds, keeping the aspect ratio, onto an
+     * opaque RGB canvas (JPEG has no alpha; transparency becomes white).
+     */
+    public static BufferedImage fit(BufferedImage image, int maxWidth, int maxHeight) {
+        double ratio = Math.min(1.0, Math.min((double) maxWidth / image.getWidth(), (double) maxHeight / image.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, targetWidth, targetHeight);
+            g.drawImage(image, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    public static void writeJpeg(BufferedImage image, Path target, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static BufferedImage read(ImageInputStream in, int maxWidth, int maxHeight, long maxSourcePixels,
+            int oversample) throws IOException {
+        Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+        if (readers == null || !readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(in, true, true);
+            int sourceWidth = reader.getWidth(0);
+            int sourceHeight = reader.getHeight(0);
+            if ((long) sourceWidth * sourceHeight > maxSourcePixels) {
+                throw new IOException(sourceWidth + "x" + sourceHeight + " exceeds the source pixel limit");
+            }
+            // Subsample while decoding down to about oversample times the target size, so
+            // large photos are never fully decoded; fit() smooths the rest
+            double factor = Math.max((double) sourceWidth / maxWidth, (double) sourceHeight / maxHeight);
+            int step = Math.max(1, (int) (factor / Math.max(1, oversample)));
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceSubsampling(step, step, 0, 0);
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+        }
+    }
+}
@@ -24,6 +24,9 @@ CREATE TABLE users (
   UNIQUE KEY email (email)
 ) ENGINE=InnoDB;
 
+-- Backs the monthly analytics rollups
+CREATE INDEX idx_users_created_at ON users (created_at);
+
 
 -- 1️⃣b EMAIL VERIFICATION OTP
 
@@ -113,6 +116,9 @@ CREATE TABLE orders (
     ON DELETE CASCADE
 ) ENGINE=InnoDB;
 
+-- Backs the monthly analytics rollups
+CREATE INDEX idx_order_date ON orders (order_date);
+
 
 -- 6️⃣ THERAPY SESSION
 
@@ -144,6 +150,11 @@ CREATE TABLE therapy_session (
     UNIQUE KEY unique_practitioner_slot (practitioner_id, session_date, start_time)
 ) ENGINE=InnoDB;
 
+-- Backs the HOLD expiry sweep (oldest expired holds first)
+CREATE INDEX idx_status_created_at ON therapy_session (status, created_at);
+-- Backs the monthly analytics rollups
+CREATE INDEX idx_created_at ON therapy_session (created_at);
+
 
 -- 6️⃣b PRACTITIONER AVAILABILITY
 
@@ -197,6 +208,46 @@ CREATE TABLE notifications (
 ) ENGINE=InnoDB;
 
 CREATE INDEX idx_receiver ON notifications (receiver_id, receiver_role);
+CREATE INDEX idx_notification_read_created ON notifications (is_read, created_at);
+
+-- 8️⃣b NOTIFICATION ARCHIVE (month-partitioned, managed by NotificationCleanupService)
+
+DROP TABLE IF EXISTS notification_archive;
+CREATE TABLE notification_archive (
+  id BIGINT NOT NULL,
+  receiver_id BIGINT NOT NULL,
+  receiver_role VARCHAR(20) NOT NULL,
+  session_id BIGINT,
+  type VARCHAR(50) NOT NULL,
+  message TEXT NOT NULL,
+  is_read BOOLEAN NOT NULL,
+  email_sent BOOLEAN NOT NULL,
+  created_at DATETIME NOT NULL,
+  archive_month INT NOT NULL,
+  archived_at DATETIME NOT NULL,
+  PRIMARY KEY (id, archive_month),
+  INDEX idx_archive_receiver (receiver_id, receiver_role)
+) ENGINE=InnoDB
+PARTITION BY RANGE (archive_month) (
+  PARTITION p_max VALUES LESS THAN MAXVALUE
+);
+
+-- 8️⃣c EMAIL OUTBOX (queued by EmailService, drained by EmailDispatcher)
+
+DROP TABLE IF EXISTS email_outbox;
+CREATE TABLE email_outbox (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  recipient VARCHAR(255) NOT NULL,
+  subject VARCHAR(500) NOT NULL,
+  html_body MEDIUMTEXT NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  attempts INT NOT NULL DEFAULT 0,
+  next_attempt_at DATETIME(6) NOT NULL,
+  last_error VARCHAR(1000),
+  created_at DATETIME(6) NOT NULL,
+  sent_at DATETIME(6),
+  INDEX idx_email_outbox_status_next (status, next_attempt_at)
+) ENGINE=InnoDB;
 
 
 -- 9️⃣ ORDER ITEM
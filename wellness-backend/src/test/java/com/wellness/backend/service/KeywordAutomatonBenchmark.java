@@ -0,0 +1,148 @@
+package com.wellness.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Fallback triage keyword matching: {@link KeywordAutomaton} against the scans
+ * it replaced, a {@code Pattern.compile} per keyword and call
+ * (FallbackTriageService) and a {@code String.contains} loop
+ * (LocalFallbackService). Not a test; run {@link #main} from the IDE after
+ * {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeywordAutomatonBenchmark {
+
+    // The keyword tables as FallbackTriageService and LocalFallbackService had them, in rule order
+    private static final List<List<String>> TRIAGE_RULES = List.of(
+            List.of("chest pain", "heart attack", "palpitations"),
+            List.of("breathing difficulty", "shortness of breath", "wheezing"),
+            List.of("diarrhea", "constipation", "nausea", "vomiting", "acidity", "stomach pain", "heartburn"),
+            List.of("headache", "dizziness", "seizures", "numbness"),
+            List.of("rash", "itching", "skin", "burn"));
+
+    private static final List<String> EMERGENCY_KEYWORDS = List.of("breath", "chest pain", "unconscious", "bleeding");
+
+    private static final List<Map.Entry<String, String>> SPECIALTY_KEYWORDS = List.of(
+            Map.entry("chest", "Cardiology"),
+            Map.entry("heart", "Cardiology"),
+            Map.entry("stomach", "Gastroenterology"),
+            Map.entry("digestion", "Gastroenterology"),
+            Map.entry("headache", "Neurology"),
+            Map.entry("seizure", "Neurology"),
+            Map.entry("skin", "Dermatology"),
+            Map.entry("bone", "Orthopedics"),
+            Map.entry("joint", "Orthopedics"),
+            Map.entry("ear", "ENT"),
+            Map.entry("ringing", "ENT"));
+
+    private static final Map<String, String> INPUTS = Map.of(
+            "none", "I have been feeling tired and a little low on energy for a few days",
+            "early", "Chest pain since this morning, spreading to my left arm",
+            "late", "I have been feeling tired for a few days, slept badly and now there is an itchy rash on my arm",
+            "long", ("Over the past two weeks I have had trouble sleeping, some tiredness during the day, "
+                    + "occasional dizziness when standing up quickly and a dull ache behind the eyes in the evening. ")
+                    .repeat(4) + "Today there is also some nausea.");
+
+    @Param({"none", "early", "late", "long"})
+    private String input;
+
+    private String text;
+    private KeywordAutomaton<Integer> triageRules;
+    private KeywordAutomaton<String> localKeywords;
+
+    @Setup
+    public void setUp() {
+        text = INPUTS.get(input);
+
+        KeywordAutomaton.Builder<Integer> rules = KeywordAutomaton.builder();
+        for (int i = 0; i < TRIAGE_RULES.size(); i++) {
+            rules.add(i, i, TRIAGE_RULES.get(i).toArray(new String[0]));
+        }
+        triageRules = rules.build();
+
+        KeywordAutomaton.Builder<String> local = KeywordAutomaton.<String>builder()
+                .add(0, null, EMERGENCY_KEYWORDS.toArray(new String[0]));
+        for (int i = 0; i < SPECIALTY_KEYWORDS.size(); i++) {
+            local.add(i + 1, SPECIALTY_KEYWORDS.get(i).getValue(), SPECIALTY_KEYWORDS.get(i).getKey());
+        }
+        localKeywords = local.build();
+    }
+
+    // ================= FALLBACK TRIAGE RULES =================
+    @Benchmark
+    public int triageRegexPerCall() {
+        String lower = text.toLowerCase();
+        for (int rule = 0; rule < TRIAGE_RULES.size(); rule++) {
+            for (String keyword : TRIAGE_RULES.get(rule)) {
+                if (Pattern.compile("\\b" + Pattern.quote(keyword) + "\\b").matcher(lower).find()) {
+                    return rule;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public int triageAutomaton() {
+        KeywordAutomaton.Match<Integer> match = triageRules.best(text);
+        return match != null ? match.value() : -1;
+    }
+
+    // ================= LOCAL FALLBACK KEYWORDS =================
+    @Benchmark
+    public String localContainsScan() {
+        String lower = text.toLowerCase();
+        boolean emergency = EMERGENCY_KEYWORDS.stream().anyMatch(lower::contains);
+        for (Map.Entry<String, String> entry : SPECIALTY_KEYWORDS) {
+            if (lower.contains(entry.getKey())) {
+                return emergency ? "!" + entry.getValue() : entry.getValue();
+            }
+        }
+        return emergency ? "!" : null;
+    }
+
+    @Benchmark
+    public String localAutomaton() {
+        boolean emergency = false;
+        String specialty = null;
+        for (KeywordAutomaton.Match<String> match : localKeywords.matchAll(text)) {
+            emergency |= match.priority() == 0;
+            if (specialty == null) {
+                specialty = match.value();
+            }
+        }
+        if (specialty == null) {
+            return emergency ? "!" : null;
+        }
+        return emergency ? "!" + specialty : specialty;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(KeywordAutomatonBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
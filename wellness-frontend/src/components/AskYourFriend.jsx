@@ -245,6 +245,17 @@ export default function AskYourFriend({ isOpen, setIsOpen }) {
                               </p>
                               <p className="text-xs text-slate-800 font-semibold leading-relaxed ml-3">{med.instructions}</p>
                             </div>
+
+                            {result.matches?.[idx]?.products?.length > 0 && (
+                              <div className="mt-3 bg-teal-50/50 p-3.5 rounded-xl border border-teal-100/50">
+                                <p className="text-[9px] font-black text-teal-800/60 uppercase tracking-[0.2em] mb-1.5">Available in store</p>
+                                <ul className="ml-3 space-y-1">
+                                  {result.matches[idx].products.map((product) => (
+                                    <li key={product.id} className="text-xs text-teal-900 font-semibold">{product.name} · ₹{product.price}</li>
+                                  ))}
+                                </ul>
+                              </div>
+                            )}
                           </div>
                         ))}
                       </div>
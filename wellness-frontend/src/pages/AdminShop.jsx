@@ -236,10 +236,10 @@ export default function AdminShop() {
                     <div key={p.id} className="bg-white rounded-3xl border border-slate-100 shadow-sm p-8 flex flex-col lg:flex-row gap-10">
                         <div className="w-full lg:w-48 space-y-3">
                             <div className="aspect-square bg-slate-50 rounded-2xl border border-slate-50 overflow-hidden">
-                                {p.imageUrl && <img src={p.imageUrl} className="w-full h-full object-cover" />}
+                                {p.imageUrl && <img src={p.thumbnailUrl || p.imageUrl} loading="lazy" className="w-full h-full object-cover" />}
                             </div>
                             <div className="aspect-square bg-slate-50 rounded-2xl border border-slate-50 overflow-hidden">
-                                {p.imageUrl2 && <img src={p.imageUrl2} className="w-full h-full object-cover" />}
+                                {p.imageUrl2 && <img src={p.thumbnailUrl2 || p.imageUrl2} loading="lazy" className="w-full h-full object-cover" />}
                             </div>
                         </div>
 
@@ -315,7 +315,7 @@ export default function AdminShop() {
                     <div key={p.id} className="p-6 rounded-3xl border border-slate-50 bg-slate-50/20 hover:border-teal-100 hover:bg-teal-50/10 transition-all group">
                         <div className="flex gap-4 items-center mb-4">
                             <div className="w-20 h-20 bg-white rounded-2xl border border-slate-100 shadow-sm overflow-hidden p-1 flex items-center justify-center">
-                                {p.imageUrl ? <img src={p.imageUrl} className="w-full h-full object-cover rounded-xl" /> : <Package className="text-slate-200" />}
+                                {p.imageUrl ? <img src={p.thumbnailUrl || p.imageUrl} loading="lazy" className="w-full h-full object-cover rounded-xl" /> : <Package className="text-slate-200" />}
                             </div>
                             <div className="flex-1 truncate">
                                 <h4 className="font-black text-slate-900 truncate">{p.name}</h4>
@@ -242,8 +242,9 @@ export default function ProductMarketplace() {
               <div className="mb-4 rounded-lg overflow-hidden bg-gray-100 flex items-center justify-center" style={{ height: "180px" }}>
                 {product.imageUrl && product.imageUrl.trim() ? (
                   <img
-                    src={product.imageUrl}
+                    src={product.thumbnailUrl || product.imageUrl}
                     alt={product.name}
+                    loading="lazy"
                     className="object-cover w-full h-full"
                     onError={(e) => { e.target.style.display = 'none'; e.target.nextSibling.style.display = 'flex'; }}
                   />
@@ -345,12 +346,12 @@ export default function ProductMarketplace() {
             <div className="grid grid-cols-2 gap-2 mb-4">
               {detailsProduct.imageUrl && detailsProduct.imageUrl.trim() && (
                 <div className="rounded-lg overflow-hidden bg-gray-100 flex items-center justify-center" style={{ height: "150px" }}>
-                  <img src={detailsProduct.imageUrl} alt={detailsProduct.name} className="object-cover w-full h-full" />
+                  <img src={detailsProduct.mediumImageUrl || detailsProduct.imageUrl} alt={detailsProduct.name} className="object-cover w-full h-full" />
                 </div>
               )}
               {detailsProduct.imageUrl2 && detailsProduct.imageUrl2.trim() && (
                 <div className="rounded-lg overflow-hidden bg-gray-100 flex items-center justify-center" style={{ height: "150px" }}>
-                  <img src={detailsProduct.imageUrl2} alt={detailsProduct.name} className="object-cover w-full h-full" />
+                  <img src={detailsProduct.mediumImageUrl2 || detailsProduct.imageUrl2} alt={detailsProduct.name} className="object-cover w-full h-full" />
                 </div>
               )}
             </div>
@@ -7,24 +7,15 @@ const authHeaders = () => ({
 
 export const analyzeMedicalInput = async (text, file = null) => {
   try {
-    let base64Image = null;
-    let mimeType = null;
-
-    if (file) {
-      mimeType = file.type;
-      base64Image = await convertToBase64(file);
-      // Remove the data:image/xxx;base64, prefix for the backend
-      base64Image = base64Image.split(',')[1];
-    }
+    // Multipart upload: the image is sent as-is and downscaled by the server
+    const form = new FormData();
+    if (text) form.append("text", text);
+    if (file) form.append("image", file);
 
     const res = await fetch(`${API_BASE}/medical-intelligence/analyze`, {
       method: "POST",
-      headers: authHeaders(),
-      body: JSON.stringify({
-        text,
-        image: base64Image,
-        mimeType
-      }),
+      headers: { Authorization: `Bearer ${localStorage.getItem("accessToken")}` },
+      body: form,
     });
 
     const result = await res.json();
@@ -36,15 +27,6 @@ export const analyzeMedicalInput = async (text, file = null) => {
   }
 };
 
-const convertToBase64 = (file) => {
-  return new Promise((resolve, reject) => {
-    const reader = new FileReader();
-    reader.readAsDataURL(file);
-    reader.onload = () => resolve(reader.result);
-    reader.onerror = (error) => reject(error);
-  });
-};
-
 export const analyzeForTriage = async (symptomsText) => {
   try {
     const query = encodeURIComponent(symptomsText);
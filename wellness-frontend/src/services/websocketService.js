@@ -30,9 +30,16 @@ export const connectWebSocket = (userId, onMessageReceived) => {
     // Connect natively via WebSocket protocol
     const socket = new WebSocket(API_WS);
     stompClient = Stomp.over(socket);
+    // STOMP heart-beats keep the socket alive; must match app.websocket.heartbeat.* on the server
+    stompClient.heartbeat.outgoing = 10000;
+    stompClient.heartbeat.incoming = 10000;
+
+    // Authenticate the STOMP session so the server can route /user/queue/* messages to us
+    const token = localStorage.getItem("accessToken");
+    const connectHeaders = token ? { Authorization: `Bearer ${token}` } : {};
 
     stompClient.connect(
-      {},
+      connectHeaders,
       (frame) => {
         console.log("WebSocket connected:", frame);
         isConnecting = false;
@@ -62,7 +69,7 @@ export const subscribeToUserUpdates = (userId, callback) => {
     return;
   }
 
-  const subscription = stompClient.subscribe(`/topic/user/${userId}`, (message) => {
+  const handler = (message) => {
     try {
       const data = JSON.parse(message.body);
       console.log("User notification received:", data);
@@ -70,9 +77,11 @@ export const subscribeToUserUpdates = (userId, callback) => {
     } catch (error) {
       console.error("Error parsing WebSocket message:", error);
     }
-  });
+  };
 
-  subscriptions[`user-${userId}`] = subscription;
+  // Per-user destination (server destination-mode=user) and legacy broadcast topic
+  subscriptions[`user-queue-${userId}`] = stompClient.subscribe("/user/queue/notifications", handler);
+  subscriptions[`user-${userId}`] = stompClient.subscribe(`/topic/user/${userId}`, handler);
 };
 
 // ---- Subscribe to Session Updates ----
@@ -122,7 +131,7 @@ export const subscribeToPractitionerUpdates = (practitionerId, callback) => {
     return;
   }
 
-  const subscription = stompClient.subscribe(`/topic/practitioner/${practitionerId}`, (message) => {
+  const handler = (message) => {
     try {
       const data = JSON.parse(message.body);
       console.log("Practitioner update received:", data);
@@ -130,9 +139,10 @@ export const subscribeToPractitionerUpdates = (practitionerId, callback) => {
     } catch (error) {
       console.error("Error parsing WebSocket message:", error);
     }
-  });
+  };
 
-  subscriptions[`practitioner-${practitionerId}`] = subscription;
+  subscriptions[`practitioner-queue-${practitionerId}`] = stompClient.subscribe("/user/queue/practitioner", handler);
+  subscriptions[`practitioner-${practitionerId}`] = stompClient.subscribe(`/topic/practitioner/${practitionerId}`, handler);
 };
 
 // ---- Send Session Subscription Request ----
@@ -175,7 +185,7 @@ export const requestPractitionerSubscription = (practitionerId) => {
   stompClient.send("/app/availability/subscribe", {}, JSON.stringify({ practitionerId }));
 };
 
-// ---- Heartbeat/Keep-Alive ----
+// ---- Round-trip check (reply arrives on /user/queue/pong for this session only) ----
 export const sendPing = () => {
   if (!stompClient || !isConnected) {
     console.warn("WebSocket not connected");